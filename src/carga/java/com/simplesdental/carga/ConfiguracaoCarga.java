@@ -0,0 +1,133 @@
+package com.simplesdental.carga;
+
+import static java.util.Objects.isNull;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parametros do teste de carga, recebidos como chave=valor na linha de comando.
+ * Chaves com prefixo "app." sao repassadas para a aplicacao (app.simplesdental.replica.habilitada=true
+ * vira --simplesdental.replica.habilitada=true), para comparar configuracoes com a mesma carga.
+ * Com comparar=chave:valor1,valor2 o teste inteiro roda uma vez por valor, com banco e
+ * aplicacao novos, e no fim imprime o total de cada execucao lado a lado.
+ */
+final class ConfiguracaoCarga {
+
+    private static final String MIX_PADRAO = "buscar-profissional=30,buscar-lote=5,buscar-nome=8,buscar-texto=8,"
+            + "buscar-cargo=8,estatisticas=2,criar-profissional=3,atualizar-profissional=5,excluir-profissional=1,"
+            + "buscar-contato=12,buscar-contatos=6,criar-contato=5,atualizar-contato=5,excluir-contato=2";
+
+    private static final String PREFIXO_APLICACAO = "app.";
+
+    private static final String SEPARADOR_COMPARACAO = ":";
+
+    final int profissionais;
+
+    final int contatosPorProfissional;
+
+    final int descartaveis;
+
+    final int clientes;
+
+    final int aquecimento;
+
+    final int duracao;
+
+    // requisicoes por segundo somando todos os clientes; 0 = cada cliente envia assim que recebe a resposta
+    final int taxa;
+
+    final long semente;
+
+    final String jdbcUrl;
+
+    final String usuario;
+
+    final String senha;
+
+    final Path saida;
+
+    final Map<Operacao, Integer> mix;
+
+    final List<String> argumentosAplicacao;
+
+    final String chaveComparada;
+
+    final List<String> valoresComparados;
+
+    private ConfiguracaoCarga(Map<String, String> valores) {
+        profissionais = inteiro(valores, "profissionais", 10_000);
+        contatosPorProfissional = inteiro(valores, "contatos", 5);
+        descartaveis = inteiro(valores, "descartaveis", Math.max(profissionais / 10, 1));
+        clientes = inteiro(valores, "clientes", 32);
+        aquecimento = inteiro(valores, "aquecimento", 15);
+        duracao = inteiro(valores, "duracao", 60);
+        taxa = inteiro(valores, "taxa", 0);
+        semente = Long.parseLong(valores.getOrDefault("semente", "42"));
+        jdbcUrl = valores.get("jdbc");
+        usuario = valores.getOrDefault("usuario", "simples");
+        senha = valores.getOrDefault("senha", "dental");
+        saida = Path.of(valores.getOrDefault("saida", "target/carga"));
+        mix = lerMix(valores.getOrDefault("mix", MIX_PADRAO));
+
+        argumentosAplicacao = new ArrayList<>();
+        valores.forEach((chave, valor) -> {
+            if (chave.startsWith(PREFIXO_APLICACAO)) {
+                argumentosAplicacao.add("--" + chave.substring(PREFIXO_APLICACAO.length()) + "=" + valor);
+            }
+        });
+
+        var comparacao = valores.get("comparar");
+        if (isNull(comparacao)) {
+            chaveComparada = null;
+            valoresComparados = List.of();
+        } else {
+            var separador = comparacao.indexOf(SEPARADOR_COMPARACAO);
+            if (separador <= 0) {
+                throw new IllegalArgumentException("comparar deve ter o formato chave:valor1,valor2 - " + comparacao);
+            }
+            chaveComparada = comparacao.substring(0, separador);
+            valoresComparados = List.of(comparacao.substring(separador + 1).split(","));
+        }
+    }
+
+    static ConfiguracaoCarga ler(String[] argumentos) {
+        var valores = new HashMap<String, String>();
+        for (String argumento : argumentos) {
+            var separador = argumento.indexOf('=');
+            if (separador <= 0) {
+                throw new IllegalArgumentException("Argumento invalido, esperado chave=valor: " + argumento);
+            }
+            valores.put(argumento.substring(0, separador), argumento.substring(separador + 1));
+        }
+        return new ConfiguracaoCarga(valores);
+    }
+
+    boolean usarTestcontainers() {
+        return isNull(jdbcUrl);
+    }
+
+    private static int inteiro(Map<String, String> valores, String chave, int padrao) {
+        var valor = valores.get(chave);
+        return isNull(valor) ? padrao : Integer.parseInt(valor);
+    }
+
+    private static Map<Operacao, Integer> lerMix(String mix) {
+        var pesos = new EnumMap<Operacao, Integer>(Operacao.class);
+        for (String item : mix.split(",")) {
+            var partes = item.trim().split("=");
+            var peso = Integer.parseInt(partes[1]);
+            if (peso > 0) {
+                pesos.put(Operacao.daChave(partes[0]), peso);
+            }
+        }
+        if (pesos.isEmpty()) {
+            throw new IllegalArgumentException("O mix precisa de ao menos uma operacao com peso positivo");
+        }
+        return pesos;
+    }
+}
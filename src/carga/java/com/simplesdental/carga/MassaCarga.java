@@ -0,0 +1,139 @@
+package com.simplesdental.carga;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.simplesdental.dtos.ContatoDTO;
+import com.simplesdental.dtos.ProfissionalDTO;
+import com.simplesdental.enums.TipoCargo;
+import com.simplesdental.repositories.InsercaoEmLoteRepository;
+
+/**
+ * Massa do teste de carga, inserida via JDBC batch antes da medicao. Leituras e
+ * atualizacoes usam sempre os mesmos profissionais; exclusoes consomem um conjunto
+ * separado de descartaveis, para que nenhuma leitura caia em um registro ja excluido.
+ */
+final class MassaCarga {
+
+    static final String[] NOMES = {"Ana", "Bruno", "Carla", "Daniel", "Eduarda", "Felipe", "Gabriela", "Henrique",
+            "Isabela", "Joao", "Larissa", "Marcos", "Natalia", "Otavio", "Paula", "Rafael"};
+
+    static final String[] SOBRENOMES = {"Silva", "Souza", "Oliveira", "Santos", "Lima", "Pereira", "Costa",
+            "Almeida", "Ferreira", "Rodrigues", "Gomes", "Martins"};
+
+    static final String[] TIPOS_CONTATO = {"Celular", "Comercial", "Residencial", "Email", "Recado"};
+
+    private static final int TAMANHO_LOTE = 1000;
+
+    private final List<ProfissionalDTO> profissionais;
+
+    private final List<ContatoDTO> contatos;
+
+    private final ConcurrentLinkedQueue<Long> profissionaisDescartaveis;
+
+    private final ConcurrentLinkedQueue<Long> contatosDescartaveis;
+
+    private MassaCarga(List<ProfissionalDTO> profissionais, List<ContatoDTO> contatos,
+                       ConcurrentLinkedQueue<Long> profissionaisDescartaveis,
+                       ConcurrentLinkedQueue<Long> contatosDescartaveis) {
+        this.profissionais = profissionais;
+        this.contatos = contatos;
+        this.profissionaisDescartaveis = profissionaisDescartaveis;
+        this.contatosDescartaveis = contatosDescartaveis;
+    }
+
+    /**
+     * Gera e insere a massa com semente fixa: a mesma configuracao produz os mesmos
+     * dados em todas as execucoes. Metade dos descartaveis e excluida inteira, a outra
+     * metade so fornece contatos para exclusao.
+     */
+    static MassaCarga semear(InsercaoEmLoteRepository repository, ConfiguracaoCarga configuracao) {
+        var random = new Random(configuracao.semente);
+        var profissionais = gerar(random, configuracao.profissionais, configuracao.contatosPorProfissional);
+        var descartaveis = gerar(random, configuracao.descartaveis, configuracao.contatosPorProfissional);
+
+        for (int inicio = 0; inicio < profissionais.size(); inicio += TAMANHO_LOTE) {
+            repository.inserirProfissionais(profissionais.subList(inicio, Math.min(inicio + TAMANHO_LOTE, profissionais.size())));
+        }
+        for (int inicio = 0; inicio < descartaveis.size(); inicio += TAMANHO_LOTE) {
+            repository.inserirProfissionais(descartaveis.subList(inicio, Math.min(inicio + TAMANHO_LOTE, descartaveis.size())));
+        }
+
+        var contatos = new ArrayList<ContatoDTO>();
+        profissionais.forEach(profissional -> contatos.addAll(profissional.getContatos()));
+
+        var profissionaisDescartaveis = new ConcurrentLinkedQueue<Long>();
+        var contatosDescartaveis = new ConcurrentLinkedQueue<Long>();
+        for (int i = 0; i < descartaveis.size(); i++) {
+            var descartavel = descartaveis.get(i);
+            if (i % 2 == 0) {
+                profissionaisDescartaveis.add(descartavel.getId());
+            } else {
+                descartavel.getContatos().forEach(contato -> contatosDescartaveis.add(contato.getId()));
+            }
+        }
+        return new MassaCarga(List.copyOf(profissionais), List.copyOf(contatos),
+                profissionaisDescartaveis, contatosDescartaveis);
+    }
+
+    int quantidadeProfissionais() {
+        return profissionais.size() + profissionaisDescartaveis.size();
+    }
+
+    int quantidadeContatos() {
+        return contatos.size();
+    }
+
+    ProfissionalDTO profissional() {
+        return profissionais.get(ThreadLocalRandom.current().nextInt(profissionais.size()));
+    }
+
+    Optional<ContatoDTO> contato() {
+        if (contatos.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(contatos.get(ThreadLocalRandom.current().nextInt(contatos.size())));
+    }
+
+    Optional<Long> profissionalDescartavel() {
+        return Optional.ofNullable(profissionaisDescartaveis.poll());
+    }
+
+    Optional<Long> contatoDescartavel() {
+        return Optional.ofNullable(contatosDescartaveis.poll());
+    }
+
+    static String sortear(String[] valores) {
+        return valores[ThreadLocalRandom.current().nextInt(valores.length)];
+    }
+
+    private static List<ProfissionalDTO> gerar(Random random, int quantidade, int contatosPorProfissional) {
+        var cargos = TipoCargo.values();
+        var agora = LocalDateTime.now();
+        var profissionais = new ArrayList<ProfissionalDTO>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            var profissional = new ProfissionalDTO();
+            profissional.setNome(NOMES[random.nextInt(NOMES.length)] + " "
+                    + SOBRENOMES[random.nextInt(SOBRENOMES.length)] + " " + random.nextInt(100_000));
+            profissional.setCargo(cargos[random.nextInt(cargos.length)]);
+            profissional.setNascimento(LocalDate.of(1960 + random.nextInt(45), 1 + random.nextInt(12), 1 + random.nextInt(28)));
+            // espalha as criacoes pelos ultimos 30 dias, o periodo padrao das estatisticas
+            profissional.setDataCriacao(agora.minusMinutes(random.nextInt(30 * 24 * 60)));
+
+            var contatos = new ArrayList<ContatoDTO>(contatosPorProfissional);
+            for (int j = 0; j < contatosPorProfissional; j++) {
+                contatos.add(new ContatoDTO(null, TIPOS_CONTATO[random.nextInt(TIPOS_CONTATO.length)],
+                        String.format("+55 11 9%08d", random.nextInt(100_000_000)), null));
+            }
+            profissional.setContatos(contatos);
+            profissionais.add(profissional);
+        }
+        return profissionais;
+    }
+}
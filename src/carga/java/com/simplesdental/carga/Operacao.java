@@ -0,0 +1,210 @@
+package com.simplesdental.carga;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.isNull;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.simplesdental.enums.TipoCargo;
+
+/**
+ * Endpoints exercitados pelo teste de carga. A chave e usada no parametro mix e no
+ * relatorio; cada operacao monta a requisicao a partir da massa, ou devolve vazio
+ * quando a massa descartavel ja foi consumida.
+ */
+enum Operacao {
+
+    BUSCAR_PROFISSIONAL("buscar-profissional") {
+        @Override
+        Optional<HttpRequest> requisicao(URI base, MassaCarga massa) {
+            return Optional.of(get(base, "/profissional/" + massa.profissional().getId()));
+        }
+    },
+    BUSCAR_LOTE("buscar-lote") {
+        @Override
+        Optional<HttpRequest> requisicao(URI base, MassaCarga massa) {
+            var ids = IntStream.range(0, TAMANHO_LOTE)
+                    .mapToObj(i -> String.valueOf(massa.profissional().getId()))
+                    .collect(Collectors.joining(","));
+            return Optional.of(get(base, "/profissional/lote?ids=" + ids));
+        }
+    },
+    BUSCAR_NOME("buscar-nome") {
+        @Override
+        Optional<HttpRequest> requisicao(URI base, MassaCarga massa) {
+            return Optional.of(get(base, "/profissional?tamanho=" + TAMANHO_PAGINA
+                    + "&nome=" + codificar(MassaCarga.sortear(MassaCarga.NOMES))));
+        }
+    },
+    BUSCAR_TEXTO("buscar-texto") {
+        @Override
+        Optional<HttpRequest> requisicao(URI base, MassaCarga massa) {
+            var termo = MassaCarga.sortear(MassaCarga.NOMES) + " " + MassaCarga.sortear(MassaCarga.SOBRENOMES);
+            return Optional.of(get(base, "/profissional/busca?tamanho=" + TAMANHO_PAGINA + "&termo=" + codificar(termo)));
+        }
+    },
+    BUSCAR_CARGO("buscar-cargo") {
+        @Override
+        Optional<HttpRequest> requisicao(URI base, MassaCarga massa) {
+            var cargos = TipoCargo.values();
+            var cargo = cargos[ThreadLocalRandom.current().nextInt(cargos.length)];
+            return Optional.of(get(base, "/profissional/cargo?tamanho=" + TAMANHO_PAGINA + "&cargo=" + cargo.name()));
+        }
+    },
+    ESTATISTICAS("estatisticas") {
+        @Override
+        Optional<HttpRequest> requisicao(URI base, MassaCarga massa) {
+            return Optional.of(get(base, "/profissional/estatisticas/cargo"));
+        }
+    },
+    CRIAR_PROFISSIONAL("criar-profissional") {
+        @Override
+        Optional<HttpRequest> requisicao(URI base, MassaCarga massa) {
+            var random = ThreadLocalRandom.current();
+            var cargos = TipoCargo.values();
+            var corpo = Map.of(
+                    "nome", nomeAleatorio(),
+                    "cargo", cargos[random.nextInt(cargos.length)].name(),
+                    "nascimento", LocalDate.of(1960 + random.nextInt(45), 1 + random.nextInt(12), 1 + random.nextInt(28))
+                            .format(FORMATO_DATA),
+                    "contatos", IntStream.range(0, 1 + random.nextInt(3))
+                            .mapToObj(i -> Map.of("nome", MassaCarga.sortear(MassaCarga.TIPOS_CONTATO),
+                                    "contato", telefoneAleatorio()))
+                            .collect(Collectors.toList()));
+            return Optional.of(enviar(base, "/profissional", "POST", corpo));
+        }
+    },
+    ATUALIZAR_PROFISSIONAL("atualizar-profissional") {
+        @Override
+        Optional<HttpRequest> requisicao(URI base, MassaCarga massa) {
+            // reenvia os contatos semeados, o que tambem remove os criados pela carga
+            ObjectNode corpo = MAPPER.valueToTree(massa.profissional());
+            corpo.put("nome", nomeAleatorio());
+            return Optional.of(enviar(base, "/profissional", "PUT", corpo));
+        }
+    },
+    EXCLUIR_PROFISSIONAL("excluir-profissional") {
+        @Override
+        Optional<HttpRequest> requisicao(URI base, MassaCarga massa) {
+            return massa.profissionalDescartavel()
+                    .map(id -> enviar(base, "/profissional/" + id, "DELETE", null));
+        }
+    },
+    BUSCAR_CONTATO("buscar-contato") {
+        @Override
+        Optional<HttpRequest> requisicao(URI base, MassaCarga massa) {
+            return massa.contato().map(contato -> get(base, "/contato/" + contato.getId()));
+        }
+    },
+    BUSCAR_CONTATOS("buscar-contatos") {
+        @Override
+        Optional<HttpRequest> requisicao(URI base, MassaCarga massa) {
+            return Optional.of(get(base, "/contato?tamanho=" + TAMANHO_PAGINA
+                    + "&nome=" + codificar(MassaCarga.sortear(MassaCarga.TIPOS_CONTATO))));
+        }
+    },
+    CRIAR_CONTATO("criar-contato") {
+        @Override
+        Optional<HttpRequest> requisicao(URI base, MassaCarga massa) {
+            var corpo = Map.of(
+                    "nome", MassaCarga.sortear(MassaCarga.TIPOS_CONTATO),
+                    "contato", telefoneAleatorio(),
+                    "idProfissional", massa.profissional().getId());
+            return Optional.of(enviar(base, "/contato", "POST", corpo));
+        }
+    },
+    ATUALIZAR_CONTATO("atualizar-contato") {
+        @Override
+        Optional<HttpRequest> requisicao(URI base, MassaCarga massa) {
+            return massa.contato().map(contato -> {
+                ObjectNode corpo = MAPPER.valueToTree(contato);
+                corpo.put("contato", telefoneAleatorio());
+                return enviar(base, "/contato", "PUT", corpo);
+            });
+        }
+    },
+    EXCLUIR_CONTATO("excluir-contato") {
+        @Override
+        Optional<HttpRequest> requisicao(URI base, MassaCarga massa) {
+            return massa.contatoDescartavel()
+                    .map(id -> enviar(base, "/contato/" + id, "DELETE", null));
+        }
+    };
+
+    private static final int TAMANHO_LOTE = 10;
+
+    private static final int TAMANHO_PAGINA = 20;
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.json().build();
+
+    final String chave;
+
+    Operacao(String chave) {
+        this.chave = chave;
+    }
+
+    abstract Optional<HttpRequest> requisicao(URI base, MassaCarga massa);
+
+    static Operacao daChave(String chave) {
+        return Arrays.stream(values())
+                .filter(operacao -> operacao.chave.equals(chave))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Operacao desconhecida: " + chave));
+    }
+
+    private static HttpRequest get(URI base, String caminho) {
+        return HttpRequest.newBuilder(base.resolve(caminho))
+                .timeout(TIMEOUT)
+                .header("Accept", "application/json")
+                .GET()
+                .build();
+    }
+
+    private static HttpRequest enviar(URI base, String caminho, String metodo, Object corpo) {
+        try {
+            var publicador = isNull(corpo)
+                    ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofByteArray(MAPPER.writeValueAsBytes(corpo));
+            return HttpRequest.newBuilder(base.resolve(caminho))
+                    .timeout(TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .method(metodo, publicador)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Falha ao serializar o corpo da requisicao", e);
+        }
+    }
+
+    private static String codificar(String valor) {
+        return URLEncoder.encode(valor, UTF_8);
+    }
+
+    private static String nomeAleatorio() {
+        return MassaCarga.sortear(MassaCarga.NOMES) + " " + MassaCarga.sortear(MassaCarga.SOBRENOMES) + " "
+                + ThreadLocalRandom.current().nextInt(100_000);
+    }
+
+    private static String telefoneAleatorio() {
+        return String.format("+55 11 9%08d", ThreadLocalRandom.current().nextInt(100_000_000));
+    }
+}
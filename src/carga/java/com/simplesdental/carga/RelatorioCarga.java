@@ -0,0 +1,180 @@
+package com.simplesdental.carga;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Latencias por operacao em microssegundos. Os Recorders aceitam gravacao concorrente
+ * sem lock; ao fim do aquecimento o intervalo e descartado e ao fim da medicao o
+ * intervalo seguinte vira o resultado.
+ */
+final class RelatorioCarga {
+
+    private static final int DIGITOS_SIGNIFICATIVOS = 3;
+
+    private static final double MICROS_POR_MILI = 1000.0;
+
+    private final Map<Operacao, Recorder> recorders = new EnumMap<>(Operacao.class);
+
+    private final Map<Operacao, Map<Integer, LongAdder>> erros = new EnumMap<>(Operacao.class);
+
+    private final Map<Operacao, LongAdder> ignoradas = new EnumMap<>(Operacao.class);
+
+    private final Map<Operacao, Histogram> resultado = new EnumMap<>(Operacao.class);
+
+    private long inicioMedicao;
+
+    private long duracaoMedicao;
+
+    RelatorioCarga(Iterable<Operacao> operacoes) {
+        for (Operacao operacao : operacoes) {
+            recorders.put(operacao, new Recorder(DIGITOS_SIGNIFICATIVOS));
+            erros.put(operacao, new ConcurrentHashMap<>());
+            ignoradas.put(operacao, new LongAdder());
+        }
+    }
+
+    void registrar(Operacao operacao, long nanos, int status) {
+        recorders.get(operacao).recordValue(TimeUnit.NANOSECONDS.toMicros(nanos));
+        if (status >= 400) {
+            erros.get(operacao).computeIfAbsent(status, chave -> new LongAdder()).increment();
+        }
+    }
+
+    /**
+     * Falha de conexao ou timeout: entra na latencia com status 0 para nao esconder a cauda.
+     */
+    void registrarFalha(Operacao operacao, long nanos) {
+        recorders.get(operacao).recordValue(TimeUnit.NANOSECONDS.toMicros(nanos));
+        erros.get(operacao).computeIfAbsent(0, chave -> new LongAdder()).increment();
+    }
+
+    void ignorar(Operacao operacao) {
+        ignoradas.get(operacao).increment();
+    }
+
+    void iniciarMedicao() {
+        recorders.values().forEach(Recorder::reset);
+        erros.values().forEach(Map::clear);
+        ignoradas.values().forEach(LongAdder::reset);
+        inicioMedicao = System.nanoTime();
+    }
+
+    void encerrarMedicao() {
+        duracaoMedicao = System.nanoTime() - inicioMedicao;
+        recorders.forEach((operacao, recorder) -> resultado.put(operacao, recorder.getIntervalHistogram()));
+    }
+
+    /**
+     * Uma linha com vazao, percentis e erros somando todas as operacoes, para comparar
+     * execucoes com configuracoes diferentes.
+     */
+    String resumoTotal() {
+        var total = new Histogram(DIGITOS_SIGNIFICATIVOS);
+        resultado.values().forEach(total::add);
+        return String.format(Locale.ROOT, "req/s=%.1f p50=%.2fms p99=%.2fms p999=%.2fms erros=%d",
+                vazao(total), percentil(total, 50.0), percentil(total, 99.0), percentil(total, 99.9),
+                erros.keySet().stream().mapToLong(this::totalErros).sum());
+    }
+
+    /**
+     * Imprime a tabela de percentis e throughput e grava em diretorio: relatorio.txt,
+     * resumo.csv (uma linha por operacao, para comparar execucoes) e um .hgrm por
+     * operacao, no formato aceito pelo plotter do HdrHistogram.
+     */
+    void publicar(ConfiguracaoCarga configuracao, PrintStream console, Path diretorio) throws IOException {
+        Files.createDirectories(diretorio);
+        try (var arquivo = new PrintStream(Files.newOutputStream(diretorio.resolve("relatorio.txt")), true, "UTF-8");
+             var csv = new PrintStream(Files.newOutputStream(diretorio.resolve("resumo.csv")), true, "UTF-8")) {
+            imprimirTabela(configuracao, console);
+            imprimirTabela(configuracao, arquivo);
+            csv.println("operacao,requisicoes,erros,req_s,p50_ms,p99_ms,p999_ms,max_ms");
+            var total = new Histogram(DIGITOS_SIGNIFICATIVOS);
+            resultado.forEach((operacao, histograma) -> {
+                total.add(histograma);
+                csv.println(linhaCsv(operacao.chave, histograma, totalErros(operacao)));
+                gravarDistribuicao(diretorio.resolve(operacao.chave + ".hgrm"), histograma);
+            });
+            csv.println(linhaCsv("total", total, erros.keySet().stream().mapToLong(this::totalErros).sum()));
+            gravarDistribuicao(diretorio.resolve("total.hgrm"), total);
+        }
+    }
+
+    private void imprimirTabela(ConfiguracaoCarga configuracao, PrintStream saida) {
+        saida.printf(Locale.ROOT, "profissionais=%d contatos=%d clientes=%d taxa=%d aquecimento=%ds duracao=%ds%n",
+                configuracao.profissionais, configuracao.contatosPorProfissional, configuracao.clientes,
+                configuracao.taxa, configuracao.aquecimento, configuracao.duracao);
+        saida.printf(Locale.ROOT, "%-24s %6s %12s %8s %10s %10s %10s %10s %10s%n",
+                "operacao", "peso", "requisicoes", "erros", "req/s", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)");
+
+        var total = new Histogram(DIGITOS_SIGNIFICATIVOS);
+        long errosTotal = 0;
+        for (var entrada : resultado.entrySet()) {
+            var operacao = entrada.getKey();
+            var histograma = entrada.getValue();
+            total.add(histograma);
+            errosTotal += totalErros(operacao);
+            imprimirLinha(saida, operacao.chave, String.valueOf(configuracao.mix.get(operacao)), histograma,
+                    totalErros(operacao));
+        }
+        imprimirLinha(saida, "total", "", total, errosTotal);
+
+        for (Operacao operacao : resultado.keySet()) {
+            var porStatus = new TreeMap<Integer, Long>();
+            erros.get(operacao).forEach((status, quantidade) -> porStatus.put(status, quantidade.sum()));
+            if (!porStatus.isEmpty()) {
+                saida.printf("erros %s por status (0 = falha de conexao): %s%n", operacao.chave, porStatus);
+            }
+            if (ignoradas.get(operacao).sum() > 0) {
+                saida.printf("%s ignoradas por falta de massa descartavel: %d%n", operacao.chave,
+                        ignoradas.get(operacao).sum());
+            }
+        }
+    }
+
+    private void imprimirLinha(PrintStream saida, String chave, String peso, Histogram histograma, long quantidadeErros) {
+        saida.printf(Locale.ROOT, "%-24s %6s %12d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                chave, peso, histograma.getTotalCount(), quantidadeErros, vazao(histograma),
+                percentil(histograma, 50.0), percentil(histograma, 99.0), percentil(histograma, 99.9),
+                histograma.getMaxValue() / MICROS_POR_MILI);
+    }
+
+    private String linhaCsv(String chave, Histogram histograma, long quantidadeErros) {
+        return String.format(Locale.ROOT, "%s,%d,%d,%.1f,%.2f,%.2f,%.2f,%.2f",
+                chave, histograma.getTotalCount(), quantidadeErros, vazao(histograma),
+                percentil(histograma, 50.0), percentil(histograma, 99.0), percentil(histograma, 99.9),
+                histograma.getMaxValue() / MICROS_POR_MILI);
+    }
+
+    private void gravarDistribuicao(Path arquivo, Histogram histograma) {
+        try (var saida = new PrintStream(Files.newOutputStream(arquivo), true, "UTF-8")) {
+            histograma.outputPercentileDistribution(saida, MICROS_POR_MILI);
+        } catch (IOException e) {
+            throw new IllegalStateException("Falha ao gravar " + arquivo, e);
+        }
+    }
+
+    private long totalErros(Operacao operacao) {
+        return erros.get(operacao).values().stream().mapToLong(LongAdder::sum).sum();
+    }
+
+    private double vazao(Histogram histograma) {
+        return histograma.getTotalCount() / (duracaoMedicao / 1e9);
+    }
+
+    private static double percentil(Histogram histograma, double percentil) {
+        return histograma.getValueAtPercentile(percentil) / MICROS_POR_MILI;
+    }
+}
@@ -0,0 +1,215 @@
+package com.simplesdental.carga;
+
+import static java.util.Objects.nonNull;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import com.simplesdental.SimplesdentalApplication;
+import com.simplesdental.repositories.InsercaoEmLoteRepository;
+import com.simplesdental.services.ReplicaProfissionais;
+
+/**
+ * Teste de carga: sobe um Postgres descartavel (ou usa o informado em jdbc=...), sobe a
+ * aplicacao em porta aleatoria, semeia a massa e dispara o mix de operacoes com N
+ * clientes HTTP concorrentes, imprimindo percentis e throughput por endpoint.
+ *
+ * Sem taxa, cada cliente envia a proxima requisicao assim que recebe a resposta (modelo
+ * fechado). Com taxa=R as requisicoes tem horario marcado e a latencia conta a partir
+ * desse horario, entao uma pausa do servidor aparece na cauda em vez de simplesmente
+ * reduzir o numero de amostras (coordinated omission).
+ *
+ * Para comparar a execucao assincrona com a sincrona a 1000 clientes:
+ * clientes=1000 comparar=simplesdental.async.habilitado:false,true
+ */
+public final class TesteDeCarga {
+
+    private static final String IMAGEM_POSTGRES = "postgres:13-alpine";
+
+    private static final DateTimeFormatter FORMATO_EXECUCAO = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final ConfiguracaoCarga configuracao;
+
+    private final MassaCarga massa;
+
+    private final URI base;
+
+    private final Operacao[] roleta;
+
+    private final RelatorioCarga relatorio;
+
+    private final HttpClient cliente;
+
+    private volatile boolean executando = true;
+
+    private TesteDeCarga(ConfiguracaoCarga configuracao, MassaCarga massa, URI base) {
+        this.configuracao = configuracao;
+        this.massa = massa;
+        this.base = base;
+        this.roleta = montarRoleta(configuracao);
+        this.relatorio = new RelatorioCarga(configuracao.mix.keySet());
+        this.cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    public static void main(String[] argumentos) throws Exception {
+        var configuracao = ConfiguracaoCarga.ler(argumentos);
+        var diretorio = configuracao.saida.resolve(LocalDateTime.now().format(FORMATO_EXECUCAO));
+        if (configuracao.valoresComparados.isEmpty()) {
+            executarCenario(configuracao, List.of(), diretorio);
+            return;
+        }
+
+        var resumos = new LinkedHashMap<String, String>();
+        for (String valor : configuracao.valoresComparados) {
+            var variacao = configuracao.chaveComparada + "=" + valor;
+            System.out.printf("%ncenario %s%n", variacao);
+            resumos.put(variacao, executarCenario(configuracao, List.of("--" + variacao), diretorio.resolve(variacao)));
+        }
+        System.out.printf("%ncomparacao (clientes=%d)%n", configuracao.clientes);
+        resumos.forEach((variacao, resumo) -> System.out.printf("%-48s %s%n", variacao, resumo));
+    }
+
+    /**
+     * Banco, aplicacao e massa novos a cada cenario, para uma execucao nao aquecer
+     * caches nem deixar dados para a seguinte.
+     */
+    private static String executarCenario(ConfiguracaoCarga configuracao, List<String> argumentosCenario,
+                                          Path diretorio) throws Exception {
+        PostgreSQLContainer<?> postgres = null;
+        var jdbcUrl = configuracao.jdbcUrl;
+        if (configuracao.usarTestcontainers()) {
+            postgres = new PostgreSQLContainer<>(DockerImageName.parse(IMAGEM_POSTGRES))
+                    .withDatabaseName("simplesdental")
+                    .withUsername(configuracao.usuario)
+                    .withPassword(configuracao.senha);
+            postgres.start();
+            jdbcUrl = postgres.getJdbcUrl();
+        }
+
+        var argumentosAplicacao = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.datasource.url=" + jdbcUrl,
+                "--spring.datasource.username=" + configuracao.usuario,
+                "--spring.datasource.password=" + configuracao.senha));
+        argumentosAplicacao.addAll(configuracao.argumentosAplicacao);
+        argumentosAplicacao.addAll(argumentosCenario);
+
+        try (var contexto = new SpringApplicationBuilder(SimplesdentalApplication.class)
+                .run(argumentosAplicacao.toArray(String[]::new))) {
+            var porta = ((WebServerApplicationContext) contexto).getWebServer().getPort();
+
+            var massa = MassaCarga.semear(contexto.getBean(InsercaoEmLoteRepository.class), configuracao);
+            // a massa entra via JDBC, por fora dos eventos que mantem a replica
+            contexto.getBean(ReplicaProfissionais.class).carregar();
+            System.out.printf("massa: %d profissionais, %d contatos%n",
+                    massa.quantidadeProfissionais(), massa.quantidadeContatos());
+
+            var teste = new TesteDeCarga(configuracao, massa, URI.create("http://localhost:" + porta));
+            teste.executar();
+            teste.relatorio.publicar(configuracao, System.out, diretorio);
+            return teste.relatorio.resumoTotal();
+        } finally {
+            if (nonNull(postgres)) {
+                postgres.stop();
+            }
+        }
+    }
+
+    private void executar() throws InterruptedException {
+        var clientes = criarClientes();
+        for (int i = 0; i < configuracao.clientes; i++) {
+            clientes.execute(this::simularCliente);
+        }
+
+        TimeUnit.SECONDS.sleep(configuracao.aquecimento);
+        relatorio.iniciarMedicao();
+        TimeUnit.SECONDS.sleep(configuracao.duracao);
+        relatorio.encerrarMedicao();
+
+        executando = false;
+        clientes.shutdown();
+        clientes.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    private void simularCliente() {
+        var random = ThreadLocalRandom.current();
+        var intervalo = configuracao.taxa > 0
+                ? TimeUnit.SECONDS.toNanos(configuracao.clientes) / configuracao.taxa
+                : 0L;
+        // espalha o primeiro envio para os clientes nao dispararem juntos
+        var agendada = System.nanoTime() + (intervalo > 0 ? random.nextLong(intervalo) : 0L);
+
+        while (executando) {
+            var operacao = roleta[random.nextInt(roleta.length)];
+            var requisicao = operacao.requisicao(base, massa);
+            if (requisicao.isEmpty()) {
+                relatorio.ignorar(operacao);
+                continue;
+            }
+
+            long inicio;
+            if (intervalo > 0) {
+                long espera;
+                while ((espera = agendada - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(espera);
+                }
+                inicio = agendada;
+                agendada += intervalo;
+            } else {
+                inicio = System.nanoTime();
+            }
+
+            try {
+                var resposta = cliente.send(requisicao.get(), HttpResponse.BodyHandlers.discarding());
+                relatorio.registrar(operacao, System.nanoTime() - inicio, resposta.statusCode());
+            } catch (IOException e) {
+                relatorio.registrarFalha(operacao, System.nanoTime() - inicio);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private ExecutorService criarClientes() {
+        var contador = new AtomicInteger();
+        return Executors.newFixedThreadPool(configuracao.clientes, tarefa -> {
+            var thread = new Thread(tarefa, "carga-cliente-" + contador.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static Operacao[] montarRoleta(ConfiguracaoCarga configuracao) {
+        var roleta = new ArrayList<Operacao>();
+        configuracao.mix.forEach((operacao, peso) -> {
+            for (int i = 0; i < peso; i++) {
+                roleta.add(operacao);
+            }
+        });
+        return roleta.toArray(Operacao[]::new);
+    }
+}
@@ -0,0 +1,143 @@
+package com.simplesdental.benchmarks;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.simplesdental.SimplesdentalApplication;
+import com.simplesdental.dtos.ProfissionalDTO;
+import com.simplesdental.entities.Profissional;
+import com.simplesdental.enums.TipoCargo;
+import com.simplesdental.repositories.InsercaoEmLoteRepository;
+import com.simplesdental.repositories.ProfissionalRepository;
+
+/**
+ * Compara a busca por trecho do nome usando o indice de trigramas com a varredura
+ * sequencial que ela fazia antes, na listagem por id e na ordenada por relevancia. O
+ * plano sequencial e forcado desligando os planos por indice so na transacao da
+ * consulta. Precisa do Postgres configurado em application.properties; a massa, sem
+ * contatos, e inserida no setup e removida no teardown.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BuscaPorNomeBenchmark {
+
+    private static final int TAMANHO_LOTE_INSERCAO = 10_000;
+
+    private static final int TAMANHO_PAGINA = 50;
+
+    // casa com "Profissional 4242" e os ids que comecam por 4242, poucas linhas da massa
+    private static final String TERMO = "profissional 4242";
+
+    @Param({"indice", "sequencial"})
+    public String plano;
+
+    @Param({"1000000"})
+    public int quantidadeProfissionais;
+
+    private ConfigurableApplicationContext contexto;
+
+    private ProfissionalRepository profissionalRepository;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate leitura;
+
+    private String prefixo;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        contexto = new SpringApplicationBuilder(SimplesdentalApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--simplesdental.async.habilitado=false");
+        profissionalRepository = contexto.getBean(ProfissionalRepository.class);
+        jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+        leitura = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+        leitura.setReadOnly(true);
+
+        prefixo = UUID.randomUUID().toString();
+        var insercaoEmLoteRepository = contexto.getBean(InsercaoEmLoteRepository.class);
+        var cargos = TipoCargo.values();
+        var lote = new ArrayList<ProfissionalDTO>(TAMANHO_LOTE_INSERCAO);
+        // gerada aqui e nao pelo DadosBenchmark, que montaria milhoes de contatos em memoria
+        for (long id = 1; id <= quantidadeProfissionais; id++) {
+            var profissional = new ProfissionalDTO();
+            profissional.setNome(prefixo + " Profissional " + id);
+            profissional.setCargo(cargos[(int) (id % cargos.length)]);
+            profissional.setNascimento(LocalDate.of(1960 + (int) (id % 45), 1 + (int) (id % 12), 1 + (int) (id % 28)));
+            profissional.setDataCriacao(LocalDateTime.of(2021, 10, 31, 12, 0).plusMinutes(id));
+            profissional.setContatos(new ArrayList<>());
+            lote.add(profissional);
+            if (lote.size() == TAMANHO_LOTE_INSERCAO) {
+                insercaoEmLoteRepository.inserirProfissionais(lote);
+                lote.clear();
+            }
+        }
+        insercaoEmLoteRepository.inserirProfissionais(lote);
+        // estatisticas atualizadas para o planejador escolher o indice
+        jdbcTemplate.execute("ANALYZE profissional");
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        jdbcTemplate.update("DELETE FROM profissional WHERE nome LIKE ?", prefixo + "%");
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<ProfissionalDTO> contendoNome() {
+        return leitura.execute(status -> {
+            aplicarPlano();
+            return profissionalRepository.buscarProfissionalContendoNome(TERMO, 0L,
+                    PageRequest.of(0, TAMANHO_PAGINA));
+        });
+    }
+
+    @Benchmark
+    public List<Long> contendoNomePorRelevancia() {
+        return leitura.execute(status -> {
+            aplicarPlano();
+            return profissionalRepository.buscarProfissionalContendoNomePorRelevancia(TERMO, TAMANHO_PAGINA).stream()
+                    .map(Profissional::getId)
+                    .collect(Collectors.toList());
+        });
+    }
+
+    // SET LOCAL vale so ate o fim da transacao, a conexao volta ao pool como estava
+    private void aplicarPlano() {
+        if ("sequencial".equals(plano)) {
+            jdbcTemplate.execute("SET LOCAL enable_bitmapscan = off");
+            jdbcTemplate.execute("SET LOCAL enable_indexscan = off");
+            jdbcTemplate.execute("SET LOCAL enable_indexonlyscan = off");
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.simplesdental.benchmarks;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.simplesdental.SimplesdentalApplication;
+import com.simplesdental.dtos.ContatoDTO;
+import com.simplesdental.dtos.PaginaDTO;
+import com.simplesdental.dtos.ProfissionalDTO;
+import com.simplesdental.enums.TipoCargo;
+import com.simplesdental.repositories.InsercaoEmLoteRepository;
+import com.simplesdental.services.ContatoService;
+import com.simplesdental.services.ProfissionalService;
+
+/**
+ * Compara o perfil padrao com o application-performance.properties (pool, cache de
+ * statements do driver, lotes do Hibernate e reWriteBatchedInserts) na criacao de um
+ * profissional com muitos contatos e nas listagens. Precisa do Postgres configurado em
+ * application.properties; a massa e inserida no setup e removida no teardown, junto com
+ * os profissionais criados pelo benchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ConfiguracaoPerformanceBenchmark {
+
+    private static final int QUANTIDADE_PROFISSIONAIS = 10_000;
+
+    private static final int TAMANHO_PAGINA = 100;
+
+    @Param({"default", "performance"})
+    public String perfil;
+
+    @Param({"200"})
+    public int contatosPorProfissional;
+
+    private ConfigurableApplicationContext contexto;
+
+    private ProfissionalService profissionalService;
+
+    private ContatoService contatoService;
+
+    private String prefixo;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        contexto = new SpringApplicationBuilder(SimplesdentalApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles(perfil)
+                .run("--simplesdental.async.habilitado=false");
+        profissionalService = contexto.getBean(ProfissionalService.class);
+        contatoService = contexto.getBean(ContatoService.class);
+
+        prefixo = UUID.randomUUID().toString();
+        var profissionais = DadosBenchmark.gerarProfissionais(QUANTIDADE_PROFISSIONAIS).stream()
+                .map(ProfissionalDTO::new)
+                .collect(Collectors.toList());
+        profissionais.forEach(profissional -> {
+            profissional.setNome(prefixo + " " + profissional.getNome());
+            profissional.getContatos().forEach(contato -> contato.setNome(prefixo + " " + contato.getNome()));
+        });
+        contexto.getBean(InsercaoEmLoteRepository.class).inserirProfissionais(profissionais);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        var jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("DELETE FROM contato WHERE id_profissional IN "
+                + "(SELECT id FROM profissional WHERE nome LIKE ?)", prefixo + "%");
+        jdbcTemplate.update("DELETE FROM profissional WHERE nome LIKE ?", prefixo + "%");
+        contexto.close();
+    }
+
+    @Benchmark
+    public String criarProfissionalComContatos() {
+        var contatos = new ArrayList<ContatoDTO>(contatosPorProfissional);
+        for (int i = 0; i < contatosPorProfissional; i++) {
+            contatos.add(new ContatoDTO(null, "Contato " + i, String.format("+55 11 9%08d", i), null));
+        }
+        var profissional = new ProfissionalDTO();
+        profissional.setNome(prefixo + " criado");
+        profissional.setCargo(TipoCargo.DESENVOLVEDOR);
+        profissional.setNascimento(LocalDate.of(1990, 1, 1));
+        profissional.setContatos(contatos);
+        return profissionalService.criarProfissional(profissional);
+    }
+
+    @Benchmark
+    public PaginaDTO<ProfissionalDTO> listarProfissionaisPorNome() {
+        return profissionalService.buscarContidosNoNome(prefixo, null, TAMANHO_PAGINA);
+    }
+
+    @Benchmark
+    public PaginaDTO<ProfissionalDTO> listarProfissionaisPorCargo() {
+        return profissionalService.buscarPorCargo(TipoCargo.DESENVOLVEDOR, null, TAMANHO_PAGINA);
+    }
+
+    @Benchmark
+    public PaginaDTO<ContatoDTO> listarContatosPorNome() {
+        return contatoService.buscarContidosNoNomeOuContato(prefixo, null, null, TAMANHO_PAGINA);
+    }
+}
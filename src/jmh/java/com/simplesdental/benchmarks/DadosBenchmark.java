@@ -0,0 +1,56 @@
+package com.simplesdental.benchmarks;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.simplesdental.entities.Contato;
+import com.simplesdental.entities.Profissional;
+import com.simplesdental.enums.TipoCargo;
+
+/**
+ * Massa de dados dos benchmarks: cada profissional tem de 0 a 20 contatos, com semente
+ * fixa para que execucoes diferentes meçam exatamente os mesmos dados.
+ */
+final class DadosBenchmark {
+
+    static final int MAXIMO_CONTATOS = 20;
+
+    private static final long SEMENTE = 42L;
+
+    private DadosBenchmark() {
+    }
+
+    static List<Profissional> gerarProfissionais(int quantidade) {
+        var random = new Random(SEMENTE);
+        var cargos = TipoCargo.values();
+        var profissionais = new ArrayList<Profissional>(quantidade);
+        long idContato = 1;
+
+        for (long id = 1; id <= quantidade; id++) {
+            var profissional = Profissional.builder()
+                    .withId(id)
+                    .withNome("Profissional " + id)
+                    .withCargo(cargos[random.nextInt(cargos.length)])
+                    .withNascimento(LocalDate.of(1960 + random.nextInt(45), 1 + random.nextInt(12), 1 + random.nextInt(28)))
+                    .build();
+            profissional.setDataCriacao(LocalDateTime.of(2021, 10, 31, 12, 0).plusMinutes(id));
+
+            var contatos = new ArrayList<Contato>();
+            var quantidadeContatos = random.nextInt(MAXIMO_CONTATOS + 1);
+            for (int i = 0; i < quantidadeContatos; i++, idContato++) {
+                contatos.add(Contato.builder()
+                        .withId(idContato)
+                        .withNome("Contato " + i)
+                        .withContato(String.format("+55 11 9%08d", idContato))
+                        .withProfissional(profissional)
+                        .build());
+            }
+            profissional.setContatos(contatos);
+            profissionais.add(profissional);
+        }
+        return profissionais;
+    }
+}
@@ -0,0 +1,98 @@
+package com.simplesdental.benchmarks;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.simplesdental.dtos.ProfissionalDTO;
+
+/**
+ * Compara JSON, CBOR e Smile, com e sem gzip, na serializacao de List<ProfissionalDTO>.
+ * O tempo medio mede a CPU; o contador bytes (AuxCounters) e o tamanho que iria para a
+ * rede em cada operacao.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormatosSerializacaoBenchmark {
+
+    @Param({"100", "10000"})
+    private int quantidadeProfissionais;
+
+    @Param({"JSON", "CBOR", "SMILE"})
+    private String formato;
+
+    private ObjectMapper objectMapper;
+
+    private List<ProfissionalDTO> profissionais;
+
+    /**
+     * A massa e fixa, entao todas as operacoes geram o mesmo tamanho: basta guardar o ultimo.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Tamanho {
+
+        public long bytes;
+
+        void registrar(int tamanho) {
+            bytes = tamanho;
+        }
+    }
+
+    @Setup
+    public void preparar() {
+        var builder = Jackson2ObjectMapperBuilder.json();
+        if ("CBOR".equals(formato)) {
+            builder.factory(new CBORFactory());
+        } else if ("SMILE".equals(formato)) {
+            builder.factory(new SmileFactory());
+        }
+        objectMapper = builder.build();
+        profissionais = DadosBenchmark.gerarProfissionais(quantidadeProfissionais)
+                .stream()
+                .map(ProfissionalDTO::new)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public byte[] serializar(Tamanho tamanho) throws IOException {
+        var conteudo = objectMapper.writeValueAsBytes(profissionais);
+        tamanho.registrar(conteudo.length);
+        return conteudo;
+    }
+
+    @Benchmark
+    public byte[] serializarComGzip(Tamanho tamanho) throws IOException {
+        var saida = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(saida)) {
+            objectMapper.writeValue(gzip, profissionais);
+        }
+        var conteudo = saida.toByteArray();
+        tamanho.registrar(conteudo.length);
+        return conteudo;
+    }
+}
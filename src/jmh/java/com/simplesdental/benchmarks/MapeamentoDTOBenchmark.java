@@ -0,0 +1,60 @@
+package com.simplesdental.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.simplesdental.dtos.ContatoDTO;
+import com.simplesdental.dtos.ProfissionalDTO;
+import com.simplesdental.entities.Contato;
+import com.simplesdental.entities.Profissional;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MapeamentoDTOBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int quantidadeProfissionais;
+
+    private List<Profissional> profissionais;
+
+    private List<Contato> contatos;
+
+    @Setup
+    public void preparar() {
+        profissionais = DadosBenchmark.gerarProfissionais(quantidadeProfissionais);
+        contatos = profissionais.stream()
+                .flatMap(profissional -> profissional.getContatos().stream())
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<ProfissionalDTO> converterProfissionais() {
+        return profissionais.stream()
+                .map(ProfissionalDTO::new)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<ContatoDTO> converterContatos() {
+        return contatos.stream()
+                .map(ContatoDTO::new)
+                .collect(Collectors.toList());
+    }
+}
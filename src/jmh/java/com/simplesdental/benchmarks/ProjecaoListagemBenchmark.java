@@ -0,0 +1,124 @@
+package com.simplesdental.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.simplesdental.SimplesdentalApplication;
+import com.simplesdental.dtos.ProfissionalDTO;
+import com.simplesdental.entities.Profissional;
+import com.simplesdental.repositories.ContatoRepository;
+import com.simplesdental.repositories.InsercaoEmLoteRepository;
+import com.simplesdental.repositories.ProfissionalRepository;
+
+/**
+ * Compara a listagem de 10 mil profissionais com contatos carregando entidades
+ * (caminho anterior) e projetando direto em DTO. Precisa do Postgres configurado em
+ * application.properties; a massa e inserida no setup e removida no teardown.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ProjecaoListagemBenchmark {
+
+    private static final int QUANTIDADE_PROFISSIONAIS = 10_000;
+
+    private ConfigurableApplicationContext contexto;
+
+    private ProfissionalRepository profissionalRepository;
+
+    private ContatoRepository contatoRepository;
+
+    private EntityManager entityManager;
+
+    private TransactionTemplate leitura;
+
+    private String prefixo;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        contexto = new SpringApplicationBuilder(SimplesdentalApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--simplesdental.async.habilitado=false");
+        profissionalRepository = contexto.getBean(ProfissionalRepository.class);
+        contatoRepository = contexto.getBean(ContatoRepository.class);
+        entityManager = contexto.getBean(EntityManager.class);
+        leitura = new TransactionTemplate(contexto.getBean(PlatformTransactionManager.class));
+        leitura.setReadOnly(true);
+
+        prefixo = UUID.randomUUID().toString();
+        var profissionais = DadosBenchmark.gerarProfissionais(QUANTIDADE_PROFISSIONAIS).stream()
+                .map(ProfissionalDTO::new)
+                .collect(Collectors.toList());
+        profissionais.forEach(profissional -> profissional.setNome(prefixo + " " + profissional.getNome()));
+        contexto.getBean(InsercaoEmLoteRepository.class).inserirProfissionais(profissionais);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        var jdbcTemplate = contexto.getBean(JdbcTemplate.class);
+        jdbcTemplate.update("DELETE FROM contato WHERE id_profissional IN "
+                + "(SELECT id FROM profissional WHERE nome LIKE ?)", prefixo + "%");
+        jdbcTemplate.update("DELETE FROM profissional WHERE nome LIKE ?", prefixo + "%");
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<ProfissionalDTO> carregandoEntidades() {
+        return leitura.execute(status -> {
+            var ids = entityManager.createQuery("SELECT p FROM Profissional p "
+                            + "WHERE UPPER(p.nome) like UPPER(concat('%' ,:nome, '%')) ORDER BY p.id", Profissional.class)
+                    .setParameter("nome", prefixo)
+                    .getResultStream()
+                    .map(Profissional::getId)
+                    .collect(Collectors.toList());
+            Map<Long, Profissional> profissionaisPorId = profissionalRepository.buscarComContatosPorIds(ids).stream()
+                    .collect(Collectors.toMap(Profissional::getId, Function.identity()));
+            return ids.stream()
+                    .map(profissionaisPorId::get)
+                    .map(ProfissionalDTO::new)
+                    .collect(Collectors.toList());
+        });
+    }
+
+    @Benchmark
+    public List<ProfissionalDTO> projetandoEmDTO() {
+        return leitura.execute(status -> {
+            var profissionais = profissionalRepository.buscarProfissionalContendoNome(prefixo, 0L,
+                    PageRequest.of(0, QUANTIDADE_PROFISSIONAIS));
+            Map<Long, ProfissionalDTO> profissionaisPorId = profissionais.stream()
+                    .collect(Collectors.toMap(ProfissionalDTO::getId, Function.identity()));
+            contatoRepository.buscarContatosDosProfissionais(profissionaisPorId.keySet())
+                    .forEach(contato -> profissionaisPorId.get(contato.getIdProfissional()).getContatos().add(contato));
+            return profissionais;
+        });
+    }
+}
@@ -0,0 +1,56 @@
+package com.simplesdental.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simplesdental.dtos.ProfissionalDTO;
+
+/**
+ * Serializacao de List<ProfissionalDTO> com o mesmo ObjectMapper base do Spring Boot,
+ * incluindo o @JsonFormat de nascimento e dataCriacao.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializacaoJsonBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int quantidadeProfissionais;
+
+    private ObjectMapper objectMapper;
+
+    private List<ProfissionalDTO> profissionais;
+
+    @Setup
+    public void preparar() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        profissionais = DadosBenchmark.gerarProfissionais(quantidadeProfissionais)
+                .stream()
+                .map(ProfissionalDTO::new)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public byte[] serializarProfissionais() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(profissionais);
+    }
+}
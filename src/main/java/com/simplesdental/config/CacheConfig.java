@@ -0,0 +1,17 @@
+package com.simplesdental.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Os caches sao criados pelo Spring Boot a partir de spring.cache.* no
+ * application.properties; os nomes aqui precisam bater com spring.cache.cache-names.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PROFISSIONAIS = "profissionais";
+    public static final String CONTATOS = "contatos";
+
+}
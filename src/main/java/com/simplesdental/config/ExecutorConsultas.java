@@ -0,0 +1,71 @@
+package com.simplesdental.config;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import com.simplesdental.exceptions.ServicoIndisponivelException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/**
+ * Executa as consultas dos controllers fora das threads do Tomcat. O numero de threads
+ * e o mesmo do pool do Hikari, entao nunca ha mais consultas em andamento do que
+ * conexoes: o excedente espera na fila, e com a fila cheia a requisicao e recusada com
+ * 503 em vez de ficar presa aguardando conexao.
+ *
+ * Com simplesdental.async.habilitado=false as consultas rodam na propria thread da
+ * requisicao, como antes.
+ */
+@Component
+public class ExecutorConsultas implements DisposableBean {
+
+    private final ThreadPoolTaskExecutor executor;
+
+    public ExecutorConsultas(@Value("${simplesdental.async.habilitado}") boolean habilitado,
+                             @Value("${spring.datasource.hikari.maximum-pool-size}") int tamanhoPool,
+                             @Value("${simplesdental.async.capacidade-fila}") int capacidadeFila,
+                             MeterRegistry meterRegistry) {
+        if (!habilitado) {
+            this.executor = null;
+            return;
+        }
+
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(tamanhoPool);
+        this.executor.setMaxPoolSize(tamanhoPool);
+        this.executor.setQueueCapacity(capacidadeFila);
+        this.executor.setThreadNamePrefix("consulta-");
+        this.executor.initialize();
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "simplesdental.consultas", Tags.empty())
+                .bindTo(meterRegistry);
+    }
+
+    public <T> CompletableFuture<T> executar(Supplier<T> consulta) {
+        if (isNull(executor)) {
+            return CompletableFuture.completedFuture(consulta.get());
+        }
+        try {
+            return CompletableFuture.supplyAsync(consulta, executor);
+        } catch (TaskRejectedException e) {
+            throw new ServicoIndisponivelException("Limite de consultas simultâneas atingido, tente novamente");
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (nonNull(executor)) {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.simplesdental.config;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Aceita e produz CBOR (application/cbor) e Smile (application/x-jackson-smile) em
+ * todos os controllers, escolhidos pelo Accept/Content-Type.
+ *
+ * Os conversores entram no fim da lista: com Accept ausente ou generico a resposta
+ * continua em JSON. O builder e o do Spring Boot, entao modulos e @JsonFormat sao os
+ * mesmos do JSON.
+ */
+@Configuration
+public class FormatosBinariosConfig implements WebMvcConfigurer {
+
+    private final Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+    public FormatosBinariosConfig(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        this.objectMapperBuilder = objectMapperBuilder;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new MappingJackson2CborHttpMessageConverter(
+                objectMapperBuilder.factory(new CBORFactory()).build()));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(
+                objectMapperBuilder.factory(new SmileFactory()).build()));
+    }
+}
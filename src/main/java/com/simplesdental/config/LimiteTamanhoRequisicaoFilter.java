@@ -0,0 +1,216 @@
+package com.simplesdental.config;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.simplesdental.exceptions.PayloadMuitoGrandeException;
+
+/**
+ * Limita o corpo das requisicoes. Com Content-Length acima do limite a resposta e 413
+ * sem ler o corpo; sem Content-Length (chunked) a leitura e contada e interrompida com
+ * PayloadMuitoGrandeException assim que passa do limite, sem bufferizar nada. Quem le
+ * o corpo pode embrulhar a excecao (o Jackson a transforma em erro de leitura, e o
+ * Spring em 400), entao depois que o limite estoura qualquer erro enviado na resposta
+ * sai como 413.
+ *
+ * POST /profissional em JSON e lido de forma incremental e tem um limite proprio. A
+ * importacao nao e limitada: ela ja processa o corpo em lotes e limita cada linha.
+ */
+@Component
+public class LimiteTamanhoRequisicaoFilter extends OncePerRequestFilter {
+
+    private static final String CAMINHO_PROFISSIONAL = "/profissional";
+
+    private static final String CAMINHO_IMPORTACAO = "/profissional/importacao";
+
+    private final long tamanhoMaximo;
+
+    private final long tamanhoMaximoCriacaoProfissional;
+
+    public LimiteTamanhoRequisicaoFilter(@Value("${simplesdental.requisicao.tamanho-maximo}") DataSize tamanhoMaximo,
+                                         @Value("${simplesdental.requisicao.tamanho-maximo-criacao-profissional}")
+                                                 DataSize tamanhoMaximoCriacaoProfissional) {
+        this.tamanhoMaximo = tamanhoMaximo.toBytes();
+        this.tamanhoMaximoCriacaoProfissional = tamanhoMaximoCriacaoProfissional.toBytes();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getServletPath().startsWith(CAMINHO_IMPORTACAO);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        var limite = criacaoIncremental(request) ? tamanhoMaximoCriacaoProfissional : tamanhoMaximo;
+        var tamanhoDeclarado = request.getContentLengthLong();
+        if (tamanhoDeclarado > limite) {
+            response.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value(), mensagem(limite));
+            return;
+        }
+        // com Content-Length o proprio Tomcat nao le alem do declarado
+        if (tamanhoDeclarado >= 0) {
+            chain.doFilter(request, response);
+            return;
+        }
+        var requisicao = new RequisicaoLimitada(request, limite);
+        chain.doFilter(requisicao, new RespostaLimitada(response, requisicao));
+    }
+
+    private static boolean criacaoIncremental(HttpServletRequest request) {
+        if (!HttpMethod.POST.matches(request.getMethod()) || !CAMINHO_PROFISSIONAL.equals(request.getServletPath())
+                || isNull(request.getContentType())) {
+            return false;
+        }
+        try {
+            return MediaType.APPLICATION_JSON.isCompatibleWith(MediaType.parseMediaType(request.getContentType()));
+        } catch (InvalidMediaTypeException e) {
+            return false;
+        }
+    }
+
+    private static String mensagem(long limite) {
+        return String.format("Corpo da requisição excede o limite de %d bytes", limite);
+    }
+
+    private static final class RequisicaoLimitada extends HttpServletRequestWrapper {
+
+        private final long limite;
+
+        private ServletInputStream entrada;
+
+        private RequisicaoLimitada(HttpServletRequest request, long limite) {
+            super(request);
+            this.limite = limite;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() throws IOException {
+            if (isNull(entrada)) {
+                entrada = new EntradaLimitada(super.getInputStream(), limite);
+            }
+            return entrada;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            var charset = isNull(getCharacterEncoding())
+                    ? StandardCharsets.ISO_8859_1
+                    : Charset.forName(getCharacterEncoding());
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        private boolean limiteExcedido() {
+            return nonNull(entrada) && entrada.limiteExcedido;
+        }
+    }
+
+    private static final class RespostaLimitada extends HttpServletResponseWrapper {
+
+        private final RequisicaoLimitada requisicao;
+
+        private RespostaLimitada(HttpServletResponse response, RequisicaoLimitada requisicao) {
+            super(response);
+            this.requisicao = requisicao;
+        }
+
+        @Override
+        public void sendError(int status) throws IOException {
+            if (requisicao.limiteExcedido()) {
+                super.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value(), mensagem(requisicao.limite));
+                return;
+            }
+            super.sendError(status);
+        }
+
+        @Override
+        public void sendError(int status, String motivo) throws IOException {
+            if (requisicao.limiteExcedido()) {
+                super.sendError(HttpStatus.PAYLOAD_TOO_LARGE.value(), mensagem(requisicao.limite));
+                return;
+            }
+            super.sendError(status, motivo);
+        }
+    }
+
+    private static final class EntradaLimitada extends ServletInputStream {
+
+        private final ServletInputStream entrada;
+
+        private final long limite;
+
+        private long lidos;
+
+        private boolean limiteExcedido;
+
+        private EntradaLimitada(ServletInputStream entrada, long limite) {
+            this.entrada = entrada;
+            this.limite = limite;
+        }
+
+        @Override
+        public int read() throws IOException {
+            var valor = entrada.read();
+            if (valor >= 0) {
+                contar(1);
+            }
+            return valor;
+        }
+
+        @Override
+        public int read(byte[] destino, int inicio, int tamanho) throws IOException {
+            var quantidade = entrada.read(destino, inicio, tamanho);
+            if (quantidade > 0) {
+                contar(quantidade);
+            }
+            return quantidade;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return entrada.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return entrada.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+            entrada.setReadListener(listener);
+        }
+
+        private void contar(int quantidade) {
+            lidos += quantidade;
+            if (lidos > limite) {
+                limiteExcedido = true;
+                throw new PayloadMuitoGrandeException(mensagem(limite));
+            }
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.simplesdental.config;
+
+import static java.util.Objects.nonNull;
+
+import java.util.Collection;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import com.simplesdental.dtos.PaginaDTO;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Mede latencia, tamanho do resultado e excecoes de todos os metodos publicos dos
+ * services e repositories. Os histogramas sao habilitados pelo prefixo simplesdental
+ * em management.metrics.distribution.percentiles-histogram.
+ */
+@Aspect
+@Component
+public class MetricasAspect {
+
+    public static final String METRICA_SERVICO = "simplesdental.servico";
+    public static final String METRICA_REPOSITORIO = "simplesdental.repositorio";
+
+    private static final String PACOTE_APLICACAO = "com.simplesdental";
+    private static final String SEM_EXCECAO = "nenhuma";
+
+    private final MeterRegistry meterRegistry;
+
+    public MetricasAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.simplesdental.services.*Service.*(..))")
+    public Object medirServico(ProceedingJoinPoint joinPoint) throws Throwable {
+        return medir(METRICA_SERVICO, joinPoint);
+    }
+
+    @Around("execution(public * com.simplesdental.repositories..*.*(..)) "
+            + "|| (target(org.springframework.data.repository.Repository) && execution(public * *(..)))")
+    public Object medirRepositorio(ProceedingJoinPoint joinPoint) throws Throwable {
+        return medir(METRICA_REPOSITORIO, joinPoint);
+    }
+
+    private Object medir(String metrica, ProceedingJoinPoint joinPoint) throws Throwable {
+        var classe = nomeDaClasse(joinPoint);
+        var metodo = joinPoint.getSignature().getName();
+        var excecao = SEM_EXCECAO;
+        var amostra = Timer.start(meterRegistry);
+        try {
+            var resultado = joinPoint.proceed();
+            registrarTamanhoDoResultado(metrica, classe, metodo, resultado);
+            return resultado;
+        } catch (Throwable e) {
+            excecao = e.getClass().getSimpleName();
+            Counter.builder(metrica + ".excecoes")
+                    .tag("classe", classe)
+                    .tag("metodo", metodo)
+                    .tag("tipo", excecao)
+                    .register(meterRegistry)
+                    .increment();
+            throw e;
+        } finally {
+            amostra.stop(Timer.builder(metrica)
+                    .tag("classe", classe)
+                    .tag("metodo", metodo)
+                    .tag("excecao", excecao)
+                    .register(meterRegistry));
+        }
+    }
+
+    private void registrarTamanhoDoResultado(String metrica, String classe, String metodo, Object resultado) {
+        Integer tamanho = null;
+        if (resultado instanceof Collection) {
+            tamanho = ((Collection<?>) resultado).size();
+        } else if (resultado instanceof PaginaDTO) {
+            tamanho = ((PaginaDTO<?>) resultado).getItens().size();
+        }
+
+        if (nonNull(tamanho)) {
+            DistributionSummary.builder(metrica + ".resultados")
+                    .tag("classe", classe)
+                    .tag("metodo", metodo)
+                    .register(meterRegistry)
+                    .record(tamanho);
+        }
+    }
+
+    /**
+     * Repositories do Spring Data sao proxies JDK: a interface da aplicacao identifica
+     * melhor a consulta do que a classe de implementacao (SimpleJpaRepository).
+     */
+    private String nomeDaClasse(ProceedingJoinPoint joinPoint) {
+        for (Class<?> interfaceImplementada : ClassUtils.getAllInterfaces(joinPoint.getThis())) {
+            if (interfaceImplementada.getName().startsWith(PACOTE_APLICACAO)) {
+                return interfaceImplementada.getSimpleName();
+            }
+        }
+        return ClassUtils.getUserClass(joinPoint.getTarget()).getSimpleName();
+    }
+}
@@ -0,0 +1,33 @@
+package com.simplesdental.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.simplesdental.dtos.FeedAlteracoesDTO;
+import com.simplesdental.services.AlteracoesService;
+
+@RestController
+@RequestMapping("/alteracoes")
+public class AlteracoesController {
+
+    private final AlteracoesService alteracoesService;
+
+    public AlteracoesController(AlteracoesService alteracoesService) {
+        this.alteracoesService = alteracoesService;
+    }
+
+    // espera em segundos: sem eventos novos, segura a resposta ate surgir um
+    @GetMapping
+    @ResponseStatus(HttpStatus.OK)
+    public DeferredResult<FeedAlteracoesDTO> buscar(@RequestParam(value = "desde", required = false) Long desde,
+                                                    @RequestParam(value = "limite", required = false) Integer limite,
+                                                    @RequestParam(value = "espera", required = false) Integer espera) {
+        return alteracoesService.buscar(desde, limite, espera);
+    }
+
+}
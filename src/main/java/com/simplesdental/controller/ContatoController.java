@@ -1,6 +1,6 @@
 package com.simplesdental.controller;
 
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -14,23 +14,33 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.simplesdental.config.ExecutorConsultas;
 import com.simplesdental.dtos.ContatoDTO;
+import com.simplesdental.dtos.PaginaDTO;
+import com.simplesdental.dtos.TicketContatoDTO;
 import com.simplesdental.services.ContatoService;
+import com.simplesdental.services.FilaContatosService;
 
 @RestController
 @RequestMapping("/contato")
 public class ContatoController {
 
     private final ContatoService contatoService;
+    private final ExecutorConsultas executorConsultas;
+    private final FilaContatosService filaContatosService;
 
-    public ContatoController(ContatoService contatoService) {
+    public ContatoController(ContatoService contatoService,
+                             ExecutorConsultas executorConsultas,
+                             FilaContatosService filaContatosService) {
         this.contatoService = contatoService;
+        this.executorConsultas = executorConsultas;
+        this.filaContatosService = filaContatosService;
     }
 
     @GetMapping("/{idContato}")
     @ResponseStatus(HttpStatus.OK)
-    public ContatoDTO buscarPorId(@PathVariable("idContato") Long idContato) {
-        return contatoService.buscarContatoPorId(idContato);
+    public CompletableFuture<ContatoDTO> buscarPorId(@PathVariable("idContato") Long idContato) {
+        return executorConsultas.executar(() -> contatoService.buscarContatoPorId(idContato));
     }
 
     @PostMapping
@@ -39,6 +49,19 @@ public class ContatoController {
         return contatoService.criarContato(contatoDTO);
     }
 
+    // 202 com um ticket: o contato e gravado em lote em segundo plano
+    @PostMapping("/fila")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public TicketContatoDTO enfileirarContato(@RequestBody ContatoDTO contatoDTO) {
+        return filaContatosService.enfileirar(contatoDTO);
+    }
+
+    @GetMapping("/fila/{ticket}")
+    @ResponseStatus(HttpStatus.OK)
+    public TicketContatoDTO consultarTicket(@PathVariable("ticket") Long ticket) {
+        return filaContatosService.consultar(ticket);
+    }
+
     @PutMapping
     @ResponseStatus(HttpStatus.OK)
     public String atualizarContato(@RequestBody ContatoDTO contatoDTO) {
@@ -53,9 +76,11 @@ public class ContatoController {
 
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
-    public List<ContatoDTO> buscarContidosNoNomeOuContato(@RequestParam(value = "nome", required = false) String nome,
-                                                          @RequestParam(value = "contato", required = false) String contato) {
-        return contatoService.buscarContidosNoNomeOuContato(nome, contato);
+    public CompletableFuture<PaginaDTO<ContatoDTO>> buscarContidosNoNomeOuContato(@RequestParam(value = "nome", required = false) String nome,
+                                                                                  @RequestParam(value = "contato", required = false) String contato,
+                                                                                  @RequestParam(value = "cursor", required = false) String cursor,
+                                                                                  @RequestParam(value = "tamanho", required = false) Integer tamanho) {
+        return executorConsultas.executar(() -> contatoService.buscarContidosNoNomeOuContato(nome, contato, cursor, tamanho));
     }
 
 }
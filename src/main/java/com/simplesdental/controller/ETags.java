@@ -0,0 +1,56 @@
+package com.simplesdental.controller;
+
+import static java.util.Objects.isNull;
+
+import java.util.Arrays;
+
+import com.simplesdental.exceptions.InvalidAttributeException;
+
+/**
+ * ETags fortes derivados da coluna versao: o valor e a propria versao entre aspas.
+ */
+final class ETags {
+
+    private static final String TODOS = "*";
+    private static final String PREFIXO_FRACO = "W/";
+
+    private ETags() {
+    }
+
+    static String daVersao(Long versao) {
+        return "\"" + versao + "\"";
+    }
+
+    /**
+     * Compara com o If-None-Match, que pode trazer varios ETags separados por virgula.
+     */
+    static boolean corresponde(String ifNoneMatch, String etag) {
+        if (isNull(ifNoneMatch)) {
+            return false;
+        }
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(valor -> valor.startsWith(PREFIXO_FRACO) ? valor.substring(PREFIXO_FRACO.length()) : valor)
+                .anyMatch(valor -> TODOS.equals(valor) || etag.equals(valor));
+    }
+
+    /**
+     * Versao exigida pelo If-Match. "*" aceita qualquer representacao atual, entao
+     * devolve null e a atualizacao segue sem conferir a versao; se o profissional nao
+     * existir a atualizacao falha do mesmo jeito.
+     */
+    static Long versao(String ifMatch) {
+        var valor = ifMatch.trim();
+        if (TODOS.equals(valor)) {
+            return null;
+        }
+        if (valor.length() < 2 || !valor.startsWith("\"") || !valor.endsWith("\"")) {
+            throw new InvalidAttributeException("ETag inválido");
+        }
+        try {
+            return Long.valueOf(valor.substring(1, valor.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new InvalidAttributeException("ETag inválido");
+        }
+    }
+}
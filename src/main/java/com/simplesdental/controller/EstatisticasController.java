@@ -0,0 +1,61 @@
+package com.simplesdental.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.simplesdental.config.ExecutorConsultas;
+import com.simplesdental.dtos.ContagemDTO;
+import com.simplesdental.dtos.PaginaDTO;
+import com.simplesdental.services.EstatisticasService;
+
+@RestController
+@RequestMapping("/profissional/estatisticas")
+public class EstatisticasController {
+
+    private final EstatisticasService estatisticasService;
+    private final ExecutorConsultas executorConsultas;
+
+    public EstatisticasController(EstatisticasService estatisticasService,
+                                  ExecutorConsultas executorConsultas) {
+        this.estatisticasService = estatisticasService;
+        this.executorConsultas = executorConsultas;
+    }
+
+    @GetMapping("/cargo")
+    @ResponseStatus(HttpStatus.OK)
+    public CompletableFuture<List<ContagemDTO>> contarPorCargo() {
+        return executorConsultas.executar(estatisticasService::contarPorCargo);
+    }
+
+    @GetMapping("/contatos")
+    @ResponseStatus(HttpStatus.OK)
+    public CompletableFuture<PaginaDTO<ContagemDTO>> contarContatosPorProfissional(@RequestParam(value = "cursor", required = false) String cursor,
+                                                                                   @RequestParam(value = "tamanho", required = false) Integer tamanho) {
+        return executorConsultas.executar(() -> estatisticasService.contarContatosPorProfissional(cursor, tamanho));
+    }
+
+    @GetMapping("/faixa-etaria")
+    @ResponseStatus(HttpStatus.OK)
+    public CompletableFuture<List<ContagemDTO>> contarPorFaixaEtaria(@RequestParam(value = "amplitude", required = false) Integer amplitude) {
+        return executorConsultas.executar(() -> estatisticasService.contarPorFaixaEtaria(amplitude));
+    }
+
+    @GetMapping("/criacoes")
+    @ResponseStatus(HttpStatus.OK)
+    public CompletableFuture<List<ContagemDTO>> contarCriacoesPorDia(@RequestParam(value = "inicio", required = false)
+                                                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate inicio,
+                                                                     @RequestParam(value = "fim", required = false)
+                                                                     @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fim) {
+        return executorConsultas.executar(() -> estatisticasService.contarCriacoesPorDia(inicio, fim));
+    }
+
+}
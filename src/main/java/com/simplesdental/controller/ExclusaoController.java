@@ -0,0 +1,31 @@
+package com.simplesdental.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.simplesdental.dtos.ExclusaoEmLoteDTO;
+import com.simplesdental.dtos.RelatorioExclusaoDTO;
+import com.simplesdental.services.ExclusaoEmLoteService;
+
+@RestController
+@RequestMapping("/profissional/exclusao")
+public class ExclusaoController {
+
+    private final ExclusaoEmLoteService exclusaoEmLoteService;
+
+    public ExclusaoController(ExclusaoEmLoteService exclusaoEmLoteService) {
+        this.exclusaoEmLoteService = exclusaoEmLoteService;
+    }
+
+    // POST com corpo: milhares de ids nao cabem na URL de um DELETE
+    @PostMapping
+    @ResponseStatus(HttpStatus.OK)
+    public RelatorioExclusaoDTO excluir(@RequestBody ExclusaoEmLoteDTO exclusao) {
+        return exclusaoEmLoteService.excluir(exclusao);
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.simplesdental.controller;
+
+import java.io.IOException;
+
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.simplesdental.services.ExportacaoService;
+
+@RestController
+@RequestMapping("/profissional/exportacao")
+public class ExportacaoController {
+
+    private static final String CONTENT_TYPE_NDJSON = "application/x-ndjson";
+
+    private final ExportacaoService exportacaoService;
+
+    public ExportacaoController(ExportacaoService exportacaoService) {
+        this.exportacaoService = exportacaoService;
+    }
+
+    @GetMapping
+    public void exportarNdjson(HttpServletResponse response) throws IOException {
+        response.setContentType(CONTENT_TYPE_NDJSON);
+        exportacaoService.exportarNdjson(response.getOutputStream());
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.simplesdental.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.simplesdental.dtos.RelatorioImportacaoDTO;
+import com.simplesdental.services.ImportacaoService;
+
+@RestController
+@RequestMapping("/profissional/importacao")
+public class ImportacaoController {
+
+    private final ImportacaoService importacaoService;
+
+    public ImportacaoController(ImportacaoService importacaoService) {
+        this.importacaoService = importacaoService;
+    }
+
+    @PostMapping(consumes = "application/x-ndjson")
+    @ResponseStatus(HttpStatus.OK)
+    public RelatorioImportacaoDTO importarNdjson(InputStream corpo) throws IOException {
+        return importacaoService.importarNdjson(corpo);
+    }
+
+    @PostMapping(consumes = "text/csv")
+    @ResponseStatus(HttpStatus.OK)
+    public RelatorioImportacaoDTO importarCsv(InputStream corpo) throws IOException {
+        return importacaoService.importarCsv(corpo);
+    }
+
+}
@@ -1,21 +1,34 @@
 package com.simplesdental.controller;
 
+import static java.util.Objects.nonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 
+import com.simplesdental.config.ExecutorConsultas;
+import com.simplesdental.dtos.LoteProfissionaisDTO;
+import com.simplesdental.dtos.PaginaDTO;
 import com.simplesdental.dtos.ProfissionalDTO;
 import com.simplesdental.enums.TipoCargo;
+import com.simplesdental.services.CriacaoIncrementalService;
 import com.simplesdental.services.ProfissionalService;
 
 @RestController
@@ -23,15 +36,47 @@ import com.simplesdental.services.ProfissionalService;
 public class ProfissionalController {
 
     private final ProfissionalService profissionalService;
+    private final ExecutorConsultas executorConsultas;
+    private final CriacaoIncrementalService criacaoIncrementalService;
 
-    public ProfissionalController(ProfissionalService profissionalService) {
+    public ProfissionalController(ProfissionalService profissionalService,
+                                  ExecutorConsultas executorConsultas,
+                                  CriacaoIncrementalService criacaoIncrementalService) {
         this.profissionalService = profissionalService;
+        this.executorConsultas = executorConsultas;
+        this.criacaoIncrementalService = criacaoIncrementalService;
     }
 
+    /**
+     * Com If-None-Match so a versao e consultada: se o ETag bate, responde 304 sem
+     * carregar nem serializar o profissional.
+     */
     @GetMapping("/{idProfissional}")
+    public CompletableFuture<ResponseEntity<ProfissionalDTO>> buscarPorId(@PathVariable("idProfissional") Long idProfissional,
+                                                                          @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return executorConsultas.executar(() -> {
+            if (nonNull(ifNoneMatch)) {
+                var etag = ETags.daVersao(profissionalService.buscarVersaoProfissional(idProfissional));
+                if (ETags.corresponde(ifNoneMatch, etag)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).<ProfissionalDTO>build();
+                }
+            }
+            var profissional = profissionalService.buscarProfissionalPorId(idProfissional);
+            return ResponseEntity.ok().eTag(ETags.daVersao(profissional.getVersao())).body(profissional);
+        });
+    }
+
+    @GetMapping("/lote")
     @ResponseStatus(HttpStatus.OK)
-    public ProfissionalDTO buscarPorId(@PathVariable("idProfissional") Long idProfissional) {
-        return profissionalService.buscarProfissionalPorId(idProfissional);
+    public CompletableFuture<LoteProfissionaisDTO> buscarPorIds(@RequestParam(value = "ids") List<Long> ids) {
+        return executorConsultas.executar(() -> profissionalService.buscarProfissionaisPorIds(ids));
+    }
+
+    // JSON e lido de forma incremental; CBOR e Smile continuam no metodo abaixo
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public String criarProfissionalIncremental(InputStream corpo) throws IOException {
+        return criacaoIncrementalService.criarProfissional(corpo);
     }
 
     @PostMapping
@@ -42,7 +87,12 @@ public class ProfissionalController {
 
     @PutMapping
     @ResponseStatus(HttpStatus.OK)
-    public String atualizarContato(@RequestBody ProfissionalDTO profissionalDTO) {
+    public String atualizarContato(@RequestBody ProfissionalDTO profissionalDTO,
+                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        // com If-Match: * a versao do corpo tambem e ignorada
+        if (nonNull(ifMatch)) {
+            profissionalDTO.setVersao(ETags.versao(ifMatch));
+        }
         return profissionalService.atualizarProfissional(profissionalDTO);
     }
 
@@ -54,14 +104,30 @@ public class ProfissionalController {
 
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
-    public List<ProfissionalDTO> buscarContidosNoNome(@RequestParam(value = "nome") String nome) {
-        return profissionalService.buscarContidosNoNome(nome);
+    public CompletableFuture<PaginaDTO<ProfissionalDTO>> buscarContidosNoNome(@RequestParam(value = "nome") String nome,
+                                                                              @RequestParam(value = "relevancia", defaultValue = "false") boolean relevancia,
+                                                                              @RequestParam(value = "cursor", required = false) String cursor,
+                                                                              @RequestParam(value = "tamanho", required = false) Integer tamanho) {
+        if (relevancia) {
+            return executorConsultas.executar(() -> profissionalService.buscarContidosNoNomePorRelevancia(nome, tamanho));
+        }
+        return executorConsultas.executar(() -> profissionalService.buscarContidosNoNome(nome, cursor, tamanho));
+    }
+
+    @GetMapping("/busca")
+    @ResponseStatus(HttpStatus.OK)
+    public CompletableFuture<PaginaDTO<ProfissionalDTO>> buscarPorTexto(@RequestParam(value = "termo") String termo,
+                                                                        @RequestParam(value = "cursor", required = false) String cursor,
+                                                                        @RequestParam(value = "tamanho", required = false) Integer tamanho) {
+        return executorConsultas.executar(() -> profissionalService.buscarPorTexto(termo, cursor, tamanho));
     }
 
     @GetMapping("/cargo")
     @ResponseStatus(HttpStatus.OK)
-    public List<ProfissionalDTO> buscarPorCargo(@RequestParam(value = "cargo") TipoCargo cargo) {
-        return profissionalService.buscarPorCargo(cargo);
+    public CompletableFuture<PaginaDTO<ProfissionalDTO>> buscarPorCargo(@RequestParam(value = "cargo") TipoCargo cargo,
+                                                                        @RequestParam(value = "cursor", required = false) String cursor,
+                                                                        @RequestParam(value = "tamanho", required = false) Integer tamanho) {
+        return executorConsultas.executar(() -> profissionalService.buscarPorCargo(cargo, cursor, tamanho));
     }
 
 }
@@ -0,0 +1,25 @@
+package com.simplesdental.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Uma linha do log da fila de contatos. A sequencia e o ticket devolvido ao cliente.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntradaFilaContatoDTO {
+
+    private long sequencia;
+
+    private String nome;
+
+    private String contato;
+
+    private Long idProfissional;
+
+}
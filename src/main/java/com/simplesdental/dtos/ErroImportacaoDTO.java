@@ -0,0 +1,18 @@
+package com.simplesdental.dtos;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ErroImportacaoDTO {
+
+    private Long linha;
+
+    private String mensagem;
+
+}
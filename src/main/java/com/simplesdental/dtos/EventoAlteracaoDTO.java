@@ -0,0 +1,34 @@
+package com.simplesdental.dtos;
+
+import java.time.LocalDateTime;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.simplesdental.enums.TipoEntidade;
+import com.simplesdental.enums.TipoOperacao;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventoAlteracaoDTO {
+
+    private Long sequencia;
+
+    private TipoEntidade entidade;
+
+    private Long idEntidade;
+
+    // Nulo para contatos excluidos junto com o profissional na exclusao em lote
+    private Long idProfissional;
+
+    private TipoOperacao operacao;
+
+    @JsonFormat(pattern = "dd/MM/yyyy HH:mm:ss")
+    private LocalDateTime dataEvento;
+
+}
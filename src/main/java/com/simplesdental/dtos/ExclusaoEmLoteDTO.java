@@ -0,0 +1,23 @@
+package com.simplesdental.dtos;
+
+import java.util.List;
+
+import com.simplesdental.enums.TipoCargo;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExclusaoEmLoteDTO {
+
+    // Informar ids ou cargo, nunca os dois
+    private List<Long> ids;
+
+    private TipoCargo cargo;
+
+}
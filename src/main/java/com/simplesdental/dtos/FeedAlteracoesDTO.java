@@ -0,0 +1,21 @@
+package com.simplesdental.dtos;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedAlteracoesDTO {
+
+    private List<EventoAlteracaoDTO> eventos;
+
+    // Valor de "desde" para a proxima chamada
+    private Long proximaSequencia;
+
+}
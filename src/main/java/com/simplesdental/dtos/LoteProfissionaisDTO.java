@@ -0,0 +1,20 @@
+package com.simplesdental.dtos;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoteProfissionaisDTO {
+
+    private List<ProfissionalDTO> profissionais;
+
+    private List<Long> idsNaoEncontrados;
+
+}
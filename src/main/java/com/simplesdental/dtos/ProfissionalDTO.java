@@ -2,6 +2,7 @@ package com.simplesdental.dtos;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -32,6 +33,8 @@ public class ProfissionalDTO {
     @JsonFormat(pattern = "dd/MM/yyyy HH:mm:ss")
     private LocalDateTime dataCriacao;
 
+    private Long versao;
+
     private List<ContatoDTO> contatos;
 
     public ProfissionalDTO(Profissional profissional) {
@@ -40,9 +43,24 @@ public class ProfissionalDTO {
         this.cargo = profissional.getCargo();
         this.nascimento = profissional.getNascimento();
         this.dataCriacao = profissional.getDataCriacao();
+        this.versao = profissional.getVersao();
         this.contatos = profissional.getContatos()
                 .stream()
                 .map(ContatoDTO::new)
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Usado pelas projecoes JPQL (SELECT new ...): os contatos sao preenchidos depois.
+     */
+    public ProfissionalDTO(Long id, String nome, TipoCargo cargo, LocalDate nascimento,
+                           LocalDateTime dataCriacao, Long versao) {
+        this.id = id;
+        this.nome = nome;
+        this.cargo = cargo;
+        this.nascimento = nascimento;
+        this.dataCriacao = dataCriacao;
+        this.versao = versao;
+        this.contatos = new ArrayList<>();
+    }
 }
@@ -0,0 +1,24 @@
+package com.simplesdental.dtos;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class RelatorioExclusaoDTO {
+
+    private long profissionaisExcluidos;
+
+    private long contatosExcluidos;
+
+    private long lotes;
+
+    // So na exclusao por ids
+    private List<Long> idsNaoEncontrados = new ArrayList<>();
+
+}
@@ -0,0 +1,24 @@
+package com.simplesdental.dtos;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+public class RelatorioImportacaoDTO {
+
+    private long linhasProcessadas;
+
+    private long profissionaisImportados;
+
+    private long linhasComErro;
+
+    // Limitada a ImportacaoService.MAXIMO_ERROS_RELATADOS; linhasComErro traz o total
+    private List<ErroImportacaoDTO> erros = new ArrayList<>();
+
+}
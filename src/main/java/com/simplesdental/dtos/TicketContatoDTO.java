@@ -0,0 +1,26 @@
+package com.simplesdental.dtos;
+
+import com.simplesdental.enums.SituacaoTicket;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class TicketContatoDTO {
+
+    private Long ticket;
+
+    private SituacaoTicket situacao;
+
+    // So quando GRAVADO e o ticket foi emitido desde o ultimo restart
+    private Long idContato;
+
+    // So quando ERRO
+    private String mensagem;
+
+}
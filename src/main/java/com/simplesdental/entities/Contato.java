@@ -2,6 +2,7 @@ package com.simplesdental.entities;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
@@ -9,6 +10,9 @@ import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Version;
+
+import org.hibernate.annotations.DynamicUpdate;
 
 import lombok.AllArgsConstructor;
 import lombok.EqualsAndHashCode;
@@ -17,6 +21,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
+@DynamicUpdate
 @Getter
 @Setter
 @NoArgsConstructor
@@ -26,7 +31,7 @@ import lombok.Setter;
 public class Contato {
 
     @Id
-    @SequenceGenerator(name = "contato_seq", sequenceName = "contato_seq", allocationSize = 1)
+    @SequenceGenerator(name = "contato_seq", sequenceName = "contato_seq", allocationSize = 50)
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "contato_seq")
     @Column(name = "id")
     private Long id;
@@ -37,10 +42,14 @@ public class Contato {
     @Column(name = "contato", nullable = false)
     private String contato;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "id_profissional")
     private Profissional profissional;
 
+    @Version
+    @Column(name = "versao", nullable = false)
+    private Long versao;
+
     public static ContatoBuilder builder() {
         return new ContatoBuilder();
     }
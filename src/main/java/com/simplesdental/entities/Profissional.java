@@ -16,6 +16,9 @@ import javax.persistence.Id;
 import javax.persistence.OneToMany;
 import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Version;
+
+import org.hibernate.annotations.DynamicUpdate;
 
 import com.simplesdental.enums.TipoCargo;
 
@@ -25,6 +28,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
+@DynamicUpdate
 @Getter
 @Setter
 @NoArgsConstructor
@@ -33,7 +37,7 @@ import lombok.Setter;
 public class Profissional {
 
     @Id
-    @SequenceGenerator(name = "profissional_seq", sequenceName = "profissional_seq", allocationSize = 1)
+    @SequenceGenerator(name = "profissional_seq", sequenceName = "profissional_seq", allocationSize = 50)
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "profissional_seq")
     @Column(name = "id")
     private Long id;
@@ -51,6 +55,10 @@ public class Profissional {
     @Column(name = "data_criacao")
     private LocalDateTime dataCriacao;
 
+    @Version
+    @Column(name = "versao", nullable = false)
+    private Long versao;
+
     @OneToMany(mappedBy = "profissional", orphanRemoval = true, cascade = CascadeType.PERSIST)
     private List<Contato> contatos = new ArrayList<>();
 
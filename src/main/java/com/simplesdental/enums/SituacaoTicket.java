@@ -0,0 +1,7 @@
+package com.simplesdental.enums;
+
+public enum SituacaoTicket {
+    PENDENTE,
+    GRAVADO,
+    ERRO;
+}
@@ -0,0 +1,6 @@
+package com.simplesdental.enums;
+
+public enum TipoEntidade {
+    PROFISSIONAL,
+    CONTATO;
+}
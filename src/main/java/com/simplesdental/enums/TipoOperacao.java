@@ -0,0 +1,7 @@
+package com.simplesdental.enums;
+
+public enum TipoOperacao {
+    CRIACAO,
+    ALTERACAO,
+    EXCLUSAO;
+}
@@ -0,0 +1,18 @@
+package com.simplesdental.events;
+
+import com.simplesdental.enums.TipoOperacao;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ContatoAlteradoEvent {
+
+    private final Long idContato;
+
+    private final Long idProfissional;
+
+    private final TipoOperacao operacao;
+
+}
@@ -0,0 +1,50 @@
+package com.simplesdental.events;
+
+import static java.util.Objects.nonNull;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.simplesdental.config.CacheConfig;
+
+/**
+ * Invalida as entradas depois do commit, para que uma leitura feita depois da
+ * invalidacao ja encontre o estado novo no banco. Uma leitura @Cacheable que carregou
+ * os dados antes do commit ainda pode gravar o estado anterior depois da invalidacao;
+ * essa entrada, com a versao e o ETag antigos, so sai pelo expireAfterWrite de
+ * spring.cache.caffeine.spec, que limita quanto tempo ela fica desatualizada.
+ */
+@Component
+public class InvalidacaoCacheListener {
+
+    private final Cache profissionais;
+    private final Cache contatos;
+
+    public InvalidacaoCacheListener(CacheManager cacheManager) {
+        this.profissionais = cacheManager.getCache(CacheConfig.PROFISSIONAIS);
+        this.contatos = cacheManager.getCache(CacheConfig.CONTATOS);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void profissionalAlterado(ProfissionalAlteradoEvent evento) {
+        profissionais.evict(evento.getIdProfissional());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void contatoAlterado(ContatoAlteradoEvent evento) {
+        if (nonNull(evento.getIdContato())) {
+            contatos.evict(evento.getIdContato());
+        }
+        if (nonNull(evento.getIdProfissional())) {
+            profissionais.evict(evento.getIdProfissional());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void profissionaisExcluidos(ProfissionaisExcluidosEvent evento) {
+        evento.getIdsProfissionais().forEach(profissionais::evict);
+        evento.getIdsContatos().forEach(contatos::evict);
+    }
+}
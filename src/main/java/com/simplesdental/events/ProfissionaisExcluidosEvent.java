@@ -0,0 +1,20 @@
+package com.simplesdental.events;
+
+import java.util.Collection;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Um lote da exclusao em massa: substitui um evento por linha, que faria a replica
+ * recarregar cada profissional excluido separadamente.
+ */
+@Getter
+@AllArgsConstructor
+public class ProfissionaisExcluidosEvent {
+
+    private final Collection<Long> idsProfissionais;
+
+    private final Collection<Long> idsContatos;
+
+}
@@ -0,0 +1,16 @@
+package com.simplesdental.events;
+
+import com.simplesdental.enums.TipoOperacao;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ProfissionalAlteradoEvent {
+
+    private final Long idProfissional;
+
+    private final TipoOperacao operacao;
+
+}
@@ -0,0 +1,128 @@
+package com.simplesdental.events;
+
+import static java.util.Objects.isNull;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.simplesdental.dtos.EventoAlteracaoDTO;
+import com.simplesdental.enums.TipoEntidade;
+import com.simplesdental.enums.TipoOperacao;
+import com.simplesdental.repositories.EventoAlteracaoRepository;
+import com.simplesdental.repositories.ProfissionalRepository;
+import com.simplesdental.services.AlteracoesService;
+
+/**
+ * Grava os eventos no outbox dentro da transacao que os publicou, ao contrario dos
+ * outros listeners, que rodam depois do commit. Os eventos sao acumulados e inseridos
+ * em lote no beforeCommit, depois do flush das entidades: assim o bloqueio da tabela
+ * fica por ultimo e dura so ate o commit.
+ *
+ * Contatos criados sem id no evento (fila de contatos) sao registrados por quem os
+ * gravou. Evento publicado fora de transacao e gravado numa transacao propria, que o
+ * bloqueio do outbox exige.
+ */
+@Component
+public class RegistroAlteracoesListener {
+
+    private final Object chavePendentes = new Object();
+
+    private final EventoAlteracaoRepository eventoAlteracaoRepository;
+    private final ProfissionalRepository profissionalRepository;
+    private final AlteracoesService alteracoesService;
+    private final TransactionTemplate transactionTemplate;
+
+    public RegistroAlteracoesListener(EventoAlteracaoRepository eventoAlteracaoRepository,
+                                      ProfissionalRepository profissionalRepository,
+                                      AlteracoesService alteracoesService,
+                                      TransactionTemplate transactionTemplate) {
+        this.eventoAlteracaoRepository = eventoAlteracaoRepository;
+        this.profissionalRepository = profissionalRepository;
+        this.alteracoesService = alteracoesService;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @EventListener
+    public void profissionalAlterado(ProfissionalAlteradoEvent evento) {
+        registrar(new EventoAlteracaoDTO(null, TipoEntidade.PROFISSIONAL, evento.getIdProfissional(),
+                evento.getIdProfissional(), evento.getOperacao(), null));
+    }
+
+    @EventListener
+    public void contatoAlterado(ContatoAlteradoEvent evento) {
+        if (isNull(evento.getIdContato())) {
+            return;
+        }
+        registrar(new EventoAlteracaoDTO(null, TipoEntidade.CONTATO, evento.getIdContato(),
+                evento.getIdProfissional(), evento.getOperacao(), null));
+    }
+
+    @EventListener
+    public void profissionaisExcluidos(ProfissionaisExcluidosEvent evento) {
+        evento.getIdsProfissionais().forEach(id -> registrar(new EventoAlteracaoDTO(null,
+                TipoEntidade.PROFISSIONAL, id, id, TipoOperacao.EXCLUSAO, null)));
+        evento.getIdsContatos().forEach(id -> registrar(new EventoAlteracaoDTO(null,
+                TipoEntidade.CONTATO, id, null, TipoOperacao.EXCLUSAO, null)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void registrar(EventoAlteracaoDTO evento) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionTemplate.executeWithoutResult(status -> eventoAlteracaoRepository.registrar(List.of(evento)));
+            alteracoesService.notificar();
+            return;
+        }
+        var pendentes = (List<EventoAlteracaoDTO>) TransactionSynchronizationManager.getResource(chavePendentes);
+        if (isNull(pendentes)) {
+            pendentes = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(chavePendentes, pendentes);
+            TransactionSynchronizationManager.registerSynchronization(new GravacaoPendentes(pendentes));
+        }
+        pendentes.add(evento);
+    }
+
+    private final class GravacaoPendentes implements TransactionSynchronization {
+
+        private final List<EventoAlteracaoDTO> pendentes;
+
+        private GravacaoPendentes(List<EventoAlteracaoDTO> pendentes) {
+            this.pendentes = pendentes;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // sem o flush, um UPDATE pendente poderia esperar por outra transacao que,
+            // por sua vez, espera pelo bloqueio do outbox
+            profissionalRepository.flush();
+            eventoAlteracaoRepository.registrar(semRepeticoes(pendentes));
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(chavePendentes);
+            if (status == STATUS_COMMITTED) {
+                alteracoesService.notificar();
+            }
+        }
+    }
+
+    // a mesma entidade pode ser alterada mais de uma vez na transacao, como na
+    // transferencia de contatos entre profissionais
+    private static List<EventoAlteracaoDTO> semRepeticoes(List<EventoAlteracaoDTO> eventos) {
+        return new ArrayList<>(eventos.stream()
+                .collect(Collectors.toMap(
+                        evento -> evento.getEntidade() + ":" + evento.getIdEntidade() + ":" + evento.getOperacao(),
+                        evento -> evento,
+                        (primeiro, repetido) -> primeiro,
+                        LinkedHashMap::new))
+                .values());
+    }
+}
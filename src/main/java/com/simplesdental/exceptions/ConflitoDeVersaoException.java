@@ -0,0 +1,11 @@
+package com.simplesdental.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(code = HttpStatus.CONFLICT)
+public class ConflitoDeVersaoException extends RuntimeException {
+    public ConflitoDeVersaoException(String message) {
+        super(message);
+    }
+}
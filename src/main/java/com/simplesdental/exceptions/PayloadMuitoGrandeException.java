@@ -0,0 +1,11 @@
+package com.simplesdental.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(code = HttpStatus.PAYLOAD_TOO_LARGE)
+public class PayloadMuitoGrandeException extends RuntimeException{
+    public PayloadMuitoGrandeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.simplesdental.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(code = HttpStatus.SERVICE_UNAVAILABLE)
+public class ServicoIndisponivelException extends RuntimeException{
+    public ServicoIndisponivelException(String message) {
+        super(message);
+    }
+}
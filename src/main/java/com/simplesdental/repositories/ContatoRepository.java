@@ -1,19 +1,36 @@
 package com.simplesdental.repositories;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import com.simplesdental.dtos.ContatoDTO;
 import com.simplesdental.entities.Contato;
 
 public interface ContatoRepository extends JpaRepository<Contato, Long> {
 
-    @Query("SELECT c FROM Contato c WHERE UPPER(c.nome) like UPPER(concat('%' ,:nome, '%'))")
-    List<Contato> buscarContatosContendoNome(@Param("nome") String nome);
+    // Projecoes em DTO: c.profissional.id usa a chave estrangeira, sem join com profissional
 
-    @Query("SELECT c FROM Contato c WHERE UPPER(c.contato) like UPPER(concat('%' ,:contato, '%'))")
-    List<Contato> buscarContatosContendoContato(@Param("contato") String contato);
+    @Query("SELECT new com.simplesdental.dtos.ContatoDTO(c.id, c.nome, c.contato, c.profissional.id) "
+            + "FROM Contato c WHERE UPPER(c.nome) like UPPER(concat('%' ,:nome, '%')) "
+            + "AND c.id > :idApos ORDER BY c.id")
+    List<ContatoDTO> buscarContatosContendoNome(@Param("nome") String nome,
+                                                @Param("idApos") Long idApos,
+                                                Pageable pageable);
+
+    @Query("SELECT new com.simplesdental.dtos.ContatoDTO(c.id, c.nome, c.contato, c.profissional.id) "
+            + "FROM Contato c WHERE UPPER(c.contato) like UPPER(concat('%' ,:contato, '%')) "
+            + "AND c.id > :idApos ORDER BY c.id")
+    List<ContatoDTO> buscarContatosContendoContato(@Param("contato") String contato,
+                                                   @Param("idApos") Long idApos,
+                                                   Pageable pageable);
+
+    @Query("SELECT new com.simplesdental.dtos.ContatoDTO(c.id, c.nome, c.contato, c.profissional.id) "
+            + "FROM Contato c WHERE c.profissional.id IN :idsProfissionais ORDER BY c.id")
+    List<ContatoDTO> buscarContatosDosProfissionais(@Param("idsProfissionais") Collection<Long> idsProfissionais);
 
 }
@@ -0,0 +1,101 @@
+package com.simplesdental.repositories;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import com.simplesdental.dtos.EventoAlteracaoDTO;
+import com.simplesdental.enums.TipoEntidade;
+import com.simplesdental.enums.TipoOperacao;
+
+/**
+ * Outbox do feed de alteracoes. A escrita precisa acontecer dentro da transacao da
+ * alteracao; a leitura e feita fora de transacao.
+ */
+@Repository
+public class EventoAlteracaoRepository {
+
+    // EXCLUSIVE bloqueia outras escritas ate o commit mas nao os SELECTs do feed: sem
+    // isso uma transacao que pegou a sequencia 10 poderia commitar depois de outra com
+    // a 11, e um consumidor que ja leu a 11 nunca veria a 10
+    private static final String BLOQUEIA_ESCRITA = "LOCK TABLE evento_alteracao IN EXCLUSIVE MODE";
+
+    private static final String INSERT_EVENTO =
+            "INSERT INTO evento_alteracao (entidade, id_entidade, id_profissional, operacao) VALUES (?, ?, ?, ?)";
+
+    private static final String INSERT_CRIACAO_CONTATOS =
+            "INSERT INTO evento_alteracao (entidade, id_entidade, id_profissional, operacao) "
+                    + "SELECT 'CONTATO', id, id_profissional, 'CRIACAO' FROM contato "
+                    + "WHERE id_profissional = ? AND NOT (id = ANY(?)) ORDER BY id";
+
+    private static final String SELECT_DESDE =
+            "SELECT sequencia, entidade, id_entidade, id_profissional, operacao, data_evento "
+                    + "FROM evento_alteracao WHERE sequencia > ? ORDER BY sequencia LIMIT ?";
+
+    private static final String SELECT_ULTIMA_SEQUENCIA =
+            "SELECT COALESCE(MAX(sequencia), 0) FROM evento_alteracao";
+
+    private static final String DELETE_ANTERIORES = "DELETE FROM evento_alteracao WHERE data_evento < ?";
+
+    private static final RowMapper<EventoAlteracaoDTO> MAPPER = (rs, linha) -> new EventoAlteracaoDTO(
+            rs.getLong("sequencia"),
+            TipoEntidade.valueOf(rs.getString("entidade")),
+            rs.getObject("id_entidade", Long.class),
+            rs.getObject("id_profissional", Long.class),
+            TipoOperacao.valueOf(rs.getString("operacao")),
+            rs.getTimestamp("data_evento").toLocalDateTime());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EventoAlteracaoRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Deve ser a ultima escrita da transacao: o bloqueio da tabela vale ate o commit.
+     */
+    public void registrar(List<EventoAlteracaoDTO> eventos) {
+        if (eventos.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.execute(BLOQUEIA_ESCRITA);
+        jdbcTemplate.batchUpdate(INSERT_EVENTO, eventos, eventos.size(), (ps, evento) -> {
+            ps.setString(1, evento.getEntidade().name());
+            ps.setObject(2, evento.getIdEntidade(), Types.BIGINT);
+            ps.setObject(3, evento.getIdProfissional(), Types.BIGINT);
+            ps.setString(4, evento.getOperacao().name());
+        });
+    }
+
+    /**
+     * Criacao de um profissional e dos seus contatos, menos os que ja existiam e foram
+     * transferidos para ele: os contatos sao lidos do banco em vez de passarem pela
+     * memoria. Tambem deve ser a ultima escrita da transacao.
+     */
+    public void registrarCriacaoProfissional(Long idProfissional, Collection<Long> idsContatosExistentes) {
+        registrar(List.of(new EventoAlteracaoDTO(null, TipoEntidade.PROFISSIONAL, idProfissional, idProfissional,
+                TipoOperacao.CRIACAO, null)));
+        jdbcTemplate.update(INSERT_CRIACAO_CONTATOS, ps -> {
+            ps.setLong(1, idProfissional);
+            ps.setArray(2, ps.getConnection().createArrayOf("bigint", idsContatosExistentes.toArray()));
+        });
+    }
+
+    public List<EventoAlteracaoDTO> buscarDesde(long sequencia, int limite) {
+        return jdbcTemplate.query(SELECT_DESDE, MAPPER, sequencia, limite);
+    }
+
+    public long buscarUltimaSequencia() {
+        return jdbcTemplate.queryForObject(SELECT_ULTIMA_SEQUENCIA, Long.class);
+    }
+
+    public int excluirAnterioresA(LocalDateTime limite) {
+        return jdbcTemplate.update(DELETE_ANTERIORES, Timestamp.valueOf(limite));
+    }
+}
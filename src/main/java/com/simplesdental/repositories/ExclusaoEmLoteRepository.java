@@ -0,0 +1,76 @@
+package com.simplesdental.repositories;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.simplesdental.enums.TipoCargo;
+
+/**
+ * Exclusoes por conjunto via JDBC, sem carregar entidades: os contatos saem em um
+ * unico DELETE por lote em vez de um por contato pelo orphanRemoval. Os metodos
+ * precisam de uma transacao ativa, para que o bloqueio dos profissionais valha ate
+ * o DELETE deles.
+ */
+@Repository
+public class ExclusaoEmLoteRepository {
+
+    // ORDER BY id: transacoes concorrentes bloqueiam as linhas na mesma ordem, sem deadlock
+    private static final String BLOQUEIA_PROFISSIONAIS =
+            "SELECT id FROM profissional WHERE id = ANY(?) ORDER BY id FOR UPDATE";
+
+    private static final String BLOQUEIA_PROFISSIONAIS_POR_CARGO =
+            "SELECT id FROM profissional WHERE cargo = ? ORDER BY id LIMIT ? FOR UPDATE";
+
+    private static final String DELETE_CONTATOS =
+            "DELETE FROM contato WHERE id_profissional = ANY(?) RETURNING id";
+
+    private static final String DELETE_PROFISSIONAIS =
+            "DELETE FROM profissional WHERE id = ANY(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ExclusaoEmLoteRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Bloqueia os profissionais existentes entre os ids: um contato criado em paralelo
+     * para algum deles espera o fim da exclusao e falha pela chave estrangeira.
+     */
+    public List<Long> bloquearProfissionais(Collection<Long> ids) {
+        return jdbcTemplate.query(BLOQUEIA_PROFISSIONAIS,
+                ps -> definirIds(ps, ids),
+                (rs, linha) -> rs.getLong(1));
+    }
+
+    public List<Long> bloquearProfissionaisPorCargo(TipoCargo cargo, int limite) {
+        return jdbcTemplate.query(BLOQUEIA_PROFISSIONAIS_POR_CARGO,
+                ps -> {
+                    ps.setString(1, cargo.name());
+                    ps.setInt(2, limite);
+                },
+                (rs, linha) -> rs.getLong(1));
+    }
+
+    /**
+     * Devolve os ids dos contatos excluidos, para invalidar o cache deles.
+     */
+    public List<Long> excluirContatosDosProfissionais(Collection<Long> idsProfissionais) {
+        return jdbcTemplate.query(DELETE_CONTATOS,
+                ps -> definirIds(ps, idsProfissionais),
+                (rs, linha) -> rs.getLong(1));
+    }
+
+    public int excluirProfissionais(Collection<Long> ids) {
+        return jdbcTemplate.update(DELETE_PROFISSIONAIS, ps -> definirIds(ps, ids));
+    }
+
+    private static void definirIds(PreparedStatement ps, Collection<Long> ids) throws SQLException {
+        ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray()));
+    }
+}
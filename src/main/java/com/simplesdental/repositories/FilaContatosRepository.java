@@ -0,0 +1,68 @@
+package com.simplesdental.repositories;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Acesso ao banco do consumidor da fila de contatos. A posicao da fila e gravada na
+ * mesma transacao dos contatos do lote.
+ */
+@Repository
+public class FilaContatosRepository {
+
+    private static final String SELECT_POSICAO =
+            "SELECT ultima_sequencia FROM fila_contato_posicao WHERE fila = ?";
+
+    private static final String UPSERT_POSICAO =
+            "INSERT INTO fila_contato_posicao (fila, ultima_sequencia) VALUES (?, ?) "
+                    + "ON CONFLICT (fila) DO UPDATE SET ultima_sequencia = EXCLUDED.ultima_sequencia";
+
+    // KEY SHARE impede a exclusao dos profissionais ate o commit sem bloquear updates
+    private static final String BLOQUEIA_PROFISSIONAIS =
+            "SELECT id FROM profissional WHERE id = ANY(?) ORDER BY id FOR KEY SHARE";
+
+    private static final String INCREMENTA_VERSOES =
+            "UPDATE profissional SET versao = versao + 1 WHERE id = ANY(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public FilaContatosRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Ultima sequencia aplicada, ou 0 se a fila nunca gravou nada.
+     */
+    public long buscarPosicao(String fila) {
+        return jdbcTemplate.query(SELECT_POSICAO, (rs, linha) -> rs.getLong(1), fila)
+                .stream()
+                .findFirst()
+                .orElse(0L);
+    }
+
+    public void atualizarPosicao(String fila, long sequencia) {
+        jdbcTemplate.update(UPSERT_POSICAO, fila, sequencia);
+    }
+
+    /**
+     * Devolve, bloqueados, apenas os ids que existem.
+     */
+    public List<Long> bloquearProfissionais(Collection<Long> ids) {
+        return jdbcTemplate.query(BLOQUEIA_PROFISSIONAIS,
+                ps -> definirIds(ps, ids),
+                (rs, linha) -> rs.getLong(1));
+    }
+
+    public void incrementarVersoes(Collection<Long> ids) {
+        jdbcTemplate.update(INCREMENTA_VERSOES, ps -> definirIds(ps, ids));
+    }
+
+    private static void definirIds(PreparedStatement ps, Collection<Long> ids) throws SQLException {
+        ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray()));
+    }
+}
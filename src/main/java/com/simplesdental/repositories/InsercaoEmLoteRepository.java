@@ -0,0 +1,94 @@
+package com.simplesdental.repositories;
+
+import static java.util.Objects.nonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.simplesdental.dtos.ContatoDTO;
+import com.simplesdental.dtos.ProfissionalDTO;
+
+/**
+ * Insercoes via JDBC batch, sem passar pelo contexto de persistencia, para cargas
+ * em volume. Os ids sao reservados com a mesma semantica pooled-lo usada pelo
+ * Hibernate, entao nao colidem com os gerados pelas entidades.
+ */
+@Repository
+public class InsercaoEmLoteRepository {
+
+    // Igual ao INCREMENT das sequencias e ao allocationSize das entidades
+    private static final int TAMANHO_BLOCO_ID = 50;
+
+    private static final String INSERT_PROFISSIONAL =
+            "INSERT INTO profissional (id, nome, cargo, nascimento, data_criacao) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String INSERT_CONTATO =
+            "INSERT INTO contato (id, nome, contato, id_profissional) VALUES (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public InsercaoEmLoteRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insere os profissionais e seus contatos, preenchendo os ids gerados nos DTOs.
+     */
+    public void inserirProfissionais(List<ProfissionalDTO> profissionais) {
+        if (profissionais.isEmpty()) {
+            return;
+        }
+        var ids = alocarIds("profissional_seq", profissionais.size());
+        var contatos = new ArrayList<ContatoDTO>();
+        for (int i = 0; i < profissionais.size(); i++) {
+            var profissional = profissionais.get(i);
+            profissional.setId(ids.get(i));
+            if (nonNull(profissional.getContatos())) {
+                profissional.getContatos().forEach(contato -> contato.setIdProfissional(profissional.getId()));
+                contatos.addAll(profissional.getContatos());
+            }
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_PROFISSIONAL, profissionais.stream()
+                .map(profissional -> new Object[]{profissional.getId(), profissional.getNome(),
+                        profissional.getCargo().name(), profissional.getNascimento(), profissional.getDataCriacao()})
+                .collect(Collectors.toList()));
+        inserirContatos(contatos);
+    }
+
+    /**
+     * Insere contatos de profissionais ja existentes, preenchendo os ids gerados nos DTOs.
+     */
+    public void inserirContatos(List<ContatoDTO> contatos) {
+        if (contatos.isEmpty()) {
+            return;
+        }
+        var ids = alocarIds("contato_seq", contatos.size());
+        for (int i = 0; i < contatos.size(); i++) {
+            contatos.get(i).setId(ids.get(i));
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_CONTATO, contatos.stream()
+                .map(contato -> new Object[]{contato.getId(), contato.getNome(),
+                        contato.getContato(), contato.getIdProfissional()})
+                .collect(Collectors.toList()));
+    }
+
+    private List<Long> alocarIds(String sequencia, int quantidade) {
+        var blocos = (quantidade + TAMANHO_BLOCO_ID - 1) / TAMANHO_BLOCO_ID;
+        var inicios = jdbcTemplate.queryForList(
+                "SELECT nextval(CAST(? AS regclass)) FROM generate_series(1, ?)", Long.class, sequencia, blocos);
+
+        var ids = new ArrayList<Long>(quantidade);
+        for (Long inicio : inicios) {
+            for (int i = 0; i < TAMANHO_BLOCO_ID && ids.size() < quantidade; i++) {
+                ids.add(inicio + i);
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,123 @@
+package com.simplesdental.repositories;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import com.simplesdental.dtos.ContatoDTO;
+import com.simplesdental.dtos.ProfissionalDTO;
+import com.simplesdental.enums.TipoCargo;
+
+/**
+ * Varredura completa da tabela profissional com seus contatos usando um cursor no
+ * servidor: o driver do Postgres so usa fetch size dentro de uma transacao, entao
+ * os metodos daqui precisam ser chamados com uma transacao ativa.
+ */
+@Repository
+public class LeituraProfissionaisRepository {
+
+    private static final String SELECT_PROFISSIONAIS_COM_CONTATOS =
+            "SELECT p.id, p.nome, p.cargo, p.nascimento, p.data_criacao, p.versao, "
+                    + "c.id AS id_contato, c.nome AS nome_contato, c.contato "
+                    + "FROM profissional p LEFT JOIN contato c ON c.id_profissional = p.id ";
+
+    private static final String ORDENACAO = "ORDER BY p.id, c.id";
+
+    private static final String SELECT_VERSOES = "SELECT id, versao FROM profissional";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LeituraProfissionaisRepository(DataSource dataSource,
+                                          @Value("${simplesdental.exportacao.fetch-size}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * Entrega cada profissional, ja com seus contatos, assim que a ultima linha dele
+     * e lida. So um profissional fica em memoria por vez.
+     */
+    public void percorrerProfissionais(Consumer<ProfissionalDTO> consumidor) {
+        var agrupador = new AgrupadorProfissionais(consumidor);
+        jdbcTemplate.query(SELECT_PROFISSIONAIS_COM_CONTATOS + ORDENACAO, agrupador);
+        agrupador.finalizar();
+    }
+
+    /**
+     * Mesmo formato de percorrerProfissionais, restrito aos ids informados. Ids sem
+     * profissional no banco simplesmente nao sao entregues.
+     */
+    public void percorrerProfissionaisPorIds(Collection<Long> ids, Consumer<ProfissionalDTO> consumidor) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        var agrupador = new AgrupadorProfissionais(consumidor);
+        jdbcTemplate.query(SELECT_PROFISSIONAIS_COM_CONTATOS + "WHERE p.id = ANY(?) " + ORDENACAO,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray())),
+                agrupador);
+        agrupador.finalizar();
+    }
+
+    /**
+     * Percorre apenas id e versao de todos os profissionais, para reconciliacoes.
+     */
+    public void percorrerVersoes(BiConsumer<Long, Long> consumidor) {
+        jdbcTemplate.query(SELECT_VERSOES, (RowCallbackHandler) rs ->
+                consumidor.accept(rs.getLong("id"), rs.getLong("versao")));
+    }
+
+    private static final class AgrupadorProfissionais implements RowCallbackHandler {
+
+        private final Consumer<ProfissionalDTO> consumidor;
+
+        private ProfissionalDTO atual;
+
+        private AgrupadorProfissionais(Consumer<ProfissionalDTO> consumidor) {
+            this.consumidor = consumidor;
+        }
+
+        @Override
+        public void processRow(ResultSet rs) throws SQLException {
+            var id = rs.getLong("id");
+            if (isNull(atual) || !atual.getId().equals(id)) {
+                finalizar();
+                atual = new ProfissionalDTO();
+                atual.setId(id);
+                atual.setNome(rs.getString("nome"));
+                atual.setCargo(TipoCargo.valueOf(rs.getString("cargo")));
+                atual.setNascimento(rs.getObject("nascimento", LocalDate.class));
+                atual.setDataCriacao(rs.getObject("data_criacao", LocalDateTime.class));
+                atual.setVersao(rs.getLong("versao"));
+                atual.setContatos(new ArrayList<>());
+            }
+
+            var idContato = rs.getObject("id_contato", Long.class);
+            if (nonNull(idContato)) {
+                atual.getContatos().add(new ContatoDTO(idContato, rs.getString("nome_contato"),
+                        rs.getString("contato"), id));
+            }
+        }
+
+        private void finalizar() {
+            if (nonNull(atual)) {
+                consumidor.accept(atual);
+                atual = null;
+            }
+        }
+    }
+}
@@ -1,21 +1,103 @@
 package com.simplesdental.repositories;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import javax.persistence.QueryHint;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import com.simplesdental.dtos.ProfissionalDTO;
 import com.simplesdental.entities.Profissional;
 import com.simplesdental.enums.TipoCargo;
 
 public interface ProfissionalRepository extends JpaRepository<Profissional, Long> {
 
+    // As listagens projetam direto em DTO: nada entra no contexto de persistencia.
+    // UPPER(nome) precisa bater com a expressao do indice idx_profissional_nome_trgm
+    @Query("SELECT new com.simplesdental.dtos.ProfissionalDTO(p.id, p.nome, p.cargo, p.nascimento, p.dataCriacao, p.versao) "
+            + "FROM Profissional p WHERE UPPER(p.nome) like UPPER(concat('%' ,:nome, '%')) "
+            + "AND p.id > :idApos ORDER BY p.id")
+    List<ProfissionalDTO> buscarProfissionalContendoNome(@Param("nome") String nome,
+                                                         @Param("idApos") Long idApos,
+                                                         Pageable pageable);
+
+    @Query(value = "SELECT * FROM profissional p WHERE UPPER(p.nome) like UPPER(concat('%' ,:nome, '%')) "
+            + "ORDER BY similarity(UPPER(p.nome), UPPER(:nome)) DESC, p.id LIMIT :limite", nativeQuery = true)
+    List<Profissional> buscarProfissionalContendoNomePorRelevancia(@Param("nome") String nome,
+                                                                   @Param("limite") int limite);
+
+    @Query("SELECT new com.simplesdental.dtos.ProfissionalDTO(p.id, p.nome, p.cargo, p.nascimento, p.dataCriacao, p.versao) "
+            + "FROM Profissional p WHERE p.cargo = :cargo AND p.id > :idApos ORDER BY p.id")
+    List<ProfissionalDTO> buscarProfissionalPorCargo(@Param("cargo") TipoCargo cargo,
+                                                     @Param("idApos") Long idApos,
+                                                     Pageable pageable);
+
+    // DISTINCT so deduplica as linhas do fetch join em memoria, sem ir para o SQL
+    @Query("SELECT DISTINCT p FROM Profissional p LEFT JOIN FETCH p.contatos WHERE p.id IN :ids")
+    @QueryHints(@QueryHint(name = "hibernate.query.passDistinctThrough", value = "false"))
+    List<Profissional> buscarComContatosPorIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT DISTINCT p FROM Profissional p LEFT JOIN FETCH p.contatos WHERE p.id = :id")
+    @QueryHints(@QueryHint(name = "hibernate.query.passDistinctThrough", value = "false"))
+    Optional<Profissional> buscarComContatosPorId(@Param("id") Long id);
+
+    @Query("SELECT p.versao FROM Profissional p WHERE p.id = :id")
+    Optional<Long> buscarVersao(@Param("id") Long id);
+
+    // Contatos ficam em outra tabela: alterar um contato precisa incrementar a versao
+    // do profissional para que o ETag dele mude
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Profissional p SET p.versao = p.versao + 1 WHERE p.id = :id")
+    int incrementarVersao(@Param("id") Long id);
+
+    // So incrementa se a versao ainda for a lida na transacao: 0 linhas indica que
+    // outra transacao alterou o profissional depois da leitura
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Profissional p SET p.versao = p.versao + 1 WHERE p.id = :id AND p.versao = :versao")
+    int incrementarVersaoSeIgual(@Param("id") Long id, @Param("versao") Long versao);
+
+    // Busca textual em profissional.busca (nome, cargo e contatos, mantido por trigger).
+    // Keyset por (relevancia DESC, id): a pagina seguinte comeca depois do ultimo par devolvido.
+    @Query(value = "SELECT p.id, ts_rank(p.busca, q.consulta) AS relevancia "
+            + "FROM profissional p, to_tsquery('simple', :consulta) AS q(consulta) "
+            + "WHERE p.busca @@ q.consulta "
+            + "AND (ts_rank(p.busca, q.consulta) < :relevanciaApos "
+            + "OR (ts_rank(p.busca, q.consulta) = :relevanciaApos AND p.id > :idApos)) "
+            + "ORDER BY relevancia DESC, p.id LIMIT :limite", nativeQuery = true)
+    List<Object[]> buscarPorTexto(@Param("consulta") String consulta,
+                                  @Param("relevanciaApos") float relevanciaApos,
+                                  @Param("idApos") Long idApos,
+                                  @Param("limite") int limite);
+
+    @Query("SELECT new com.simplesdental.dtos.ProfissionalDTO(p.id, p.nome, p.cargo, p.nascimento, p.dataCriacao, p.versao) "
+            + "FROM Profissional p WHERE p.id IN :ids")
+    List<ProfissionalDTO> buscarProjecoesPorIds(@Param("ids") Collection<Long> ids);
+
+    // Agregacoes: devolvem [chave, total] sem carregar entidades
+
+    @Query("SELECT p.cargo, COUNT(p) FROM Profissional p GROUP BY p.cargo")
+    List<Object[]> contarPorCargo();
+
+    @Query("SELECT p.id, COUNT(c) FROM Profissional p LEFT JOIN p.contatos c "
+            + "WHERE p.id > :idApos GROUP BY p.id ORDER BY p.id")
+    List<Object[]> contarContatosPorProfissional(@Param("idApos") Long idApos,
+                                                 Pageable pageable);
 
-    @Query("SELECT p FROM Profissional p WHERE UPPER(p.nome) like UPPER(concat('%' ,:nome, '%'))")
-    List<Profissional> buscarProfissionalContendoNome(@Param("nome") String nome);
+    @Query(value = "SELECT CAST(date_part('year', age(CURRENT_DATE, p.nascimento)) AS integer) / :amplitude * :amplitude AS faixa, "
+            + "COUNT(*) FROM profissional p GROUP BY faixa ORDER BY faixa", nativeQuery = true)
+    List<Object[]> contarPorFaixaEtaria(@Param("amplitude") int amplitude);
 
-    @Query("SELECT p FROM Profissional p WHERE p.cargo = :cargo")
-    List<Profissional> buscarProfissionalPorCargo(@Param("cargo") TipoCargo cargo);
+    @Query(value = "SELECT CAST(p.data_criacao AS date) AS dia, COUNT(*) FROM profissional p "
+            + "WHERE p.data_criacao >= :inicio AND p.data_criacao < :fim GROUP BY dia ORDER BY dia", nativeQuery = true)
+    List<Object[]> contarCriacoesPorDia(@Param("inicio") LocalDateTime inicio,
+                                        @Param("fim") LocalDateTime fim);
 
 }
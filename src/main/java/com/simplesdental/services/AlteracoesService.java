@@ -0,0 +1,153 @@
+package com.simplesdental.services;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.simplesdental.config.ExecutorConsultas;
+import com.simplesdental.dtos.EventoAlteracaoDTO;
+import com.simplesdental.dtos.FeedAlteracoesDTO;
+import com.simplesdental.exceptions.InvalidAttributeException;
+import com.simplesdental.exceptions.ServicoIndisponivelException;
+import com.simplesdental.repositories.EventoAlteracaoRepository;
+
+/**
+ * Feed das alteracoes gravadas no outbox (evento_alteracao), em ordem de sequencia.
+ *
+ * Com espera > 0 e nada novo apos "desde", a requisicao fica pendente ate surgir um
+ * evento ou a espera acabar (long-poll), sem ocupar thread do Tomcat nem conexao. Um
+ * commit nesta instancia acorda os pendentes na hora; a verificacao periodica cobre
+ * o que foi gravado por outras instancias ou pela fila de contatos.
+ */
+@Service
+public class AlteracoesService {
+
+    static final int LIMITE_PADRAO = 100;
+
+    static final int LIMITE_MAXIMO = 1000;
+
+    // abaixo do spring.mvc.async.request-timeout, para a resposta vazia sair antes do 503
+    static final int ESPERA_MAXIMA_SEGUNDOS = 25;
+
+    private final EventoAlteracaoRepository eventoAlteracaoRepository;
+    private final ExecutorConsultas executorConsultas;
+    private final int retencaoDias;
+
+    private final Set<Aguardo> aguardando = ConcurrentHashMap.newKeySet();
+
+    public AlteracoesService(EventoAlteracaoRepository eventoAlteracaoRepository,
+                             ExecutorConsultas executorConsultas,
+                             @Value("${simplesdental.alteracoes.retencao-dias}") int retencaoDias) {
+        this.eventoAlteracaoRepository = eventoAlteracaoRepository;
+        this.executorConsultas = executorConsultas;
+        this.retencaoDias = retencaoDias;
+    }
+
+    public DeferredResult<FeedAlteracoesDTO> buscar(Long desde, Integer limite, Integer espera) {
+        var sequencia = isNull(desde) ? 0L : desde;
+        var tamanho = isNull(limite) ? LIMITE_PADRAO : limite;
+        var segundos = isNull(espera) ? 0 : espera;
+        if (sequencia < 0) {
+            throw new InvalidAttributeException("Sequência inicial não pode ser negativa");
+        }
+        if (tamanho < 1 || tamanho > LIMITE_MAXIMO) {
+            throw new InvalidAttributeException(String.format("Limite deve estar entre 1 e %d", LIMITE_MAXIMO));
+        }
+        if (segundos < 0 || segundos > ESPERA_MAXIMA_SEGUNDOS) {
+            throw new InvalidAttributeException(
+                    String.format("Espera deve estar entre 0 e %d segundos", ESPERA_MAXIMA_SEGUNDOS));
+        }
+
+        var resultado = segundos > 0
+                ? new DeferredResult<FeedAlteracoesDTO>(TimeUnit.SECONDS.toMillis(segundos),
+                        new FeedAlteracoesDTO(List.of(), sequencia))
+                : new DeferredResult<FeedAlteracoesDTO>();
+        executorConsultas.executar(() -> eventoAlteracaoRepository.buscarDesde(sequencia, tamanho))
+                .whenComplete((eventos, erro) -> {
+                    if (nonNull(erro)) {
+                        resultado.setErrorResult(erro instanceof CompletionException ? erro.getCause() : erro);
+                    } else if (!eventos.isEmpty() || segundos == 0) {
+                        resultado.setResult(montarFeed(eventos, sequencia));
+                    } else {
+                        // um commit entre a consulta e o add so e visto na proxima verificacao
+                        var aguardo = new Aguardo(sequencia, tamanho, resultado);
+                        aguardando.add(aguardo);
+                        resultado.onCompletion(() -> aguardando.remove(aguardo));
+                    }
+                });
+        return resultado;
+    }
+
+    /**
+     * Chamado depois do commit de uma transacao que gravou eventos.
+     */
+    public void notificar() {
+        if (aguardando.isEmpty()) {
+            return;
+        }
+        try {
+            executorConsultas.executar(() -> {
+                atenderAguardando();
+                return null;
+            });
+        } catch (ServicoIndisponivelException e) {
+            // fila de consultas cheia: a verificacao periodica atende os pendentes
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${simplesdental.alteracoes.intervalo-verificacao}")
+    public void verificar() {
+        atenderAguardando();
+    }
+
+    @Scheduled(fixedDelayString = "${simplesdental.alteracoes.intervalo-limpeza}",
+            initialDelayString = "${simplesdental.alteracoes.intervalo-limpeza}")
+    public void limpar() {
+        if (retencaoDias > 0) {
+            eventoAlteracaoRepository.excluirAnterioresA(LocalDateTime.now().minusDays(retencaoDias));
+        }
+    }
+
+    private void atenderAguardando() {
+        if (aguardando.isEmpty()) {
+            return;
+        }
+        var ultimaSequencia = eventoAlteracaoRepository.buscarUltimaSequencia();
+        for (Aguardo aguardo : aguardando) {
+            if (aguardo.resultado.isSetOrExpired()) {
+                aguardando.remove(aguardo);
+            } else if (aguardo.desde < ultimaSequencia && aguardando.remove(aguardo)) {
+                var eventos = eventoAlteracaoRepository.buscarDesde(aguardo.desde, aguardo.limite);
+                aguardo.resultado.setResult(montarFeed(eventos, aguardo.desde));
+            }
+        }
+    }
+
+    private static FeedAlteracoesDTO montarFeed(List<EventoAlteracaoDTO> eventos, long desde) {
+        var proximaSequencia = eventos.isEmpty() ? desde : eventos.get(eventos.size() - 1).getSequencia();
+        return new FeedAlteracoesDTO(eventos, proximaSequencia);
+    }
+
+    private static final class Aguardo {
+        private final long desde;
+        private final int limite;
+        private final DeferredResult<FeedAlteracoesDTO> resultado;
+
+        private Aguardo(long desde, int limite, DeferredResult<FeedAlteracoesDTO> resultado) {
+            this.desde = desde;
+            this.limite = limite;
+            this.resultado = resultado;
+        }
+    }
+}
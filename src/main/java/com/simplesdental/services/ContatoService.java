@@ -3,15 +3,21 @@ package com.simplesdental.services;
 import static java.util.Objects.isNull;
 import static java.util.Objects.nonNull;
 
-import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.simplesdental.config.CacheConfig;
 import com.simplesdental.dtos.ContatoDTO;
+import com.simplesdental.dtos.PaginaDTO;
 import com.simplesdental.entities.Contato;
 import com.simplesdental.entities.Profissional;
+import com.simplesdental.enums.TipoOperacao;
+import com.simplesdental.events.ContatoAlteradoEvent;
+import com.simplesdental.events.ProfissionalAlteradoEvent;
 import com.simplesdental.exceptions.EntityNotFoundException;
 import com.simplesdental.exceptions.InvalidAttributeException;
 import com.simplesdental.repositories.ContatoRepository;
@@ -22,14 +28,19 @@ public class ContatoService {
 
     private final ContatoRepository contatoRepository;
     private final ProfissionalRepository profissionalRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public ContatoService(ContatoRepository contatoRepository,
-                          ProfissionalRepository profissionalRepository) {
+                          ProfissionalRepository profissionalRepository,
+                          ApplicationEventPublisher eventPublisher) {
         this.contatoRepository = contatoRepository;
         this.profissionalRepository = profissionalRepository;
+        this.eventPublisher = eventPublisher;
     }
 
 
+    @Cacheable(cacheNames = CacheConfig.CONTATOS, key = "#idContato")
+    @Transactional(readOnly = true)
     public ContatoDTO buscarContatoPorId(Long idContato) {
         var contato = contatoRepository.findById(idContato)
                 .orElseThrow(() -> new EntityNotFoundException(String.format("Contato de id: %d não encontrado", idContato)));
@@ -38,32 +49,61 @@ public class ContatoService {
 
     @Transactional
     public String excluirContato(Long idContato) {
-        buscarContatoPorId(idContato);
+        var contato = buscarContatoPorId(idContato);
         contatoRepository.deleteById(idContato);
+        profissionalRepository.incrementarVersao(contato.getIdProfissional());
+        eventPublisher.publishEvent(new ContatoAlteradoEvent(idContato, contato.getIdProfissional(), TipoOperacao.EXCLUSAO));
         return String.format("Contato de id: %d excluido com sucesso", idContato);
     }
 
     @Transactional
     public String criarContato(ContatoDTO contatoDTO) {
         validarAtributosContato(contatoDTO, true);
-        converterESalvar(contatoDTO);
+        var contato = converterESalvar(contatoDTO);
+        profissionalRepository.incrementarVersao(contatoDTO.getIdProfissional());
+        eventPublisher.publishEvent(new ContatoAlteradoEvent(contato.getId(), contatoDTO.getIdProfissional(),
+                TipoOperacao.CRIACAO));
         return "Contato criado com sucesso";
     }
 
+    /**
+     * Altera a entidade gerenciada em vez de salvar uma nova instancia, para que o
+     * @Version compare com a versao lida aqui. A versao dos profissionais envolvidos
+     * e incrementada para invalidar os ETags deles.
+     */
     @Transactional
     public String atualizarContato(ContatoDTO contatoDTO) {
         validarAtributosContato(contatoDTO, false);
-        buscarContatoPorId(contatoDTO.getId());
-        converterESalvar(contatoDTO);
+        var contato = contatoRepository.findById(contatoDTO.getId())
+                .orElseThrow(() -> new EntityNotFoundException(String.format("Contato de id: %d não encontrado", contatoDTO.getId())));
+        var idProfissionalAntigo = contato.getProfissional().getId();
+        var transferido = !idProfissionalAntigo.equals(contatoDTO.getIdProfissional());
+
+        contato.setNome(contatoDTO.getNome());
+        contato.setContato(contatoDTO.getContato());
+        if (transferido) {
+            contato.setProfissional(recuperaProfissional(contatoDTO.getIdProfissional()));
+        }
+        contatoRepository.save(contato);
+
+        profissionalRepository.incrementarVersao(contatoDTO.getIdProfissional());
+        eventPublisher.publishEvent(new ContatoAlteradoEvent(contatoDTO.getId(), contatoDTO.getIdProfissional(),
+                TipoOperacao.ALTERACAO));
+        if (transferido) {
+            profissionalRepository.incrementarVersao(idProfissionalAntigo);
+            eventPublisher.publishEvent(new ProfissionalAlteradoEvent(idProfissionalAntigo, TipoOperacao.ALTERACAO));
+        }
         return "Contato atualizado com sucesso";
     }
 
-    private void converterESalvar(ContatoDTO contatoDTO) {
+    // o persist atribui o id na propria instancia
+    private Contato converterESalvar(ContatoDTO contatoDTO) {
         var contatoEntidade = buildarEntidadePeloDTO(contatoDTO);
         contatoRepository.save(contatoEntidade);
+        return contatoEntidade;
     }
 
-    private void validarAtributosContato(ContatoDTO contatoDTO, boolean novoContato) {
+    static void validarAtributosContato(ContatoDTO contatoDTO, boolean novoContato) {
         if (nonNull(contatoDTO.getId()) && novoContato) {
             throw new InvalidAttributeException("Contato não pode ser criado por já possui id");
         }
@@ -100,19 +140,22 @@ public class ContatoService {
 
     }
 
-    public List<ContatoDTO> buscarContidosNoNomeOuContato(String nome, String contato) {
+    @Transactional(readOnly = true)
+    public PaginaDTO<ContatoDTO> buscarContidosNoNomeOuContato(String nome, String contato,
+                                                              String cursor, Integer tamanho) {
+        var tamanhoPagina = Paginacao.tamanhoDaPagina(tamanho);
+        var idApos = Paginacao.decodificarCursor(cursor);
+
         if (nonNull(nome)) {
-            return contatoRepository.buscarContatosContendoNome(nome)
-                    .stream()
-                    .map(ContatoDTO::new)
-                    .collect(Collectors.toList());
+            var contatos = contatoRepository.buscarContatosContendoNome(nome, idApos,
+                    Paginacao.limiteDaConsulta(tamanhoPagina));
+            return Paginacao.montarPagina(contatos, tamanhoPagina, ContatoDTO::getId, Function.identity());
         }
 
         if (nonNull(contato)) {
-            return contatoRepository.buscarContatosContendoContato(contato)
-                    .stream()
-                    .map(ContatoDTO::new)
-                    .collect(Collectors.toList());
+            var contatos = contatoRepository.buscarContatosContendoContato(contato, idApos,
+                    Paginacao.limiteDaConsulta(tamanhoPagina));
+            return Paginacao.montarPagina(contatos, tamanhoPagina, ContatoDTO::getId, Function.identity());
         }
 
         throw new InvalidAttributeException("Nome e Contato não informados");
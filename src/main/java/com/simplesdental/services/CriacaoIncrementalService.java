@@ -0,0 +1,239 @@
+package com.simplesdental.services;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.simplesdental.dtos.ContatoDTO;
+import com.simplesdental.dtos.ProfissionalDTO;
+import com.simplesdental.enums.TipoOperacao;
+import com.simplesdental.events.ContatoAlteradoEvent;
+import com.simplesdental.exceptions.InvalidAttributeException;
+import com.simplesdental.exceptions.PayloadMuitoGrandeException;
+import com.simplesdental.repositories.EventoAlteracaoRepository;
+import com.simplesdental.repositories.InsercaoEmLoteRepository;
+
+/**
+ * Criacao de profissional a partir do corpo JSON lido token a token. Os contatos sao
+ * validados enquanto o corpo chega e guardados num arquivo temporario, depois
+ * inseridos via JDBC batch a cada tamanho-lote, entao a memoria usada nao depende da
+ * quantidade de contatos.
+ *
+ * Quando nome, nascimento e cargo vem antes de "contatos", que e a ordem em que o
+ * ProfissionalDTO e serializado, o profissional e validado antes de qualquer contato
+ * ser lido. Em outra ordem ele e validado quando o corpo termina. A transacao so abre
+ * com o corpo inteiro lido: um cliente lento nao segura conexao do pool, e um contato
+ * ou profissional invalido recusa a requisicao antes de qualquer escrita no banco.
+ */
+@Service
+public class CriacaoIncrementalService {
+
+    static final String CAMPO_CONTATOS = "contatos";
+
+    private static final List<String> CAMPOS_OBRIGATORIOS = List.of("nome", "nascimento", "cargo");
+
+    private static final String PREFIXO_ARQUIVO_CONTATOS = "criacao-profissional-";
+
+    private final InsercaoEmLoteRepository insercaoEmLoteRepository;
+    private final EventoAlteracaoRepository eventoAlteracaoRepository;
+    private final ProfissionalService profissionalService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final int tamanhoLote;
+
+    public CriacaoIncrementalService(InsercaoEmLoteRepository insercaoEmLoteRepository,
+                                     EventoAlteracaoRepository eventoAlteracaoRepository,
+                                     ProfissionalService profissionalService,
+                                     TransactionTemplate transactionTemplate,
+                                     ApplicationEventPublisher eventPublisher,
+                                     ObjectMapper objectMapper,
+                                     @Value("${simplesdental.criacao-profissional.tamanho-lote}") int tamanhoLote) {
+        this.insercaoEmLoteRepository = insercaoEmLoteRepository;
+        this.eventoAlteracaoRepository = eventoAlteracaoRepository;
+        this.profissionalService = profissionalService;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    public String criarProfissional(InputStream entrada) throws IOException {
+        Path contatosPreparados = null;
+        try (var parser = objectMapper.createParser(entrada)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new InvalidAttributeException("Corpo deve ser um objeto JSON");
+            }
+            var campos = objectMapper.createObjectNode();
+            ProfissionalDTO profissional = null;
+            var existentes = List.<ContatoDTO>of();
+            var camposAposContatos = false;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                var campo = parser.getCurrentName();
+                var token = parser.nextToken();
+                if (!CAMPO_CONTATOS.equals(campo) || token == JsonToken.VALUE_NULL) {
+                    camposAposContatos |= nonNull(contatosPreparados);
+                    campos.set(campo, parser.readValueAsTree());
+                    continue;
+                }
+                if (token != JsonToken.START_ARRAY) {
+                    throw new InvalidAttributeException("Contatos deve ser uma lista");
+                }
+                if (nonNull(contatosPreparados)) {
+                    throw new InvalidAttributeException("Campo contatos repetido");
+                }
+                if (possuiCamposObrigatorios(campos)) {
+                    profissional = lerProfissional(campos, true);
+                }
+                contatosPreparados = Files.createTempFile(PREFIXO_ARQUIVO_CONTATOS, ".json");
+                existentes = prepararContatos(parser, contatosPreparados);
+            }
+            // sem validacao antecipada, ou com campos que chegaram depois dos contatos
+            if (isNull(profissional) || camposAposContatos) {
+                profissional = lerProfissional(campos, false);
+            }
+            gravar(profissional, existentes, contatosPreparados);
+            return "Profissional criado com sucesso";
+        } catch (JsonProcessingException e) {
+            // o limite de tamanho estourado dentro de um contato chega embrulhado pelo
+            // Jackson e nao e JSON invalido
+            var excesso = excessoDeTamanho(e);
+            if (nonNull(excesso)) {
+                throw excesso;
+            }
+            throw new InvalidAttributeException(String.format("JSON inválido: %s", e.getOriginalMessage()));
+        } finally {
+            if (nonNull(contatosPreparados)) {
+                Files.deleteIfExists(contatosPreparados);
+            }
+        }
+    }
+
+    private static PayloadMuitoGrandeException excessoDeTamanho(Throwable erro) {
+        for (var causa = erro; nonNull(causa); causa = causa.getCause()) {
+            if (causa instanceof PayloadMuitoGrandeException) {
+                return (PayloadMuitoGrandeException) causa;
+            }
+        }
+        return null;
+    }
+
+    private static boolean possuiCamposObrigatorios(ObjectNode campos) {
+        return CAMPOS_OBRIGATORIOS.stream().allMatch(campos::has);
+    }
+
+    private ProfissionalDTO lerProfissional(ObjectNode campos, boolean antesDosContatos) throws JsonProcessingException {
+        var profissional = objectMapper.treeToValue(campos, ProfissionalDTO.class);
+        try {
+            ProfissionalService.validarAtributosProfissional(profissional, true);
+        } catch (InvalidAttributeException e) {
+            throw antesDosContatos
+                    ? new InvalidAttributeException(e.getMessage() + " antes de contatos")
+                    : e;
+        }
+        profissional.setContatos(new ArrayList<>());
+        profissional.setDataCriacao(LocalDateTime.now());
+        return profissional;
+    }
+
+    /**
+     * Com arquivo nulo o profissional nao tem contatos novos.
+     */
+    private void gravar(ProfissionalDTO profissional, List<ContatoDTO> existentes, Path contatosPreparados)
+            throws IOException {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                insercaoEmLoteRepository.inserirProfissionais(List.of(profissional));
+                if (nonNull(contatosPreparados)) {
+                    inserirContatos(contatosPreparados, profissional.getId());
+                }
+                if (!existentes.isEmpty()) {
+                    profissionalService.vincularContatosExistentes(profissional.getId(), existentes);
+                }
+                eventoAlteracaoRepository.registrarCriacaoProfissional(profissional.getId(), existentes.stream()
+                        .map(ContatoDTO::getId)
+                        .collect(Collectors.toList()));
+                // um unico evento sem id de contato: cache e replica recarregam o
+                // profissional e o outbox ja foi gravado acima
+                eventPublisher.publishEvent(new ContatoAlteradoEvent(null, profissional.getId(), TipoOperacao.CRIACAO));
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Le e valida os contatos a partir do inicio do array, gravando os novos no
+     * arquivo. Devolve os que vieram com id, para serem vinculados ao profissional como
+     * na criacao pelo ProfissionalService.
+     */
+    private List<ContatoDTO> prepararContatos(JsonParser parser, Path arquivo) throws IOException {
+        var existentes = new ArrayList<ContatoDTO>();
+        try (var saida = objectMapper.writerFor(ContatoDTO.class).writeValues(arquivo.toFile())) {
+            int indice = 0;
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                var contato = lerContato(parser, indice++);
+                if (nonNull(contato.getId())) {
+                    existentes.add(contato);
+                    continue;
+                }
+                saida.write(contato);
+            }
+        }
+        return existentes;
+    }
+
+    private void inserirContatos(Path arquivo, Long idProfissional) {
+        var lote = new ArrayList<ContatoDTO>(tamanhoLote);
+        try (MappingIterator<ContatoDTO> contatos = objectMapper.readerFor(ContatoDTO.class)
+                .readValues(arquivo.toFile())) {
+            while (contatos.hasNextValue()) {
+                var contato = contatos.nextValue();
+                contato.setIdProfissional(idProfissional);
+                lote.add(contato);
+                if (lote.size() == tamanhoLote) {
+                    insercaoEmLoteRepository.inserirContatos(lote);
+                    lote.clear();
+                }
+            }
+            insercaoEmLoteRepository.inserirContatos(lote);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private ContatoDTO lerContato(JsonParser parser, int indice) throws IOException {
+        var contato = parser.currentToken() == JsonToken.VALUE_NULL
+                ? null
+                : objectMapper.readValue(parser, ContatoDTO.class);
+        if (isNull(contato)) {
+            throw new InvalidAttributeException(String.format("Contato %d é nulo", indice));
+        }
+        try {
+            ContatoService.validarAtributosContato(contato, isNull(contato.getId()));
+        } catch (InvalidAttributeException e) {
+            throw new InvalidAttributeException(String.format("Contato %d: %s", indice, e.getMessage()));
+        }
+        return contato;
+    }
+}
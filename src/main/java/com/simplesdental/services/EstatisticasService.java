@@ -0,0 +1,102 @@
+package com.simplesdental.services;
+
+import static java.util.Objects.isNull;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.simplesdental.dtos.ContagemDTO;
+import com.simplesdental.dtos.PaginaDTO;
+import com.simplesdental.enums.TipoCargo;
+import com.simplesdental.exceptions.InvalidAttributeException;
+import com.simplesdental.repositories.ProfissionalRepository;
+
+/**
+ * Contagens para dashboards, calculadas com GROUP BY no banco. Nenhuma entidade e
+ * carregada: cada consulta devolve apenas pares de chave e total.
+ */
+@Service
+public class EstatisticasService {
+
+    static final int AMPLITUDE_FAIXA_PADRAO = 10;
+    static final int DIAS_PADRAO = 30;
+    static final int DIAS_MAXIMO = 366;
+
+    private final ProfissionalRepository profissionalRepository;
+
+    public EstatisticasService(ProfissionalRepository profissionalRepository) {
+        this.profissionalRepository = profissionalRepository;
+    }
+
+    @Transactional(readOnly = true)
+    public List<ContagemDTO> contarPorCargo() {
+        var totais = new EnumMap<TipoCargo, Long>(TipoCargo.class);
+        for (Object[] linha : profissionalRepository.contarPorCargo()) {
+            totais.put((TipoCargo) linha[0], ((Number) linha[1]).longValue());
+        }
+        var contagens = new ArrayList<ContagemDTO>();
+        for (TipoCargo cargo : TipoCargo.values()) {
+            contagens.add(new ContagemDTO(cargo.name(), totais.getOrDefault(cargo, 0L)));
+        }
+        return contagens;
+    }
+
+    @Transactional(readOnly = true)
+    public PaginaDTO<ContagemDTO> contarContatosPorProfissional(String cursor, Integer tamanho) {
+        var tamanhoPagina = Paginacao.tamanhoDaPagina(tamanho);
+        var linhas = profissionalRepository.contarContatosPorProfissional(Paginacao.decodificarCursor(cursor),
+                Paginacao.limiteDaConsulta(tamanhoPagina));
+        return Paginacao.montarPagina(linhas, tamanhoPagina,
+                linha -> ((Number) linha[0]).longValue(),
+                linha -> new ContagemDTO(String.valueOf(linha[0]), ((Number) linha[1]).longValue()));
+    }
+
+    @Transactional(readOnly = true)
+    public List<ContagemDTO> contarPorFaixaEtaria(Integer amplitude) {
+        var amplitudeFaixa = isNull(amplitude) ? AMPLITUDE_FAIXA_PADRAO : amplitude;
+        if (amplitudeFaixa < 1 || amplitudeFaixa > 100) {
+            throw new InvalidAttributeException("Amplitude da faixa etária deve estar entre 1 e 100");
+        }
+        return profissionalRepository.contarPorFaixaEtaria(amplitudeFaixa).stream()
+                .map(linha -> {
+                    var inicioFaixa = ((Number) linha[0]).intValue();
+                    var chave = String.format("%d-%d", inicioFaixa, inicioFaixa + amplitudeFaixa - 1);
+                    return new ContagemDTO(chave, ((Number) linha[1]).longValue());
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Dias sem cadastros aparecem com total zero, para que o periodo venha completo.
+     */
+    @Transactional(readOnly = true)
+    public List<ContagemDTO> contarCriacoesPorDia(LocalDate inicio, LocalDate fim) {
+        var ultimoDia = isNull(fim) ? LocalDate.now() : fim;
+        var primeiroDia = isNull(inicio) ? ultimoDia.minusDays(DIAS_PADRAO - 1L) : inicio;
+        if (primeiroDia.isAfter(ultimoDia)) {
+            throw new InvalidAttributeException("Data de início deve ser anterior ou igual à data de fim");
+        }
+        if (ChronoUnit.DAYS.between(primeiroDia, ultimoDia) >= DIAS_MAXIMO) {
+            throw new InvalidAttributeException(String.format("Período máximo de %d dias", DIAS_MAXIMO));
+        }
+
+        Map<LocalDate, Long> totais = new HashMap<>();
+        for (Object[] linha : profissionalRepository.contarCriacoesPorDia(primeiroDia.atStartOfDay(),
+                ultimoDia.plusDays(1).atStartOfDay())) {
+            totais.put(((Date) linha[0]).toLocalDate(), ((Number) linha[1]).longValue());
+        }
+        return primeiroDia.datesUntil(ultimoDia.plusDays(1))
+                .map(dia -> new ContagemDTO(dia.toString(), totais.getOrDefault(dia, 0L)))
+                .collect(Collectors.toList());
+    }
+}
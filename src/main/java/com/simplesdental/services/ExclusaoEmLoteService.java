@@ -0,0 +1,118 @@
+package com.simplesdental.services;
+
+import static java.util.Objects.nonNull;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.simplesdental.dtos.ExclusaoEmLoteDTO;
+import com.simplesdental.dtos.RelatorioExclusaoDTO;
+import com.simplesdental.enums.TipoCargo;
+import com.simplesdental.events.ProfissionaisExcluidosEvent;
+import com.simplesdental.exceptions.InvalidAttributeException;
+import com.simplesdental.repositories.ExclusaoEmLoteRepository;
+
+/**
+ * Exclusao em massa de profissionais por ids ou por cargo. Cada lote roda na sua
+ * propria transacao: bloqueia os profissionais, exclui os contatos deles com um unico
+ * DELETE e depois os proprios profissionais, sem carregar entidades. Se um lote falhar
+ * os anteriores continuam excluidos; repetir a requisicao exclui o que sobrou.
+ */
+@Service
+public class ExclusaoEmLoteService {
+
+    private final ExclusaoEmLoteRepository exclusaoEmLoteRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int tamanhoLote;
+
+    public ExclusaoEmLoteService(ExclusaoEmLoteRepository exclusaoEmLoteRepository,
+                                 TransactionTemplate transactionTemplate,
+                                 ApplicationEventPublisher eventPublisher,
+                                 @Value("${simplesdental.exclusao.tamanho-lote}") int tamanhoLote) {
+        this.exclusaoEmLoteRepository = exclusaoEmLoteRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.tamanhoLote = tamanhoLote;
+    }
+
+    public RelatorioExclusaoDTO excluir(ExclusaoEmLoteDTO exclusao) {
+        var possuiIds = nonNull(exclusao) && nonNull(exclusao.getIds()) && !exclusao.getIds().isEmpty();
+        var possuiCargo = nonNull(exclusao) && nonNull(exclusao.getCargo());
+        if (!possuiIds && !possuiCargo) {
+            throw new InvalidAttributeException("Informe os ids ou o cargo dos profissionais a excluir");
+        }
+        if (possuiIds && possuiCargo) {
+            throw new InvalidAttributeException("Informe apenas os ids ou apenas o cargo dos profissionais a excluir");
+        }
+        return possuiIds ? excluirPorIds(exclusao.getIds()) : excluirPorCargo(exclusao.getCargo());
+    }
+
+    private RelatorioExclusaoDTO excluirPorIds(List<Long> idsProfissionais) {
+        if (idsProfissionais.stream().anyMatch(Objects::isNull)) {
+            throw new InvalidAttributeException("Ids dos profissionais não podem ser nulos");
+        }
+        var relatorio = new RelatorioExclusaoDTO();
+        var ids = new ArrayList<>(new LinkedHashSet<>(idsProfissionais));
+        for (int inicio = 0; inicio < ids.size(); inicio += tamanhoLote) {
+            var lote = List.copyOf(ids.subList(inicio, Math.min(inicio + tamanhoLote, ids.size())));
+            var excluido = transactionTemplate.execute(status ->
+                    excluirLote(exclusaoEmLoteRepository.bloquearProfissionais(lote)));
+            registrar(relatorio, excluido);
+
+            var encontrados = new HashSet<>(excluido.profissionais);
+            lote.stream()
+                    .filter(id -> !encontrados.contains(id))
+                    .forEach(relatorio.getIdsNaoEncontrados()::add);
+        }
+        return relatorio;
+    }
+
+    private RelatorioExclusaoDTO excluirPorCargo(TipoCargo cargo) {
+        var relatorio = new RelatorioExclusaoDTO();
+        LoteExcluido excluido;
+        do {
+            excluido = transactionTemplate.execute(status ->
+                    excluirLote(exclusaoEmLoteRepository.bloquearProfissionaisPorCargo(cargo, tamanhoLote)));
+            registrar(relatorio, excluido);
+        } while (excluido.profissionais.size() == tamanhoLote);
+        return relatorio;
+    }
+
+    private LoteExcluido excluirLote(List<Long> idsProfissionais) {
+        if (idsProfissionais.isEmpty()) {
+            return new LoteExcluido(idsProfissionais, List.of());
+        }
+        var idsContatos = exclusaoEmLoteRepository.excluirContatosDosProfissionais(idsProfissionais);
+        exclusaoEmLoteRepository.excluirProfissionais(idsProfissionais);
+        eventPublisher.publishEvent(new ProfissionaisExcluidosEvent(idsProfissionais, idsContatos));
+        return new LoteExcluido(idsProfissionais, idsContatos);
+    }
+
+    private void registrar(RelatorioExclusaoDTO relatorio, LoteExcluido excluido) {
+        if (excluido.profissionais.isEmpty()) {
+            return;
+        }
+        relatorio.setProfissionaisExcluidos(relatorio.getProfissionaisExcluidos() + excluido.profissionais.size());
+        relatorio.setContatosExcluidos(relatorio.getContatosExcluidos() + excluido.contatos.size());
+        relatorio.setLotes(relatorio.getLotes() + 1);
+    }
+
+    private static final class LoteExcluido {
+        private final List<Long> profissionais;
+        private final List<Long> contatos;
+
+        private LoteExcluido(List<Long> profissionais, List<Long> contatos) {
+            this.profissionais = profissionais;
+            this.contatos = contatos;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.simplesdental.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.simplesdental.repositories.LeituraProfissionaisRepository;
+
+/**
+ * Exportacao completa de profissionais e contatos em NDJSON, escrita direto na saida
+ * conforme as linhas chegam do cursor do banco.
+ */
+@Service
+public class ExportacaoService {
+
+    private final LeituraProfissionaisRepository leituraProfissionaisRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+
+    public ExportacaoService(LeituraProfissionaisRepository leituraProfissionaisRepository,
+                             PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper) {
+        this.leituraProfissionaisRepository = leituraProfissionaisRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    public void exportarNdjson(OutputStream saida) throws IOException {
+        var writer = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n");
+
+        try (SequenceWriter sequencia = writer.writeValues(saida)) {
+            transactionTemplate.executeWithoutResult(status ->
+                    leituraProfissionaisRepository.percorrerProfissionais(profissional -> {
+                        try {
+                            sequencia.write(profissional);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        saida.flush();
+    }
+}
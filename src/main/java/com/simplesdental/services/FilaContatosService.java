@@ -0,0 +1,429 @@
+package com.simplesdental.services;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simplesdental.dtos.ContatoDTO;
+import com.simplesdental.dtos.EntradaFilaContatoDTO;
+import com.simplesdental.dtos.EventoAlteracaoDTO;
+import com.simplesdental.dtos.TicketContatoDTO;
+import com.simplesdental.enums.SituacaoTicket;
+import com.simplesdental.enums.TipoEntidade;
+import com.simplesdental.enums.TipoOperacao;
+import com.simplesdental.events.ContatoAlteradoEvent;
+import com.simplesdental.exceptions.EntityNotFoundException;
+import com.simplesdental.exceptions.InvalidAttributeException;
+import com.simplesdental.exceptions.ServicoIndisponivelException;
+import com.simplesdental.repositories.EventoAlteracaoRepository;
+import com.simplesdental.repositories.FilaContatosRepository;
+import com.simplesdental.repositories.InsercaoEmLoteRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Criacao de contatos em segundo plano (write-behind). O contato e validado, gravado
+ * em um log local com fsync e o cliente recebe um ticket; uma unica thread consome o
+ * log em lotes, inserindo via JDBC batch. O custo por requisicao fica no fsync, que e
+ * compartilhado entre as requisicoes concorrentes.
+ *
+ * A posicao consumida e gravada no banco na mesma transacao dos contatos, entao apos
+ * um restart o log e reaplicado a partir dela sem duplicar nada. Quando tudo que foi
+ * gravado no log ja esta no banco e o arquivo passa de tamanho-compactacao, ele e
+ * truncado.
+ *
+ * A situacao dos tickets fica em memoria: tickets anteriores ao ultimo restart, ou
+ * alem dos MAXIMO_SITUACOES_RETIDAS mais recentes, aparecem apenas como GRAVADO.
+ */
+@Service
+public class FilaContatosService implements DisposableBean {
+
+    static final int MAXIMO_SITUACOES_RETIDAS = 100_000;
+
+    private static final String ARQUIVO_LOG = "contatos.log";
+    private static final byte QUEBRA_LINHA = '\n';
+    private static final long ESPERA_MILIS = 100;
+    private static final long ESPERA_APOS_FALHA_MILIS = 1000;
+    private static final long ESPERA_ENCERRAMENTO_MILIS = 10_000;
+
+    private final boolean habilitada;
+    private final String nome;
+    private final Path diretorio;
+    private final int tamanhoLote;
+    private final long tamanhoCompactacao;
+    private final FilaContatosRepository filaContatosRepository;
+    private final InsercaoEmLoteRepository insercaoEmLoteRepository;
+    private final EventoAlteracaoRepository eventoAlteracaoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+
+    private final BlockingQueue<EntradaFilaContatoDTO> pendentes = new LinkedBlockingQueue<>();
+    private final ConcurrentSkipListMap<Long, TicketContatoDTO> situacoes = new ConcurrentSkipListMap<>();
+
+    // Ordem dos locks: escrita antes de sincronizacao
+    private final Object escrita = new Object();
+    private final Object sincronizacao = new Object();
+
+    private FileChannel log;
+    private long proximaSequencia;
+    private volatile long posicaoEscrita;
+    private long posicaoDuravel;
+    private volatile long ultimaSequenciaEmitida;
+    private volatile long ultimaSequenciaAplicada;
+    private volatile boolean executando;
+    private Thread consumidor;
+
+    public FilaContatosService(@Value("${simplesdental.fila-contatos.habilitada}") boolean habilitada,
+                               @Value("${simplesdental.fila-contatos.nome}") String nome,
+                               @Value("${simplesdental.fila-contatos.diretorio}") Path diretorio,
+                               @Value("${simplesdental.fila-contatos.tamanho-lote}") int tamanhoLote,
+                               @Value("${simplesdental.fila-contatos.tamanho-compactacao}") long tamanhoCompactacao,
+                               FilaContatosRepository filaContatosRepository,
+                               InsercaoEmLoteRepository insercaoEmLoteRepository,
+                               EventoAlteracaoRepository eventoAlteracaoRepository,
+                               TransactionTemplate transactionTemplate,
+                               ApplicationEventPublisher eventPublisher,
+                               ObjectMapper objectMapper,
+                               MeterRegistry meterRegistry) {
+        this.habilitada = habilitada;
+        this.nome = nome;
+        this.diretorio = diretorio;
+        this.tamanhoLote = tamanhoLote;
+        this.tamanhoCompactacao = tamanhoCompactacao;
+        this.filaContatosRepository = filaContatosRepository;
+        this.insercaoEmLoteRepository = insercaoEmLoteRepository;
+        this.eventoAlteracaoRepository = eventoAlteracaoRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.objectMapper = objectMapper;
+        meterRegistry.gauge("simplesdental.fila.contatos.pendentes", pendentes, Collection::size);
+    }
+
+    /**
+     * Depois do Liquibase: a posicao da fila e lida do banco antes de reaplicar o log.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() throws IOException {
+        if (!habilitada) {
+            return;
+        }
+        Files.createDirectories(diretorio);
+        var arquivo = diretorio.resolve(ARQUIVO_LOG);
+        ultimaSequenciaAplicada = filaContatosRepository.buscarPosicao(nome);
+        var ultimaNoLog = recuperar(arquivo);
+
+        log = FileChannel.open(arquivo, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        posicaoEscrita = log.size();
+        if (posicaoEscrita > 0 && !terminaComQuebraDeLinha()) {
+            // linha parcial de uma queda durante a escrita: a proxima comeca em linha nova
+            escrever(new byte[]{QUEBRA_LINHA});
+        }
+        log.force(false);
+        posicaoDuravel = posicaoEscrita;
+
+        proximaSequencia = Math.max(ultimaNoLog, ultimaSequenciaAplicada) + 1;
+        ultimaSequenciaEmitida = proximaSequencia - 1;
+        executando = true;
+        consumidor = new Thread(this::consumir, "fila-contatos");
+        // daemon: nao segura a JVM se o contexto nao for fechado; o log garante o reprocessamento
+        consumidor.setDaemon(true);
+        consumidor.start();
+    }
+
+    /**
+     * Valida com as mesmas regras do POST /contato e so devolve o ticket depois que a
+     * entrada esta no disco. A existencia do profissional e verificada pelo consumidor.
+     */
+    public TicketContatoDTO enfileirar(ContatoDTO contatoDTO) {
+        if (!executando) {
+            throw new ServicoIndisponivelException("Fila de contatos indisponível");
+        }
+        ContatoService.validarAtributosContato(contatoDTO, true);
+        if (isNull(contatoDTO.getIdProfissional())) {
+            throw new InvalidAttributeException("Contato não possui profissional");
+        }
+
+        EntradaFilaContatoDTO entrada;
+        long fim;
+        synchronized (escrita) {
+            entrada = new EntradaFilaContatoDTO(proximaSequencia, contatoDTO.getNome(),
+                    contatoDTO.getContato(), contatoDTO.getIdProfissional());
+            anexar(entrada);
+            proximaSequencia++;
+            ultimaSequenciaEmitida = entrada.getSequencia();
+            // dentro do lock: o consumidor recebe as entradas na ordem das sequencias
+            pendentes.add(entrada);
+            fim = posicaoEscrita;
+        }
+        sincronizar(fim);
+        return new TicketContatoDTO(entrada.getSequencia(), SituacaoTicket.PENDENTE, null, null);
+    }
+
+    public TicketContatoDTO consultar(Long ticket) {
+        if (!habilitada) {
+            throw new ServicoIndisponivelException("Fila de contatos indisponível");
+        }
+        if (isNull(ticket) || ticket <= 0 || ticket > ultimaSequenciaEmitida) {
+            throw new EntityNotFoundException(String.format("Ticket %d não encontrado", ticket));
+        }
+        var situacao = situacoes.get(ticket);
+        if (nonNull(situacao)) {
+            return situacao;
+        }
+        if (ticket > ultimaSequenciaAplicada) {
+            return new TicketContatoDTO(ticket, SituacaoTicket.PENDENTE, null, null);
+        }
+        return new TicketContatoDTO(ticket, SituacaoTicket.GRAVADO, null, null);
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (!executando) {
+            return;
+        }
+        // o que nao for gravado continua no log e e reaplicado no proximo start
+        executando = false;
+        consumidor.join(ESPERA_ENCERRAMENTO_MILIS);
+        log.close();
+    }
+
+    private void consumir() {
+        var lote = new ArrayList<EntradaFilaContatoDTO>(tamanhoLote);
+        while (executando) {
+            try {
+                if (lote.isEmpty()) {
+                    var primeira = pendentes.poll(ESPERA_MILIS, TimeUnit.MILLISECONDS);
+                    if (isNull(primeira)) {
+                        compactar();
+                        continue;
+                    }
+                    lote.add(primeira);
+                    pendentes.drainTo(lote, tamanhoLote - 1);
+                }
+                // numa nova tentativa, parte do lote pode ter sido gravada entrada a entrada
+                lote.removeIf(entrada -> entrada.getSequencia() <= ultimaSequenciaAplicada);
+                gravarSeparandoInvalidas(lote);
+                lote.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (DataAccessException | TransactionException | ServicoIndisponivelException | IOException e) {
+                // banco ou disco indisponivel, inclusive ao abrir ou concluir a transacao:
+                // o lote e mantido e tentado de novo
+                try {
+                    TimeUnit.MILLISECONDS.sleep(ESPERA_APOS_FALHA_MILIS);
+                } catch (InterruptedException interrompido) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Um contato que viola alguma restricao do banco derrubaria o lote inteiro: nesse
+     * caso o lote e regravado entrada a entrada e so a invalida fica com ERRO.
+     */
+    private void gravarSeparandoInvalidas(List<EntradaFilaContatoDTO> lote) {
+        try {
+            gravar(lote);
+        } catch (DataIntegrityViolationException e) {
+            if (lote.size() == 1) {
+                var entrada = lote.get(0);
+                transactionTemplate.executeWithoutResult(status ->
+                        filaContatosRepository.atualizarPosicao(nome, entrada.getSequencia()));
+                concluir(List.of(new TicketContatoDTO(entrada.getSequencia(), SituacaoTicket.ERRO, null,
+                        e.getMostSpecificCause().getMessage())), entrada.getSequencia());
+                return;
+            }
+            for (EntradaFilaContatoDTO entrada : lote) {
+                gravarSeparandoInvalidas(List.of(entrada));
+            }
+        }
+    }
+
+    private void gravar(List<EntradaFilaContatoDTO> lote) {
+        // o lote pode ter entradas cujo fsync ainda nao terminou na thread da requisicao
+        sincronizar(posicaoEscrita);
+        var ultimaSequencia = lote.get(lote.size() - 1).getSequencia();
+
+        var resultado = transactionTemplate.execute(status -> {
+            var idsProfissionais = lote.stream()
+                    .map(EntradaFilaContatoDTO::getIdProfissional)
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+            var existentes = new HashSet<>(filaContatosRepository.bloquearProfissionais(idsProfissionais));
+
+            var tickets = new ArrayList<TicketContatoDTO>(lote.size());
+            var gravadas = new ArrayList<EntradaFilaContatoDTO>(lote.size());
+            var contatos = new ArrayList<ContatoDTO>(lote.size());
+            for (EntradaFilaContatoDTO entrada : lote) {
+                if (!existentes.contains(entrada.getIdProfissional())) {
+                    tickets.add(new TicketContatoDTO(entrada.getSequencia(), SituacaoTicket.ERRO, null,
+                            String.format("Profissional de id: %d não encontrado", entrada.getIdProfissional())));
+                    continue;
+                }
+                gravadas.add(entrada);
+                contatos.add(new ContatoDTO(null, entrada.getNome(), entrada.getContato(), entrada.getIdProfissional()));
+            }
+
+            insercaoEmLoteRepository.inserirContatos(contatos);
+            for (int i = 0; i < gravadas.size(); i++) {
+                tickets.add(new TicketContatoDTO(gravadas.get(i).getSequencia(), SituacaoTicket.GRAVADO,
+                        contatos.get(i).getId(), null));
+            }
+
+            var alterados = contatos.stream()
+                    .map(ContatoDTO::getIdProfissional)
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+            if (!alterados.isEmpty()) {
+                filaContatosRepository.incrementarVersoes(alterados);
+            }
+            filaContatosRepository.atualizarPosicao(nome, ultimaSequencia);
+            // um evento por contato no outbox, mas um por profissional para cache e replica
+            eventoAlteracaoRepository.registrar(contatos.stream()
+                    .map(contato -> new EventoAlteracaoDTO(null, TipoEntidade.CONTATO, contato.getId(),
+                            contato.getIdProfissional(), TipoOperacao.CRIACAO, null))
+                    .collect(Collectors.toList()));
+            alterados.forEach(idProfissional -> eventPublisher.publishEvent(
+                    new ContatoAlteradoEvent(null, idProfissional, TipoOperacao.CRIACAO)));
+            return tickets;
+        });
+        concluir(resultado, ultimaSequencia);
+    }
+
+    private void concluir(List<TicketContatoDTO> tickets, long ultimaSequencia) {
+        // as situacoes entram antes da posicao, para consultar() nunca ver GRAVADO sem o id
+        tickets.forEach(ticket -> situacoes.put(ticket.getTicket(), ticket));
+        ultimaSequenciaAplicada = ultimaSequencia;
+        situacoes.headMap(ultimaSequencia - MAXIMO_SITUACOES_RETIDAS).clear();
+    }
+
+    private void compactar() throws IOException {
+        if (posicaoEscrita < tamanhoCompactacao) {
+            return;
+        }
+        synchronized (escrita) {
+            // sob o lock de escrita nenhuma entrada nova pode ser emitida
+            if (ultimaSequenciaEmitida != ultimaSequenciaAplicada) {
+                return;
+            }
+            log.truncate(0);
+            log.force(true);
+            posicaoEscrita = 0;
+            synchronized (sincronizacao) {
+                posicaoDuravel = 0;
+            }
+        }
+    }
+
+    private void anexar(EntradaFilaContatoDTO entrada) {
+        try {
+            var json = objectMapper.writeValueAsBytes(entrada);
+            var linha = new byte[json.length + 1];
+            System.arraycopy(json, 0, linha, 0, json.length);
+            linha[json.length] = QUEBRA_LINHA;
+            escrever(linha);
+        } catch (IOException e) {
+            throw new ServicoIndisponivelException("Falha ao gravar o contato na fila");
+        }
+    }
+
+    private void escrever(byte[] bytes) throws IOException {
+        var inicio = posicaoEscrita;
+        var buffer = ByteBuffer.wrap(bytes);
+        try {
+            while (buffer.hasRemaining()) {
+                log.write(buffer, inicio + buffer.position());
+            }
+        } catch (IOException e) {
+            // descarta a linha parcial para nao corromper a proxima entrada
+            log.truncate(inicio);
+            throw e;
+        }
+        posicaoEscrita = inicio + bytes.length;
+    }
+
+    /**
+     * Group commit: quem chega enquanto outro fsync esta em andamento espera por ele e,
+     * se os seus bytes ja foram cobertos, volta sem chamar force de novo.
+     */
+    private void sincronizar(long fim) {
+        synchronized (sincronizacao) {
+            if (posicaoDuravel >= fim) {
+                return;
+            }
+            var alvo = posicaoEscrita;
+            try {
+                log.force(false);
+            } catch (IOException e) {
+                throw new ServicoIndisponivelException("Falha ao gravar o contato na fila");
+            }
+            posicaoDuravel = alvo;
+        }
+    }
+
+    private long recuperar(Path arquivo) throws IOException {
+        if (!Files.exists(arquivo)) {
+            return 0;
+        }
+        long ultimaSequencia = 0;
+        try (BufferedReader reader = Files.newBufferedReader(arquivo, StandardCharsets.UTF_8)) {
+            String linha;
+            while (nonNull(linha = reader.readLine())) {
+                if (linha.isBlank()) {
+                    continue;
+                }
+                EntradaFilaContatoDTO entrada;
+                try {
+                    entrada = objectMapper.readValue(linha, EntradaFilaContatoDTO.class);
+                } catch (JsonProcessingException e) {
+                    // linha parcial: a requisicao nao recebeu ticket
+                    continue;
+                }
+                ultimaSequencia = Math.max(ultimaSequencia, entrada.getSequencia());
+                if (entrada.getSequencia() > ultimaSequenciaAplicada) {
+                    pendentes.add(entrada);
+                }
+            }
+        }
+        return ultimaSequencia;
+    }
+
+    private boolean terminaComQuebraDeLinha() throws IOException {
+        var ultimo = ByteBuffer.allocate(1);
+        log.read(ultimo, posicaoEscrita - 1);
+        return ultimo.get(0) == QUEBRA_LINHA;
+    }
+}
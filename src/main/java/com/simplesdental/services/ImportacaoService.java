@@ -0,0 +1,310 @@
+package com.simplesdental.services;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simplesdental.dtos.ContatoDTO;
+import com.simplesdental.dtos.ErroImportacaoDTO;
+import com.simplesdental.dtos.EventoAlteracaoDTO;
+import com.simplesdental.dtos.ProfissionalDTO;
+import com.simplesdental.dtos.RelatorioImportacaoDTO;
+import com.simplesdental.enums.TipoCargo;
+import com.simplesdental.enums.TipoEntidade;
+import com.simplesdental.enums.TipoOperacao;
+import com.simplesdental.exceptions.InvalidAttributeException;
+import com.simplesdental.repositories.EventoAlteracaoRepository;
+import com.simplesdental.repositories.InsercaoEmLoteRepository;
+
+/**
+ * Importacao em massa de profissionais. O corpo e lido linha a linha e gravado em
+ * lotes de tamanho configuravel, cada lote na sua propria transacao, entao a memoria
+ * usada depende do tamanho do lote e nao do tamanho do arquivo. A criacao dos
+ * profissionais e contatos de cada lote vai para o feed de alteracoes na mesma
+ * transacao. Cada linha e limitada a tamanho-maximo-linha caracteres; a linha maior
+ * e descartada sem ser guardada e relatada como erro.
+ */
+@Service
+public class ImportacaoService {
+
+    static final int MAXIMO_ERROS_RELATADOS = 1000;
+
+    private static final String SEPARADOR_CSV = ";";
+    private static final int COLUNAS_PROFISSIONAL_CSV = 3;
+    private static final DateTimeFormatter FORMATO_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private final InsercaoEmLoteRepository insercaoEmLoteRepository;
+    private final EventoAlteracaoRepository eventoAlteracaoRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final int tamanhoLote;
+    private final int tamanhoMaximoLinha;
+
+    public ImportacaoService(InsercaoEmLoteRepository insercaoEmLoteRepository,
+                             EventoAlteracaoRepository eventoAlteracaoRepository,
+                             TransactionTemplate transactionTemplate,
+                             ObjectMapper objectMapper,
+                             @Value("${simplesdental.importacao.tamanho-lote}") int tamanhoLote,
+                             @Value("${simplesdental.importacao.tamanho-maximo-linha}") int tamanhoMaximoLinha) {
+        this.insercaoEmLoteRepository = insercaoEmLoteRepository;
+        this.eventoAlteracaoRepository = eventoAlteracaoRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.tamanhoLote = tamanhoLote;
+        this.tamanhoMaximoLinha = tamanhoMaximoLinha;
+    }
+
+    /**
+     * Cada linha e um ProfissionalDTO em JSON, no mesmo formato do POST /profissional.
+     */
+    public RelatorioImportacaoDTO importarNdjson(InputStream entrada) throws IOException {
+        return importar(entrada, false, this::lerLinhaJson);
+    }
+
+    /**
+     * Primeira linha de cabecalho, seguida de linhas no formato
+     * nome;nascimento;cargo[;nomeContato;contato]... com nascimento em dd/MM/yyyy.
+     */
+    public RelatorioImportacaoDTO importarCsv(InputStream entrada) throws IOException {
+        return importar(entrada, true, this::lerLinhaCsv);
+    }
+
+    private RelatorioImportacaoDTO importar(InputStream entrada, boolean possuiCabecalho,
+                                           Function<String, ProfissionalDTO> leitor) throws IOException {
+        var relatorio = new RelatorioImportacaoDTO();
+        var lote = new ArrayList<ProfissionalDTO>(tamanhoLote);
+        var linhasDoLote = new ArrayList<Long>(tamanhoLote);
+
+        try (var reader = new InputStreamReader(entrada, StandardCharsets.UTF_8)) {
+            var linhas = new LeitorDeLinhas(reader, tamanhoMaximoLinha);
+            long numeroLinha = 0;
+            String linha;
+            while (nonNull(linha = linhas.proxima())) {
+                numeroLinha++;
+                if ((possuiCabecalho && numeroLinha == 1) || (!linhas.isExcedida() && linha.isBlank())) {
+                    continue;
+                }
+
+                relatorio.setLinhasProcessadas(relatorio.getLinhasProcessadas() + 1);
+                try {
+                    if (linhas.isExcedida()) {
+                        throw new InvalidAttributeException(
+                                String.format("Linha excede o limite de %d caracteres", tamanhoMaximoLinha));
+                    }
+                    var profissional = leitor.apply(linha);
+                    validarAtributos(profissional);
+                    profissional.setDataCriacao(LocalDateTime.now());
+                    lote.add(profissional);
+                    linhasDoLote.add(numeroLinha);
+                } catch (InvalidAttributeException e) {
+                    registrarErro(relatorio, numeroLinha, e.getMessage());
+                }
+
+                if (lote.size() == tamanhoLote) {
+                    gravarLote(lote, linhasDoLote, relatorio);
+                }
+            }
+        }
+        gravarLote(lote, linhasDoLote, relatorio);
+        return relatorio;
+    }
+
+    private void validarAtributos(ProfissionalDTO profissionalDTO) {
+        ProfissionalService.validarAtributosProfissional(profissionalDTO, true);
+        if (nonNull(profissionalDTO.getContatos())) {
+            // mesma mensagem da criacao incremental, com o indice a partir de 0
+            for (int indice = 0; indice < profissionalDTO.getContatos().size(); indice++) {
+                var contato = profissionalDTO.getContatos().get(indice);
+                if (isNull(contato)) {
+                    throw new InvalidAttributeException(String.format("Contato %d é nulo", indice));
+                }
+                ContatoService.validarAtributosContato(contato, true);
+            }
+        }
+    }
+
+    private void gravarLote(List<ProfissionalDTO> lote, List<Long> linhasDoLote, RelatorioImportacaoDTO relatorio) {
+        if (lote.isEmpty()) {
+            return;
+        }
+        try {
+            var profissionais = List.copyOf(lote);
+            transactionTemplate.executeWithoutResult(status -> {
+                insercaoEmLoteRepository.inserirProfissionais(profissionais);
+                eventoAlteracaoRepository.registrar(eventosDeCriacao(profissionais));
+            });
+            relatorio.setProfissionaisImportados(relatorio.getProfissionaisImportados() + lote.size());
+        } catch (DataAccessException | TransactionException e) {
+            var mensagem = String.format("Lote não gravado: %s", e.getMostSpecificCause().getMessage());
+            linhasDoLote.forEach(linha -> registrarErro(relatorio, linha, mensagem));
+        }
+        lote.clear();
+        linhasDoLote.clear();
+    }
+
+    // Depois da insercao, que preenche os ids nos DTOs
+    private static List<EventoAlteracaoDTO> eventosDeCriacao(List<ProfissionalDTO> profissionais) {
+        return profissionais.stream()
+                .flatMap(profissional -> Stream.concat(
+                        Stream.of(new EventoAlteracaoDTO(null, TipoEntidade.PROFISSIONAL, profissional.getId(),
+                                profissional.getId(), TipoOperacao.CRIACAO, null)),
+                        isNull(profissional.getContatos()) ? Stream.empty() : profissional.getContatos().stream()
+                                .map(contato -> new EventoAlteracaoDTO(null, TipoEntidade.CONTATO, contato.getId(),
+                                        profissional.getId(), TipoOperacao.CRIACAO, null))))
+                .collect(Collectors.toList());
+    }
+
+    private void registrarErro(RelatorioImportacaoDTO relatorio, Long linha, String mensagem) {
+        relatorio.setLinhasComErro(relatorio.getLinhasComErro() + 1);
+        if (relatorio.getErros().size() < MAXIMO_ERROS_RELATADOS) {
+            relatorio.getErros().add(new ErroImportacaoDTO(linha, mensagem));
+        }
+    }
+
+    private ProfissionalDTO lerLinhaJson(String linha) {
+        try {
+            var profissional = objectMapper.readValue(linha, ProfissionalDTO.class);
+            if (isNull(profissional)) {
+                throw new InvalidAttributeException("Linha não contém um profissional");
+            }
+            return profissional;
+        } catch (JsonProcessingException e) {
+            throw new InvalidAttributeException(String.format("JSON inválido: %s", e.getOriginalMessage()));
+        }
+    }
+
+    private ProfissionalDTO lerLinhaCsv(String linha) {
+        var colunas = linha.split(SEPARADOR_CSV, -1);
+        if (colunas.length < COLUNAS_PROFISSIONAL_CSV || (colunas.length - COLUNAS_PROFISSIONAL_CSV) % 2 != 0) {
+            throw new InvalidAttributeException(
+                    "Linha deve conter nome;nascimento;cargo seguidos de pares nomeContato;contato");
+        }
+
+        var profissional = new ProfissionalDTO();
+        profissional.setNome(valorDaColuna(colunas[0]));
+        profissional.setNascimento(lerData(valorDaColuna(colunas[1])));
+        profissional.setCargo(lerCargo(valorDaColuna(colunas[2])));
+
+        var contatos = new ArrayList<ContatoDTO>();
+        for (int i = COLUNAS_PROFISSIONAL_CSV; i < colunas.length; i += 2) {
+            contatos.add(new ContatoDTO(null, valorDaColuna(colunas[i]), valorDaColuna(colunas[i + 1]), null));
+        }
+        profissional.setContatos(contatos);
+        return profissional;
+    }
+
+    private String valorDaColuna(String coluna) {
+        var valor = coluna.trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    private LocalDate lerData(String valor) {
+        if (isNull(valor)) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(valor, FORMATO_DATA);
+        } catch (DateTimeParseException e) {
+            throw new InvalidAttributeException(String.format("Data de nascimento inválida: %s", valor));
+        }
+    }
+
+    private TipoCargo lerCargo(String valor) {
+        if (isNull(valor)) {
+            return null;
+        }
+        try {
+            return TipoCargo.valueOf(valor.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidAttributeException(String.format("Cargo inválido: %s", valor));
+        }
+    }
+
+    /**
+     * Como o readLine, mas sem guardar mais que tamanhoMaximo caracteres por linha: o
+     * restante de uma linha maior e lido e descartado, e isExcedida() informa o corte.
+     */
+    private static final class LeitorDeLinhas {
+
+        private final Reader reader;
+        private final int tamanhoMaximo;
+        private final char[] buffer = new char[8192];
+        private final StringBuilder linha = new StringBuilder();
+        private int posicao;
+        private int quantidade;
+        private boolean excedida;
+
+        private LeitorDeLinhas(Reader reader, int tamanhoMaximo) {
+            this.reader = reader;
+            this.tamanhoMaximo = tamanhoMaximo;
+        }
+
+        private String proxima() throws IOException {
+            linha.setLength(0);
+            excedida = false;
+            var leuAlgo = false;
+            while (true) {
+                if (posicao == quantidade) {
+                    posicao = 0;
+                    quantidade = Math.max(reader.read(buffer), 0);
+                    if (quantidade == 0) {
+                        return leuAlgo ? concluir() : null;
+                    }
+                }
+                leuAlgo = true;
+                var inicio = posicao;
+                while (posicao < quantidade && buffer[posicao] != '\n') {
+                    posicao++;
+                }
+                acumular(inicio, posicao);
+                if (posicao < quantidade) {
+                    posicao++;
+                    return concluir();
+                }
+            }
+        }
+
+        private boolean isExcedida() {
+            return excedida;
+        }
+
+        // guarda um caractere a mais que o limite para o \r do fim de linha
+        private void acumular(int inicio, int fim) {
+            var espaco = Math.max(tamanhoMaximo + 1 - linha.length(), 0);
+            if (fim - inicio > espaco) {
+                excedida = true;
+            }
+            linha.append(buffer, inicio, Math.min(fim - inicio, espaco));
+        }
+
+        private String concluir() {
+            if (linha.length() > 0 && linha.charAt(linha.length() - 1) == '\r') {
+                linha.setLength(linha.length() - 1);
+            }
+            excedida = excedida || linha.length() > tamanhoMaximo;
+            return linha.toString();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.simplesdental.services;
+
+import static java.util.Objects.isNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import com.simplesdental.dtos.PaginaDTO;
+import com.simplesdental.exceptions.InvalidAttributeException;
+
+/**
+ * Paginacao por keyset: o cursor e o ultimo id devolvido, codificado de forma opaca,
+ * e a proxima pagina busca os registros com id maior que ele. O custo de qualquer
+ * pagina e o mesmo da primeira, ao contrario de OFFSET.
+ */
+final class Paginacao {
+
+    static final int TAMANHO_PADRAO = 50;
+    static final int TAMANHO_MAXIMO = 500;
+
+    private static final long ID_INICIAL = 0L;
+
+    private Paginacao() {
+    }
+
+    static int tamanhoDaPagina(Integer tamanho) {
+        if (isNull(tamanho)) {
+            return TAMANHO_PADRAO;
+        }
+        if (tamanho < 1 || tamanho > TAMANHO_MAXIMO) {
+            throw new InvalidAttributeException(
+                    String.format("Tamanho da página deve estar entre 1 e %d", TAMANHO_MAXIMO));
+        }
+        return tamanho;
+    }
+
+    /**
+     * Busca um registro a mais que o tamanho da pagina para saber se existe proxima pagina.
+     */
+    static Pageable limiteDaConsulta(int tamanho) {
+        return PageRequest.of(0, tamanho + 1);
+    }
+
+    static Long decodificarCursor(String cursor) {
+        if (isNull(cursor) || cursor.isBlank()) {
+            return ID_INICIAL;
+        }
+        try {
+            return Long.valueOf(decodificarValor(cursor));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidAttributeException("Cursor inválido");
+        }
+    }
+
+    static String codificarCursor(Long id) {
+        return codificarValor(String.valueOf(id));
+    }
+
+    /**
+     * Para ordenacoes por mais de uma coluna, em que o cursor guarda mais que o id.
+     * Quem chama interpreta o valor e converte erros de formato em "Cursor inválido".
+     */
+    static String codificarValor(String valor) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String decodificarValor(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidAttributeException("Cursor inválido");
+        }
+    }
+
+    static <E, D> PaginaDTO<D> montarPagina(List<E> registros, int tamanho,
+                                            Function<E, Long> id, Function<E, D> conversor) {
+        return montarPaginaEmLote(registros, tamanho, id, pagina -> pagina.stream()
+                .map(conversor)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Variante para conversoes que precisam carregar dados da pagina inteira de uma vez,
+     * evitando uma consulta por registro.
+     */
+    static <E, D> PaginaDTO<D> montarPaginaEmLote(List<E> registros, int tamanho,
+                                                  Function<E, Long> id, Function<List<E>, List<D>> conversor) {
+        var possuiProximaPagina = registros.size() > tamanho;
+        var pagina = possuiProximaPagina ? registros.subList(0, tamanho) : registros;
+        var proximoCursor = possuiProximaPagina ? codificarCursor(id.apply(pagina.get(tamanho - 1))) : null;
+        return new PaginaDTO<>(conversor.apply(pagina), proximoCursor);
+    }
+}
@@ -5,17 +5,32 @@ import static java.util.Objects.nonNull;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.simplesdental.config.CacheConfig;
 import com.simplesdental.dtos.ContatoDTO;
+import com.simplesdental.dtos.LoteProfissionaisDTO;
+import com.simplesdental.dtos.PaginaDTO;
 import com.simplesdental.dtos.ProfissionalDTO;
 import com.simplesdental.entities.Contato;
 import com.simplesdental.entities.Profissional;
 import com.simplesdental.enums.TipoCargo;
+import com.simplesdental.enums.TipoOperacao;
+import com.simplesdental.events.ContatoAlteradoEvent;
+import com.simplesdental.events.ProfissionalAlteradoEvent;
+import com.simplesdental.exceptions.ConflitoDeVersaoException;
 import com.simplesdental.exceptions.EntityNotFoundException;
 import com.simplesdental.exceptions.InvalidAttributeException;
 import com.simplesdental.repositories.ContatoRepository;
@@ -24,26 +39,86 @@ import com.simplesdental.repositories.ProfissionalRepository;
 @Service
 public class ProfissionalService {
 
+    static final int MAXIMO_IDS_LOTE = 500;
+
+    private static final String SEPARADOR_CURSOR_BUSCA = ";";
+    private static final float RELEVANCIA_INICIAL = Float.MAX_VALUE;
+
     private final ContatoRepository contatoRepository;
     private final ProfissionalRepository profissionalRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ReplicaProfissionais replica;
 
     public ProfissionalService(ContatoRepository contatoRepository,
-                               ProfissionalRepository profissionalRepository) {
+                               ProfissionalRepository profissionalRepository,
+                               ApplicationEventPublisher eventPublisher,
+                               ReplicaProfissionais replica) {
         this.contatoRepository = contatoRepository;
         this.profissionalRepository = profissionalRepository;
+        this.eventPublisher = eventPublisher;
+        this.replica = replica;
     }
 
 
+    @Cacheable(cacheNames = CacheConfig.PROFISSIONAIS, key = "#idProfissional")
+    @Transactional(readOnly = true)
     public ProfissionalDTO buscarProfissionalPorId(Long idProfissional) {
+        if (replica.disponivel()) {
+            return replica.buscarPorId(idProfissional)
+                    .orElseThrow(() -> new EntityNotFoundException(String.format("Profissional de id: %d não encontrado", idProfissional)));
+        }
         var profissional = profissionalRepository.findById(idProfissional)
                 .orElseThrow(() -> new EntityNotFoundException(String.format("Profissional de id: %d não encontrado", idProfissional)));
         return new ProfissionalDTO(profissional);
     }
 
+    /**
+     * Consulta so a coluna versao, sem carregar o profissional nem os contatos.
+     */
+    @Transactional(readOnly = true)
+    public Long buscarVersaoProfissional(Long idProfissional) {
+        return profissionalRepository.buscarVersao(idProfissional)
+                .orElseThrow(() -> new EntityNotFoundException(String.format("Profissional de id: %d não encontrado", idProfissional)));
+    }
+
+    /**
+     * Busca varios profissionais com seus contatos em uma unica consulta, na ordem dos
+     * ids recebidos. Ids inexistentes sao devolvidos em idsNaoEncontrados.
+     */
+    @Transactional(readOnly = true)
+    public LoteProfissionaisDTO buscarProfissionaisPorIds(List<Long> idsProfissionais) {
+        if (isNull(idsProfissionais) || idsProfissionais.isEmpty()) {
+            throw new InvalidAttributeException("Ids dos profissionais não informados");
+        }
+
+        var ids = new LinkedHashSet<>(idsProfissionais);
+        if (ids.size() > MAXIMO_IDS_LOTE) {
+            throw new InvalidAttributeException(
+                    String.format("Máximo de %d profissionais por busca em lote", MAXIMO_IDS_LOTE));
+        }
+
+        var profissionaisPorId = profissionalRepository.buscarComContatosPorIds(ids)
+                .stream()
+                .collect(Collectors.toMap(Profissional::getId, Function.identity()));
+
+        var profissionais = new ArrayList<ProfissionalDTO>(profissionaisPorId.size());
+        var idsNaoEncontrados = new ArrayList<Long>();
+        for (Long id : ids) {
+            var profissional = profissionaisPorId.get(id);
+            if (isNull(profissional)) {
+                idsNaoEncontrados.add(id);
+            } else {
+                profissionais.add(new ProfissionalDTO(profissional));
+            }
+        }
+        return new LoteProfissionaisDTO(profissionais, idsNaoEncontrados);
+    }
+
     @Transactional
     public String excluirProfissional(Long idProfissional) {
-        buscarProfissionalPorId(idProfissional);
+        var profissional = buscarProfissionalPorId(idProfissional);
         profissionalRepository.deleteById(idProfissional);
+        publicarExclusao(profissional);
         return String.format("Profissional de id: %d excluido com sucesso", idProfissional);
     }
 
@@ -54,23 +129,142 @@ public class ProfissionalService {
         profissionalEntidade.setDataCriacao(LocalDateTime.now());
         profissionalEntidade = profissionalRepository.save(profissionalEntidade);
         criarOuAtualizarContatos(profissionalDTO.getContatos(), profissionalEntidade);
+        eventPublisher.publishEvent(new ProfissionalAlteradoEvent(profissionalEntidade.getId(), TipoOperacao.CRIACAO));
         return "Profissional criado com sucesso";
     }
 
+    /**
+     * Carrega o profissional com os contatos em uma consulta e aplica apenas as diferencas
+     * na entidade gerenciada: o dirty checking so gera UPDATE para o que mudou
+     * (@DynamicUpdate), e inclusoes e exclusoes de contatos saem em lote no flush.
+     *
+     * Se o DTO traz versao, ela precisa ser a atual; alteracoes concorrentes detectadas
+     * pelo @Version no flush tambem viram ConflitoDeVersaoException. Quando so os
+     * contatos mudam, a versao e incrementada condicionada a versao lida, com o mesmo
+     * efeito.
+     */
     @Transactional
     public String atualizarProfissional(ProfissionalDTO profissionalDTO) {
         validarAtributosProfissional(profissionalDTO, false);
-        var entidadeAntiga = buscarProfissionalPorId(profissionalDTO.getId());
-        var profissionalEntidade = buildarEntidadePeloDTO(profissionalDTO);
-        var contatos = criarOuAtualizarContatos(profissionalDTO.getContatos(), profissionalEntidade);
-        profissionalEntidade.setContatos(contatos);
-        profissionalEntidade.setDataCriacao(entidadeAntiga.getDataCriacao());
-        profissionalRepository.save(profissionalEntidade);
-        return "Profissional atualizado com sucesso";
+        var profissional = profissionalRepository.buscarComContatosPorId(profissionalDTO.getId())
+                .orElseThrow(() -> new EntityNotFoundException(
+                        String.format("Profissional de id: %d não encontrado", profissionalDTO.getId())));
+        if (nonNull(profissionalDTO.getVersao()) && !profissionalDTO.getVersao().equals(profissional.getVersao())) {
+            throw conflitoDeVersao(profissional.getId());
+        }
+
+        var profissionalAlterado = !Objects.equals(profissional.getNome(), profissionalDTO.getNome())
+                || profissional.getCargo() != profissionalDTO.getCargo()
+                || !Objects.equals(profissional.getNascimento(), profissionalDTO.getNascimento());
+        profissional.setNome(profissionalDTO.getNome());
+        profissional.setCargo(profissionalDTO.getCargo());
+        profissional.setNascimento(profissionalDTO.getNascimento());
+
+        var sincronizacao = sincronizarContatos(profissional, profissionalDTO.getContatos());
+        try {
+            profissionalRepository.flush();
+            if (!profissionalAlterado && sincronizacao.possuiAlteracoes()
+                    && profissionalRepository.incrementarVersaoSeIgual(profissional.getId(), profissional.getVersao()) == 0) {
+                throw conflitoDeVersao(profissional.getId());
+            }
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw conflitoDeVersao(profissional.getId());
+        }
+        // sem alteracoes nao ha o que invalidar nem o que registrar no feed
+        if (profissionalAlterado || sincronizacao.possuiAlteracoes()) {
+            eventPublisher.publishEvent(new ProfissionalAlteradoEvent(profissional.getId(), TipoOperacao.ALTERACAO));
+        }
+
+        return String.format("Profissional atualizado com sucesso. Profissional alterado: %d, "
+                        + "contatos incluídos: %d, contatos alterados: %d, contatos excluídos: %d",
+                profissionalAlterado ? 1 : 0, sincronizacao.incluidos,
+                sincronizacao.alterados, sincronizacao.excluidos);
+    }
+
+    private SincronizacaoContatos sincronizarContatos(Profissional profissional, List<ContatoDTO> contatosDTO) {
+        var sincronizacao = new SincronizacaoContatos();
+        var recebidos = nonNull(contatosDTO) ? contatosDTO : Collections.<ContatoDTO>emptyList();
+        var idsRecebidos = recebidos.stream()
+                .map(ContatoDTO::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        var existentes = profissional.getContatos()
+                .stream()
+                .collect(Collectors.toMap(Contato::getId, Function.identity()));
+
+        // a remocao da colecao dispara o DELETE pelo orphanRemoval
+        profissional.getContatos().removeIf(contato -> !idsRecebidos.contains(contato.getId()));
+        existentes.keySet().stream()
+                .filter(id -> !idsRecebidos.contains(id))
+                .forEach(id -> {
+                    eventPublisher.publishEvent(new ContatoAlteradoEvent(id, profissional.getId(), TipoOperacao.EXCLUSAO));
+                    sincronizacao.excluidos++;
+                });
+
+        for (ContatoDTO dto : recebidos) {
+            if (isNull(dto.getId())) {
+                var contato = Contato.builder()
+                        .withNome(dto.getNome())
+                        .withContato(dto.getContato())
+                        .withProfissional(profissional)
+                        .build();
+                contatoRepository.save(contato);
+                profissional.getContatos().add(contato);
+                eventPublisher.publishEvent(new ContatoAlteradoEvent(contato.getId(), profissional.getId(), TipoOperacao.CRIACAO));
+                sincronizacao.incluidos++;
+                continue;
+            }
+
+            var contato = existentes.get(dto.getId());
+            if (isNull(contato)) {
+                contato = transferirContato(dto.getId(), profissional);
+            } else if (Objects.equals(contato.getNome(), dto.getNome())
+                    && Objects.equals(contato.getContato(), dto.getContato())) {
+                continue;
+            }
+            contato.setNome(dto.getNome());
+            contato.setContato(dto.getContato());
+            eventPublisher.publishEvent(new ContatoAlteradoEvent(contato.getId(), profissional.getId(), TipoOperacao.ALTERACAO));
+            sincronizacao.alterados++;
+        }
+        return sincronizacao;
     }
 
+    private Contato transferirContato(Long idContato, Profissional profissional) {
+        var contato = contatoRepository.findById(idContato)
+                .orElseThrow(() -> new EntityNotFoundException(
+                        String.format("Contato de id: %d não encontrado", idContato)));
+        var idProfissionalAntigo = contato.getProfissional().getId();
+        profissionalRepository.incrementarVersao(idProfissionalAntigo);
+        eventPublisher.publishEvent(new ProfissionalAlteradoEvent(idProfissionalAntigo, TipoOperacao.ALTERACAO));
+        contato.setProfissional(profissional);
+        profissional.getContatos().add(contato);
+        return contato;
+    }
 
-    private void validarAtributosProfissional(ProfissionalDTO profissionalDTO, boolean novoProfissional) {
+    private static final class SincronizacaoContatos {
+        private int incluidos;
+        private int alterados;
+        private int excluidos;
+
+        private boolean possuiAlteracoes() {
+            return incluidos + alterados + excluidos > 0;
+        }
+    }
+
+    private static ConflitoDeVersaoException conflitoDeVersao(Long idProfissional) {
+        return new ConflitoDeVersaoException(
+                String.format("Profissional de id: %d foi alterado por outra requisição", idProfissional));
+    }
+
+    private void publicarExclusao(ProfissionalDTO profissional) {
+        profissional.getContatos().forEach(contato -> eventPublisher.publishEvent(
+                new ContatoAlteradoEvent(contato.getId(), profissional.getId(), TipoOperacao.EXCLUSAO)));
+        eventPublisher.publishEvent(new ProfissionalAlteradoEvent(profissional.getId(), TipoOperacao.EXCLUSAO));
+    }
+
+
+    static void validarAtributosProfissional(ProfissionalDTO profissionalDTO, boolean novoProfissional) {
         if (nonNull(profissionalDTO.getId()) && novoProfissional) {
             throw new InvalidAttributeException("Profissional não pode ser criado por já possui id");
         }
@@ -104,38 +298,183 @@ public class ProfissionalService {
 
     }
 
+    /**
+     * Contatos com id recebidos na criacao incremental, que grava o profissional via
+     * JDBC. O flush deixa as linhas atualizadas antes de o outbox ser gravado.
+     */
+    @Transactional
+    public void vincularContatosExistentes(Long idProfissional, List<ContatoDTO> contatosDTO) {
+        var profissional = profissionalRepository.getById(idProfissional);
+        contatosDTO.forEach(dto -> vincularContatoExistente(dto, profissional));
+        profissionalRepository.flush();
+    }
+
+    private Contato vincularContatoExistente(ContatoDTO dto, Profissional profissional) {
+        var contatoExistente = contatoRepository.findById(dto.getId())
+                .orElseThrow(() -> new EntityNotFoundException(
+                        String.format("Contato de id: %d não encontrado", dto.getId())));
+        // o contato pode estar sendo transferido de outro profissional
+        var idProfissionalAntigo = contatoExistente.getProfissional().getId();
+        eventPublisher.publishEvent(new ContatoAlteradoEvent(contatoExistente.getId(), idProfissionalAntigo,
+                TipoOperacao.ALTERACAO));
+        profissionalRepository.incrementarVersao(idProfissionalAntigo);
+        // altera a entidade gerenciada para manter a versao carregada do contato
+        contatoExistente.setNome(dto.getNome());
+        contatoExistente.setContato(dto.getContato());
+        contatoExistente.setProfissional(profissional);
+        return contatoRepository.save(contatoExistente);
+    }
+
     private List<Contato> criarOuAtualizarContatos(List<ContatoDTO> contatosDTO, Profissional profissional) {
         var contatos = new ArrayList<Contato>();
         if (nonNull(contatosDTO)) {
             for (ContatoDTO dto : contatosDTO) {
                 if (nonNull(dto.getId())) {
-                    contatoRepository.findById(dto.getId())
-                            .orElseThrow(() -> new EntityNotFoundException(
-                                    String.format("Contato de id: %d não encontrado", dto.getId())));
+                    contatos.add(vincularContatoExistente(dto, profissional));
+                    continue;
                 }
                 var contatoEntidade = Contato.builder()
-                        .withId(dto.getId())
                         .withNome(dto.getNome())
                         .withContato(dto.getContato())
                         .withProfissional(profissional)
                         .build();
                 contatos.add(contatoRepository.save(contatoEntidade));
+                eventPublisher.publishEvent(new ContatoAlteradoEvent(contatoEntidade.getId(), profissional.getId(),
+                        TipoOperacao.CRIACAO));
             }
         }
         return contatos;
     }
 
-    public List<ProfissionalDTO> buscarContidosNoNome(String nome) {
-        return profissionalRepository.buscarProfissionalContendoNome(nome)
+    @Transactional(readOnly = true)
+    public PaginaDTO<ProfissionalDTO> buscarContidosNoNome(String nome, String cursor, Integer tamanho) {
+        var tamanhoPagina = Paginacao.tamanhoDaPagina(tamanho);
+        if (replica.disponivel()) {
+            var profissionais = replica.buscarContendoNome(nome, Paginacao.decodificarCursor(cursor), tamanhoPagina + 1);
+            return Paginacao.montarPagina(profissionais, tamanhoPagina, ProfissionalDTO::getId, Function.identity());
+        }
+        var profissionais = profissionalRepository.buscarProfissionalContendoNome(nome,
+                Paginacao.decodificarCursor(cursor), Paginacao.limiteDaConsulta(tamanhoPagina));
+        return Paginacao.montarPaginaEmLote(profissionais, tamanhoPagina, ProfissionalDTO::getId, this::preencherContatos);
+    }
+
+    @Transactional(readOnly = true)
+    public PaginaDTO<ProfissionalDTO> buscarContidosNoNomePorRelevancia(String nome, Integer tamanho) {
+        var tamanhoPagina = Paginacao.tamanhoDaPagina(tamanho);
+        var profissionais = profissionalRepository.buscarProfissionalContendoNomePorRelevancia(nome, tamanhoPagina);
+        return new PaginaDTO<>(converterComContatos(profissionais), null);
+    }
+
+    @Transactional(readOnly = true)
+    public PaginaDTO<ProfissionalDTO> buscarPorCargo(TipoCargo cargo, String cursor, Integer tamanho) {
+        var tamanhoPagina = Paginacao.tamanhoDaPagina(tamanho);
+        if (replica.disponivel()) {
+            var profissionais = replica.buscarPorCargo(cargo, Paginacao.decodificarCursor(cursor), tamanhoPagina + 1);
+            return Paginacao.montarPagina(profissionais, tamanhoPagina, ProfissionalDTO::getId, Function.identity());
+        }
+        var profissionais = profissionalRepository.buscarProfissionalPorCargo(cargo,
+                Paginacao.decodificarCursor(cursor), Paginacao.limiteDaConsulta(tamanhoPagina));
+        return Paginacao.montarPaginaEmLote(profissionais, tamanhoPagina, ProfissionalDTO::getId, this::preencherContatos);
+    }
+
+    /**
+     * Carrega os contatos de todos os profissionais da pagina em uma unica consulta,
+     * mantendo a ordem recebida.
+     */
+    private List<ProfissionalDTO> converterComContatos(List<Profissional> profissionais) {
+        if (profissionais.isEmpty()) {
+            return Collections.emptyList();
+        }
+        var ids = profissionais.stream()
+                .map(Profissional::getId)
+                .collect(Collectors.toList());
+        var profissionaisPorId = profissionalRepository.buscarComContatosPorIds(ids)
                 .stream()
+                .collect(Collectors.toMap(Profissional::getId, Function.identity()));
+        return ids.stream()
+                .map(profissionaisPorId::get)
+                .filter(Objects::nonNull)
                 .map(ProfissionalDTO::new)
                 .collect(Collectors.toList());
     }
 
-    public List<ProfissionalDTO> buscarPorCargo(TipoCargo cargo) {
-        return profissionalRepository.buscarProfissionalPorCargo(cargo)
+    /**
+     * Busca unica por nome, cargo e nome ou valor dos contatos, ordenada por relevancia.
+     * Cada palavra do termo vira um prefixo (pau -> pau:*) e todas precisam aparecer.
+     * O cursor guarda a relevancia e o id do ultimo profissional devolvido.
+     */
+    @Transactional(readOnly = true)
+    public PaginaDTO<ProfissionalDTO> buscarPorTexto(String termo, String cursor, Integer tamanho) {
+        var consulta = montarConsultaTextual(termo);
+        var tamanhoPagina = Paginacao.tamanhoDaPagina(tamanho);
+
+        var relevanciaApos = RELEVANCIA_INICIAL;
+        var idApos = 0L;
+        if (nonNull(cursor) && !cursor.isBlank()) {
+            var partes = Paginacao.decodificarValor(cursor).split(SEPARADOR_CURSOR_BUSCA);
+            try {
+                relevanciaApos = Float.parseFloat(partes[0]);
+                idApos = Long.parseLong(partes[1]);
+            } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                throw new InvalidAttributeException("Cursor inválido");
+            }
+        }
+
+        var linhas = profissionalRepository.buscarPorTexto(consulta, relevanciaApos, idApos, tamanhoPagina + 1);
+        var possuiProximaPagina = linhas.size() > tamanhoPagina;
+        var pagina = possuiProximaPagina ? linhas.subList(0, tamanhoPagina) : linhas;
+        String proximoCursor = null;
+        if (possuiProximaPagina) {
+            var ultima = pagina.get(tamanhoPagina - 1);
+            proximoCursor = Paginacao.codificarValor(((Number) ultima[1]).floatValue()
+                    + SEPARADOR_CURSOR_BUSCA + ((Number) ultima[0]).longValue());
+        }
+
+        var ids = pagina.stream()
+                .map(linha -> ((Number) linha[0]).longValue())
+                .collect(Collectors.toList());
+        return new PaginaDTO<>(converterProjecoes(ids), proximoCursor);
+    }
+
+    private static String montarConsultaTextual(String termo) {
+        var consulta = isNull(termo) ? "" : Arrays.stream(termo.toLowerCase().split("\\s+"))
+                // remove os operadores da sintaxe do to_tsquery
+                .map(palavra -> palavra.replaceAll("[&|!():*'\\\\<>]", ""))
+                .filter(palavra -> !palavra.isBlank())
+                .map(palavra -> palavra + ":*")
+                .collect(Collectors.joining(" & "));
+        if (consulta.isEmpty()) {
+            throw new InvalidAttributeException("Termo de busca não informado");
+        }
+        return consulta;
+    }
+
+    private List<ProfissionalDTO> converterProjecoes(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        var profissionaisPorId = profissionalRepository.buscarProjecoesPorIds(ids)
                 .stream()
-                .map(ProfissionalDTO::new)
+                .collect(Collectors.toMap(ProfissionalDTO::getId, Function.identity()));
+        var profissionais = ids.stream()
+                .map(profissionaisPorId::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
+        return preencherContatos(profissionais);
+    }
+
+    /**
+     * Completa os profissionais projetados com os contatos de todos eles, buscados
+     * tambem como projecao em uma unica consulta.
+     */
+    private List<ProfissionalDTO> preencherContatos(List<ProfissionalDTO> profissionais) {
+        if (profissionais.isEmpty()) {
+            return profissionais;
+        }
+        var profissionaisPorId = profissionais.stream()
+                .collect(Collectors.toMap(ProfissionalDTO::getId, Function.identity()));
+        contatoRepository.buscarContatosDosProfissionais(profissionaisPorId.keySet())
+                .forEach(contato -> profissionaisPorId.get(contato.getIdProfissional()).getContatos().add(contato));
+        return profissionais;
     }
 }
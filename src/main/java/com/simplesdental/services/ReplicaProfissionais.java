@@ -0,0 +1,295 @@
+package com.simplesdental.services;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Predicate;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.simplesdental.config.CacheConfig;
+import com.simplesdental.dtos.ContatoDTO;
+import com.simplesdental.dtos.ProfissionalDTO;
+import com.simplesdental.enums.TipoCargo;
+import com.simplesdental.events.ContatoAlteradoEvent;
+import com.simplesdental.events.ProfissionaisExcluidosEvent;
+import com.simplesdental.events.ProfissionalAlteradoEvent;
+import com.simplesdental.repositories.LeituraProfissionaisRepository;
+
+/**
+ * Copia em memoria da tabela profissional, com contatos, para servir as leituras do
+ * ProfissionalService sem ir ao banco (simplesdental.replica.habilitada=true).
+ *
+ * - carga inicial por varredura com cursor, ao subir a aplicacao; ate terminar, as
+ *   leituras continuam indo ao banco;
+ * - as escritas do proprio servico chegam pelos eventos de alteracao depois do commit,
+ *   e o profissional afetado e relido do banco;
+ * - uma reconciliacao periodica compara id e versao de todas as linhas e rele so as
+ *   diferentes, cobrindo importacoes em lote e alteracoes feitas fora da aplicacao.
+ *   As releituras sao feitas em lotes de ids, cada um na sua transacao, para que o
+ *   cursor limite o que fica em memoria.
+ *
+ * Um registro so e substituido por outro de versao igual ou maior, entao a
+ * reconciliacao nunca desfaz uma atualizacao mais nova vinda de um evento.
+ */
+@Component
+public class ReplicaProfissionais {
+
+    private final boolean habilitada;
+    private final LeituraProfissionaisRepository leituraProfissionaisRepository;
+    private final TransactionTemplate leitura;
+    private final int tamanhoLoteRecarga;
+    private final Cache cacheProfissionais;
+
+    private final ConcurrentSkipListMap<Long, RegistroProfissional> porId = new ConcurrentSkipListMap<>();
+    private final Map<TipoCargo, ConcurrentSkipListSet<Long>> porCargo = new EnumMap<>(TipoCargo.class);
+
+    private volatile boolean carregada;
+
+    public ReplicaProfissionais(@Value("${simplesdental.replica.habilitada}") boolean habilitada,
+                                LeituraProfissionaisRepository leituraProfissionaisRepository,
+                                PlatformTransactionManager transactionManager,
+                                CacheManager cacheManager,
+                                @Value("${simplesdental.replica.tamanho-lote-recarga}") int tamanhoLoteRecarga) {
+        this.habilitada = habilitada;
+        this.leituraProfissionaisRepository = leituraProfissionaisRepository;
+        this.leitura = new TransactionTemplate(transactionManager);
+        this.leitura.setReadOnly(true);
+        // os eventos chegam depois do commit da transacao de escrita, que nao pode ser reaproveitada
+        this.leitura.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.tamanhoLoteRecarga = tamanhoLoteRecarga;
+        this.cacheProfissionais = cacheManager.getCache(CacheConfig.PROFISSIONAIS);
+        for (TipoCargo cargo : TipoCargo.values()) {
+            porCargo.put(cargo, new ConcurrentSkipListSet<>());
+        }
+    }
+
+    public boolean disponivel() {
+        return carregada;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        if (!habilitada) {
+            return;
+        }
+        leitura.executeWithoutResult(status ->
+                leituraProfissionaisRepository.percorrerProfissionais(this::aplicar));
+        carregada = true;
+    }
+
+    public Optional<ProfissionalDTO> buscarPorId(Long idProfissional) {
+        return Optional.ofNullable(porId.get(idProfissional)).map(RegistroProfissional::paraDTO);
+    }
+
+    /**
+     * Ate limite profissionais do cargo com id maior que idApos, em ordem de id.
+     */
+    public List<ProfissionalDTO> buscarPorCargo(TipoCargo cargo, Long idApos, int limite) {
+        var resultado = new ArrayList<ProfissionalDTO>(limite);
+        for (Long id : porCargo.get(cargo).tailSet(idApos, false)) {
+            var registro = porId.get(id);
+            // o indice de cargo pode estar um passo atras de porId durante uma atualizacao
+            if (nonNull(registro) && registro.cargo == cargo.ordinal()) {
+                resultado.add(registro.paraDTO());
+                if (resultado.size() == limite) {
+                    break;
+                }
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Mesmo criterio de UPPER(nome) LIKE UPPER('%nome%'), mas sem curingas: % e _ sao
+     * procurados literalmente.
+     */
+    public List<ProfissionalDTO> buscarContendoNome(String nome, Long idApos, int limite) {
+        return filtrar(porId.tailMap(idApos, false), registro -> contemIgnorandoCaixa(registro.nome, nome), limite);
+    }
+
+    // Antes do InvalidacaoCacheListener, para que o cache nao seja repopulado com o
+    // estado anterior lido daqui
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void profissionalAlterado(ProfissionalAlteradoEvent evento) {
+        recarregar(Collections.singleton(evento.getIdProfissional()));
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void contatoAlterado(ContatoAlteradoEvent evento) {
+        if (nonNull(evento.getIdProfissional())) {
+            recarregar(Collections.singleton(evento.getIdProfissional()));
+        }
+    }
+
+    // Os profissionais ja nao existem: remove direto, sem consultar o banco
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void profissionaisExcluidos(ProfissionaisExcluidosEvent evento) {
+        if (habilitada) {
+            evento.getIdsProfissionais().forEach(this::remover);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${simplesdental.replica.intervalo-reconciliacao}",
+            initialDelayString = "${simplesdental.replica.intervalo-reconciliacao}")
+    public void reconciliar() {
+        if (!carregada) {
+            return;
+        }
+        var divergentes = new HashSet<Long>();
+        var existentes = new HashSet<Long>(porId.size());
+        leitura.executeWithoutResult(status -> leituraProfissionaisRepository.percorrerVersoes((id, versao) -> {
+            existentes.add(id);
+            var registro = porId.get(id);
+            if (isNull(registro) || registro.versao != versao) {
+                divergentes.add(id);
+            }
+        }));
+        porId.keySet().stream()
+                .filter(id -> !existentes.contains(id))
+                .forEach(divergentes::add);
+
+        recarregar(divergentes);
+        divergentes.forEach(cacheProfissionais::evict);
+    }
+
+    private void recarregar(Set<Long> ids) {
+        if (!habilitada || ids.isEmpty()) {
+            return;
+        }
+        var pendentes = new ArrayList<>(ids);
+        for (int inicio = 0; inicio < pendentes.size(); inicio += tamanhoLoteRecarga) {
+            var lote = List.copyOf(pendentes.subList(inicio, Math.min(inicio + tamanhoLoteRecarga, pendentes.size())));
+            var encontrados = new HashSet<Long>();
+            leitura.executeWithoutResult(status -> leituraProfissionaisRepository.percorrerProfissionaisPorIds(lote, profissional -> {
+                encontrados.add(profissional.getId());
+                aplicar(profissional);
+            }));
+            lote.stream()
+                    .filter(id -> !encontrados.contains(id))
+                    .forEach(this::remover);
+        }
+    }
+
+    private synchronized void aplicar(ProfissionalDTO profissional) {
+        var novo = new RegistroProfissional(profissional);
+        var atual = porId.get(novo.id);
+        if (nonNull(atual) && atual.versao > novo.versao) {
+            return;
+        }
+        porId.put(novo.id, novo);
+        porCargo.get(TipoCargo.values()[novo.cargo]).add(novo.id);
+        if (nonNull(atual) && atual.cargo != novo.cargo) {
+            porCargo.get(TipoCargo.values()[atual.cargo]).remove(novo.id);
+        }
+    }
+
+    private synchronized void remover(Long idProfissional) {
+        var atual = porId.remove(idProfissional);
+        if (nonNull(atual)) {
+            porCargo.get(TipoCargo.values()[atual.cargo]).remove(idProfissional);
+        }
+    }
+
+    private static List<ProfissionalDTO> filtrar(ConcurrentNavigableMap<Long, RegistroProfissional> registros,
+                                                 Predicate<RegistroProfissional> filtro, int limite) {
+        var resultado = new ArrayList<ProfissionalDTO>(limite);
+        for (RegistroProfissional registro : registros.values()) {
+            if (filtro.test(registro)) {
+                resultado.add(registro.paraDTO());
+                if (resultado.size() == limite) {
+                    break;
+                }
+            }
+        }
+        return resultado;
+    }
+
+    private static boolean contemIgnorandoCaixa(String texto, String trecho) {
+        var ultimoInicio = texto.length() - trecho.length();
+        for (int inicio = 0; inicio <= ultimoInicio; inicio++) {
+            if (texto.regionMatches(true, inicio, trecho, 0, trecho.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Forma compacta e imutavel de um profissional: datas e cargo em primitivos e os
+     * contatos em arrays paralelos, sem um objeto por contato. O DTO so e montado na
+     * leitura.
+     */
+    private static final class RegistroProfissional {
+
+        private static final long[] SEM_IDS = new long[0];
+        private static final String[] SEM_TEXTOS = new String[0];
+
+        private final long id;
+        private final String nome;
+        private final byte cargo;
+        private final int nascimento;
+        private final LocalDateTime dataCriacao;
+        private final long versao;
+        private final long[] idsContatos;
+        private final String[] nomesContatos;
+        private final String[] valoresContatos;
+
+        private RegistroProfissional(ProfissionalDTO profissional) {
+            this.id = profissional.getId();
+            this.nome = profissional.getNome();
+            this.cargo = (byte) profissional.getCargo().ordinal();
+            this.nascimento = (int) profissional.getNascimento().toEpochDay();
+            this.dataCriacao = profissional.getDataCriacao();
+            this.versao = isNull(profissional.getVersao()) ? 0L : profissional.getVersao();
+
+            var contatos = isNull(profissional.getContatos())
+                    ? Collections.<ContatoDTO>emptyList() : profissional.getContatos();
+            this.idsContatos = contatos.isEmpty() ? SEM_IDS : new long[contatos.size()];
+            this.nomesContatos = contatos.isEmpty() ? SEM_TEXTOS : new String[contatos.size()];
+            this.valoresContatos = contatos.isEmpty() ? SEM_TEXTOS : new String[contatos.size()];
+            for (int i = 0; i < contatos.size(); i++) {
+                idsContatos[i] = contatos.get(i).getId();
+                nomesContatos[i] = contatos.get(i).getNome();
+                valoresContatos[i] = contatos.get(i).getContato();
+            }
+        }
+
+        private ProfissionalDTO paraDTO() {
+            var profissional = new ProfissionalDTO(id, nome, TipoCargo.values()[cargo],
+                    LocalDate.ofEpochDay(nascimento), dataCriacao, versao);
+            for (int i = 0; i < idsContatos.length; i++) {
+                profissional.getContatos().add(new ContatoDTO(idsContatos[i], nomesContatos[i], valoresContatos[i], id));
+            }
+            return profissional;
+        }
+    }
+}
@@ -0,0 +1,9 @@
+--liquibase formatted sql
+--changeset danilo-hirai:2026-10-18_04 author:danilo-hirai
+
+-- Controle de versao otimista (@Version) e base dos ETags de profissional
+ALTER TABLE profissional ADD COLUMN versao BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE contato ADD COLUMN versao BIGINT NOT NULL DEFAULT 0;
+
+--rollback alter table contato drop column versao;
+--rollback alter table profissional drop column versao;
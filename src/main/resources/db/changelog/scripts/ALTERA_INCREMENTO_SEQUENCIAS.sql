@@ -0,0 +1,9 @@
+--liquibase formatted sql
+--changeset danilo-hirai:2026-10-18_02 author:danilo-hirai
+
+-- O incremento precisa ser igual ao allocationSize das entidades Profissional e Contato
+ALTER SEQUENCE profissional_seq INCREMENT BY 50;
+ALTER SEQUENCE contato_seq INCREMENT BY 50;
+
+--rollback alter sequence profissional_seq increment by 1;
+--rollback alter sequence contato_seq increment by 1;
@@ -0,0 +1,81 @@
+--liquibase formatted sql
+--changeset danilo-hirai:2026-10-18_08 author:danilo-hirai splitStatements:false
+
+-- trg_contato_busca recalculava o vetor do profissional a cada linha de contato: um
+-- lote de n contatos agregava os contatos do profissional n vezes e regravava a linha
+-- dele n vezes. Agora cada comando marca os profissionais afetados uma unica vez, pelas
+-- tabelas de transicao, e o vetor e recalculado no commit, uma vez por profissional.
+-- Profissional excluido na mesma transacao nao e mais regravado: o UPDATE do commit
+-- nao encontra a linha. Ate o commit, a propria transacao ve o vetor anterior
+DROP TRIGGER trg_contato_busca ON contato;
+DROP FUNCTION atualizar_busca_por_contato();
+
+CREATE TABLE profissional_busca_pendente (
+    id_profissional BIGINT PRIMARY KEY
+);
+
+-- Os ramos so referenciam a tabela de transicao que o trigger declara
+CREATE OR REPLACE FUNCTION marcar_busca_por_contato() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO profissional_busca_pendente (id_profissional)
+            SELECT DISTINCT id_profissional FROM novos
+            ON CONFLICT DO NOTHING;
+    ELSIF TG_OP = 'DELETE' THEN
+        INSERT INTO profissional_busca_pendente (id_profissional)
+            SELECT DISTINCT id_profissional FROM antigos
+            ON CONFLICT DO NOTHING;
+    ELSE
+        -- Tabelas de transicao nao aceitam UPDATE OF: as colunas sao comparadas aqui
+        INSERT INTO profissional_busca_pendente (id_profissional)
+            SELECT n.id_profissional FROM novos n JOIN antigos a ON a.id = n.id
+                WHERE (n.nome, n.contato, n.id_profissional) IS DISTINCT FROM (a.nome, a.contato, a.id_profissional)
+            UNION
+            SELECT a.id_profissional FROM novos n JOIN antigos a ON a.id = n.id
+                WHERE n.id_profissional <> a.id_profissional
+            ON CONFLICT DO NOTHING;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_contato_busca_insercao
+    AFTER INSERT ON contato
+    REFERENCING NEW TABLE AS novos
+    FOR EACH STATEMENT EXECUTE PROCEDURE marcar_busca_por_contato();
+
+CREATE TRIGGER trg_contato_busca_alteracao
+    AFTER UPDATE ON contato
+    REFERENCING OLD TABLE AS antigos NEW TABLE AS novos
+    FOR EACH STATEMENT EXECUTE PROCEDURE marcar_busca_por_contato();
+
+CREATE TRIGGER trg_contato_busca_exclusao
+    AFTER DELETE ON contato
+    REFERENCING OLD TABLE AS antigos
+    FOR EACH STATEMENT EXECUTE PROCEDURE marcar_busca_por_contato();
+
+-- A marcacao fica na tabela ate o commit, entao o ON CONFLICT descarta as repetidas da
+-- transacao e o trigger adiado roda uma vez por profissional
+CREATE OR REPLACE FUNCTION recalcular_busca_pendente() RETURNS trigger AS $$
+BEGIN
+    UPDATE profissional p SET busca = vetor_busca_profissional(p.id, p.nome, p.cargo)
+        WHERE p.id = NEW.id_profissional;
+    DELETE FROM profissional_busca_pendente WHERE id_profissional = NEW.id_profissional;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE CONSTRAINT TRIGGER trg_busca_pendente
+    AFTER INSERT ON profissional_busca_pendente
+    DEFERRABLE INITIALLY DEFERRED
+    FOR EACH ROW EXECUTE PROCEDURE recalcular_busca_pendente();
+
+--rollback drop trigger if exists trg_busca_pendente on profissional_busca_pendente;
+--rollback drop trigger if exists trg_contato_busca_exclusao on contato;
+--rollback drop trigger if exists trg_contato_busca_alteracao on contato;
+--rollback drop trigger if exists trg_contato_busca_insercao on contato;
+--rollback drop function if exists recalcular_busca_pendente();
+--rollback drop function if exists marcar_busca_por_contato();
+--rollback drop table if exists profissional_busca_pendente;
+--rollback create or replace function atualizar_busca_por_contato() returns trigger as $$ begin if TG_OP <> 'INSERT' then update profissional p set busca = vetor_busca_profissional(p.id, p.nome, p.cargo) where p.id = OLD.id_profissional; end if; if TG_OP = 'INSERT' or (TG_OP = 'UPDATE' and NEW.id_profissional <> OLD.id_profissional) then update profissional p set busca = vetor_busca_profissional(p.id, p.nome, p.cargo) where p.id = NEW.id_profissional; end if; return null; end; $$ language plpgsql;
+--rollback create trigger trg_contato_busca after insert or update of nome, contato, id_profissional or delete on contato for each row execute procedure atualizar_busca_por_contato();
@@ -0,0 +1,62 @@
+--liquibase formatted sql
+--changeset danilo-hirai:2026-10-18_05 author:danilo-hirai splitStatements:false
+
+-- Vetor de busca textual do profissional: nome (peso A), cargo (peso B) e nome e
+-- contato de todos os contatos (peso C). Configuracao 'simple' para nao aplicar
+-- stemming em nomes proprios, telefones e emails.
+ALTER TABLE profissional ADD COLUMN busca tsvector;
+
+CREATE OR REPLACE FUNCTION vetor_busca_profissional(p_id BIGINT, p_nome TEXT, p_cargo TEXT) RETURNS tsvector AS $$
+    SELECT setweight(to_tsvector('simple', coalesce(p_nome, '')), 'A')
+        || setweight(to_tsvector('simple', coalesce(p_cargo, '')), 'B')
+        || setweight(to_tsvector('simple', coalesce(
+               (SELECT string_agg(c.nome || ' ' || c.contato, ' ') FROM contato c WHERE c.id_profissional = p_id),
+               '')), 'C');
+$$ LANGUAGE sql STABLE;
+
+CREATE OR REPLACE FUNCTION atualizar_busca_profissional() RETURNS trigger AS $$
+BEGIN
+    NEW.busca := vetor_busca_profissional(NEW.id, NEW.nome, NEW.cargo);
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_profissional_busca
+    BEFORE INSERT OR UPDATE OF nome, cargo ON profissional
+    FOR EACH ROW EXECUTE PROCEDURE atualizar_busca_profissional();
+
+-- O UPDATE de busca nao dispara trg_profissional_busca, que so observa nome e cargo
+CREATE OR REPLACE FUNCTION atualizar_busca_por_contato() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP <> 'INSERT' THEN
+        UPDATE profissional p SET busca = vetor_busca_profissional(p.id, p.nome, p.cargo)
+            WHERE p.id = OLD.id_profissional;
+    END IF;
+    IF TG_OP = 'INSERT' THEN
+        UPDATE profissional p SET busca = vetor_busca_profissional(p.id, p.nome, p.cargo)
+            WHERE p.id = NEW.id_profissional;
+    ELSIF TG_OP = 'UPDATE' THEN
+        IF NEW.id_profissional <> OLD.id_profissional THEN
+            UPDATE profissional p SET busca = vetor_busca_profissional(p.id, p.nome, p.cargo)
+                WHERE p.id = NEW.id_profissional;
+        END IF;
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_contato_busca
+    AFTER INSERT OR UPDATE OF nome, contato, id_profissional OR DELETE ON contato
+    FOR EACH ROW EXECUTE PROCEDURE atualizar_busca_por_contato();
+
+UPDATE profissional SET busca = vetor_busca_profissional(id, nome, cargo);
+
+CREATE INDEX idx_profissional_busca ON profissional USING gin (busca);
+
+--rollback drop index if exists idx_profissional_busca;
+--rollback drop trigger if exists trg_contato_busca on contato;
+--rollback drop trigger if exists trg_profissional_busca on profissional;
+--rollback drop function if exists atualizar_busca_por_contato();
+--rollback drop function if exists atualizar_busca_profissional();
+--rollback drop function if exists vetor_busca_profissional(BIGINT, TEXT, TEXT);
+--rollback alter table profissional drop column if exists busca;
@@ -0,0 +1,18 @@
+--liquibase formatted sql
+--changeset danilo-hirai:2026-10-18_07 author:danilo-hirai
+
+-- Outbox das alteracoes de profissionais e contatos, lido pelo feed GET /alteracoes.
+-- As linhas entram na mesma transacao da alteracao e com a tabela bloqueada ate o
+-- commit, entao a sequencia segue a ordem de commit e o feed nunca pula um evento
+CREATE TABLE evento_alteracao (
+    sequencia BIGSERIAL PRIMARY KEY,
+    entidade VARCHAR(20) NOT NULL,
+    id_entidade BIGINT,
+    id_profissional BIGINT,
+    operacao VARCHAR(20) NOT NULL,
+    data_evento TIMESTAMP NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_evento_alteracao_data_evento ON evento_alteracao (data_evento);
+
+--rollback drop table evento_alteracao;
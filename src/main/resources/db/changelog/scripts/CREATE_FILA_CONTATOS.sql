@@ -0,0 +1,11 @@
+--liquibase formatted sql
+--changeset danilo-hirai:2026-10-18_06 author:danilo-hirai
+
+-- Ultima sequencia do log local da fila de contatos ja gravada no banco. Atualizada na
+-- mesma transacao dos INSERTs, entao um lote nunca e aplicado duas vezes apos um restart
+CREATE TABLE fila_contato_posicao (
+    fila VARCHAR(100) PRIMARY KEY,
+    ultima_sequencia BIGINT NOT NULL
+);
+
+--rollback drop table fila_contato_posicao;
@@ -0,0 +1,27 @@
+--liquibase formatted sql
+--changeset danilo-hirai:2026-10-18_03 author:danilo-hirai
+
+-- Contatos de um profissional (fetch join, contagem por profissional e orphanRemoval no delete)
+CREATE INDEX idx_contato_profissional_id
+    ON contato (id_profissional, id);
+
+-- Listagem por cargo com keyset: WHERE cargo = ? AND id > ? ORDER BY id
+CREATE INDEX idx_profissional_cargo_id
+    ON profissional (cargo, id);
+
+-- Contagem de cadastros por dia
+CREATE INDEX idx_profissional_data_criacao
+    ON profissional (data_criacao);
+
+-- UPPER(...) precisa bater com as expressoes de ContatoRepository
+CREATE INDEX idx_contato_nome_trgm
+    ON contato USING gin (UPPER(nome) gin_trgm_ops);
+
+CREATE INDEX idx_contato_contato_trgm
+    ON contato USING gin (UPPER(contato) gin_trgm_ops);
+
+--rollback drop index if exists idx_contato_contato_trgm;
+--rollback drop index if exists idx_contato_nome_trgm;
+--rollback drop index if exists idx_profissional_data_criacao;
+--rollback drop index if exists idx_profissional_cargo_id;
+--rollback drop index if exists idx_contato_profissional_id;
@@ -0,0 +1,9 @@
+--liquibase formatted sql
+--changeset danilo-hirai:2026-10-18_01 author:danilo-hirai
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX idx_profissional_nome_trgm
+    ON profissional USING gin (UPPER(nome) gin_trgm_ops);
+
+--rollback drop index if exists idx_profissional_nome_trgm;
@@ -0,0 +1,92 @@
+package com.simplesdental;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.simplesdental.config.ExecutorConsultas;
+import com.simplesdental.dtos.EventoAlteracaoDTO;
+import com.simplesdental.dtos.FeedAlteracoesDTO;
+import com.simplesdental.enums.TipoEntidade;
+import com.simplesdental.enums.TipoOperacao;
+import com.simplesdental.exceptions.InvalidAttributeException;
+import com.simplesdental.repositories.EventoAlteracaoRepository;
+import com.simplesdental.services.AlteracoesService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AlteracoesServiceTest {
+
+    private EventoAlteracaoRepository eventoAlteracaoRepository;
+
+    private AlteracoesService alteracoesService;
+
+    @BeforeEach
+    public void init() {
+        this.eventoAlteracaoRepository = mock(EventoAlteracaoRepository.class);
+        this.alteracoesService = new AlteracoesService(eventoAlteracaoRepository,
+                new ExecutorConsultas(false, 1, 1, new SimpleMeterRegistry()),
+                7);
+    }
+
+    @Test
+    void deveResponderNaHoraQuandoHaEventosAposASequencia() {
+        when(eventoAlteracaoRepository.buscarDesde(10L, 100))
+                .thenReturn(List.of(evento(11L), evento(12L)));
+
+        var resultado = alteracoesService.buscar(10L, null, 20);
+
+        var feed = (FeedAlteracoesDTO) resultado.getResult();
+        Assertions.assertEquals(2, feed.getEventos().size());
+        Assertions.assertEquals(12L, feed.getProximaSequencia());
+    }
+
+    @Test
+    void deveAguardarAteONotificarQuandoNaoHaEventos() {
+        when(eventoAlteracaoRepository.buscarDesde(12L, 50)).thenReturn(List.of(), List.of(evento(13L)));
+        when(eventoAlteracaoRepository.buscarUltimaSequencia()).thenReturn(12L, 13L);
+
+        var resultado = alteracoesService.buscar(12L, 50, 20);
+        Assertions.assertFalse(resultado.hasResult());
+
+        alteracoesService.verificar();
+        Assertions.assertFalse(resultado.hasResult());
+
+        alteracoesService.notificar();
+        var feed = (FeedAlteracoesDTO) resultado.getResult();
+        Assertions.assertEquals(13L, feed.getProximaSequencia());
+        Assertions.assertEquals(TipoEntidade.CONTATO, feed.getEventos().get(0).getEntidade());
+    }
+
+    @Test
+    void deveResponderVazioSemEsperaMantendoASequencia() {
+        when(eventoAlteracaoRepository.buscarDesde(5L, 100)).thenReturn(List.of());
+
+        var feed = (FeedAlteracoesDTO) alteracoesService.buscar(5L, null, null).getResult();
+
+        Assertions.assertTrue(feed.getEventos().isEmpty());
+        Assertions.assertEquals(5L, feed.getProximaSequencia());
+        alteracoesService.notificar();
+        verify(eventoAlteracaoRepository, never()).buscarUltimaSequencia();
+    }
+
+    @Test
+    void deveValidarParametros() {
+        Assertions.assertThrows(InvalidAttributeException.class, () -> alteracoesService.buscar(-1L, null, null));
+        Assertions.assertThrows(InvalidAttributeException.class, () -> alteracoesService.buscar(0L, 1001, null));
+        Assertions.assertThrows(InvalidAttributeException.class, () -> alteracoesService.buscar(0L, null, 31));
+    }
+
+    private static EventoAlteracaoDTO evento(Long sequencia) {
+        return new EventoAlteracaoDTO(sequencia, TipoEntidade.CONTATO, sequencia, 1L, TipoOperacao.CRIACAO,
+                LocalDateTime.now());
+    }
+}
@@ -0,0 +1,116 @@
+package com.simplesdental;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.simplesdental.dtos.ContatoDTO;
+import com.simplesdental.dtos.ProfissionalDTO;
+import com.simplesdental.enums.TipoCargo;
+import com.simplesdental.services.ContatoService;
+import com.simplesdental.services.ProfissionalService;
+
+/**
+ * Garante que as listagens executam um numero fixo de consultas, independente
+ * da quantidade de profissionais e contatos retornados.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ConsultasDeListagemTest {
+
+    private static final int QUANTIDADE_PROFISSIONAIS = 20;
+    private static final int QUANTIDADE_CONTATOS = 3;
+    private static final long MAXIMO_CONSULTAS_PROFISSIONAL = 2;
+    private static final long MAXIMO_CONSULTAS_CONTATO = 1;
+
+    @Autowired
+    private ProfissionalService profissionalService;
+
+    @Autowired
+    private ContatoService contatoService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private String nome;
+
+    @BeforeEach
+    public void init() {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.nome = UUID.randomUUID().toString();
+
+        for (int i = 0; i < QUANTIDADE_PROFISSIONAIS; i++) {
+            profissionalService.criarProfissional(geraProfissionalParaTeste());
+        }
+        statistics.clear();
+    }
+
+    @AfterEach
+    public void limpar() {
+        profissionalService.buscarContidosNoNome(nome, null, QUANTIDADE_PROFISSIONAIS)
+                .getItens()
+                .forEach(profissional -> profissionalService.excluirProfissional(profissional.getId()));
+    }
+
+    @Test
+    void deveBuscarProfissionaisPeloNomeComQuantidadeFixaDeConsultas() {
+        var retorno = profissionalService.buscarContidosNoNome(nome, null, QUANTIDADE_PROFISSIONAIS);
+
+        Assertions.assertEquals(QUANTIDADE_PROFISSIONAIS, retorno.getItens().size());
+        retorno.getItens().forEach(profissional ->
+                Assertions.assertEquals(QUANTIDADE_CONTATOS, profissional.getContatos().size()));
+        Assertions.assertTrue(statistics.getPrepareStatementCount() <= MAXIMO_CONSULTAS_PROFISSIONAL);
+    }
+
+    @Test
+    void deveBuscarProfissionaisPorRelevanciaComQuantidadeFixaDeConsultas() {
+        var retorno = profissionalService.buscarContidosNoNomePorRelevancia(nome, QUANTIDADE_PROFISSIONAIS);
+
+        Assertions.assertEquals(QUANTIDADE_PROFISSIONAIS, retorno.getItens().size());
+        Assertions.assertTrue(statistics.getPrepareStatementCount() <= MAXIMO_CONSULTAS_PROFISSIONAL);
+    }
+
+    @Test
+    void deveBuscarProfissionaisPeloCargoComQuantidadeFixaDeConsultas() {
+        var retorno = profissionalService.buscarPorCargo(TipoCargo.SUPORTE, null, 500);
+
+        Assertions.assertFalse(retorno.getItens().isEmpty());
+        Assertions.assertTrue(statistics.getPrepareStatementCount() <= MAXIMO_CONSULTAS_PROFISSIONAL);
+    }
+
+    @Test
+    void deveBuscarContatosPeloNomeComQuantidadeFixaDeConsultas() {
+        var retorno = contatoService.buscarContidosNoNomeOuContato(nome, null, null, 500);
+
+        Assertions.assertEquals(QUANTIDADE_PROFISSIONAIS * QUANTIDADE_CONTATOS, retorno.getItens().size());
+        Assertions.assertTrue(statistics.getPrepareStatementCount() <= MAXIMO_CONSULTAS_CONTATO);
+    }
+
+    private ProfissionalDTO geraProfissionalParaTeste() {
+        var contatos = new ArrayList<ContatoDTO>();
+        for (int i = 0; i < QUANTIDADE_CONTATOS; i++) {
+            contatos.add(new ContatoDTO(null, nome, "contato" + i, null));
+        }
+
+        var profissional = new ProfissionalDTO();
+        profissional.setNome(nome);
+        profissional.setCargo(TipoCargo.SUPORTE);
+        profissional.setNascimento(LocalDate.of(1990, 3, 20));
+        profissional.setContatos(List.copyOf(contatos));
+        return profissional;
+    }
+
+}
@@ -1,6 +1,7 @@
 package com.simplesdental;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -13,10 +14,14 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
 
 import com.simplesdental.dtos.ContatoDTO;
 import com.simplesdental.entities.Contato;
 import com.simplesdental.entities.Profissional;
+import com.simplesdental.events.ContatoAlteradoEvent;
+import com.simplesdental.events.ProfissionalAlteradoEvent;
 import com.simplesdental.exceptions.EntityNotFoundException;
 import com.simplesdental.exceptions.InvalidAttributeException;
 import com.simplesdental.repositories.ContatoRepository;
@@ -29,14 +34,18 @@ class ContatoServiceTest {
 
     private ProfissionalRepository profissionalRepository;
 
+    private ApplicationEventPublisher eventPublisher;
+
     private ContatoService contatoService;
 
     @BeforeEach
     public void init() {
         this.contatoRepository = mock(ContatoRepository.class);
         this.profissionalRepository = mock(ProfissionalRepository.class);
+        this.eventPublisher = mock(ApplicationEventPublisher.class);
         this.contatoService = new ContatoService(contatoRepository,
-                profissionalRepository);
+                profissionalRepository,
+                eventPublisher);
     }
 
     @Test
@@ -78,8 +87,13 @@ class ContatoServiceTest {
 
         when(contatoRepository.findById(idContato)).thenReturn(Optional.of(contato));
 
+        var eventoCaptor = ArgumentCaptor.forClass(ContatoAlteradoEvent.class);
+
         var retorno = contatoService.excluirContato(idContato);
         verify(contatoRepository, times(1)).deleteById(idContato);
+        verify(eventPublisher, times(1)).publishEvent(eventoCaptor.capture());
+        Assertions.assertEquals(idContato, eventoCaptor.getValue().getIdContato());
+        Assertions.assertEquals(idProfissional, eventoCaptor.getValue().getIdProfissional());
         Assertions.assertEquals("Contato de id: 1 excluido com sucesso", retorno);
 
     }
@@ -207,40 +221,68 @@ class ContatoServiceTest {
         Assertions.assertEquals(contatoDto.getContato(), entidadeCapturada.getContato());
         Assertions.assertEquals(idProfissional, entidadeCapturada.getProfissional().getId());
         Assertions.assertEquals("Contato atualizado com sucesso", retorno);
+        verify(eventPublisher, times(1)).publishEvent(any(ContatoAlteradoEvent.class));
+        verify(eventPublisher, times(0)).publishEvent(any(ProfissionalAlteradoEvent.class));
+
+    }
+
+    @Test
+    void deveInvalidarProfissionalAntigoAoTransferirContato() {
+        var idContato = 1L;
+        var idProfissionalAntigo = 2L;
+        var idProfissionalNovo = 3L;
+
+        var contato = geraContatoParaTeste(idContato, idProfissionalAntigo);
+        var contatoDto = new ContatoDTO(geraContatoParaTeste(idContato, idProfissionalNovo));
+
+        var eventoCaptor = ArgumentCaptor.forClass(Object.class);
+
+        when(contatoRepository.findById(idContato)).thenReturn(Optional.of(contato));
+        when(profissionalRepository.findById(idProfissionalNovo))
+                .thenReturn(Optional.of(Profissional.builder().withId(idProfissionalNovo).build()));
+        contatoService.atualizarContato(contatoDto);
+
+        verify(eventPublisher, times(2)).publishEvent(eventoCaptor.capture());
+        var contatoAlterado = (ContatoAlteradoEvent) eventoCaptor.getAllValues().get(0);
+        var profissionalAlterado = (ProfissionalAlteradoEvent) eventoCaptor.getAllValues().get(1);
+        Assertions.assertEquals(idProfissionalNovo, contatoAlterado.getIdProfissional());
+        Assertions.assertEquals(idProfissionalAntigo, profissionalAlterado.getIdProfissional());
 
     }
 
     @Test
     void deveBuscarContatosPeloNome() {
-        var primeiroContato = geraContatoParaTeste(1L, 2L);
-        var segundoContato = geraContatoParaTeste(3L, 4L);
+        var primeiroContato = new ContatoDTO(geraContatoParaTeste(1L, 2L));
+        var segundoContato = new ContatoDTO(geraContatoParaTeste(3L, 4L));
 
         var nome = "nome";
 
-        when(contatoRepository.buscarContatosContendoNome(nome))
+        when(contatoRepository.buscarContatosContendoNome(eq(nome), eq(0L), any(Pageable.class)))
                 .thenReturn(Arrays.asList(primeiroContato, segundoContato));
-        var retorno = contatoService.buscarContidosNoNomeOuContato(nome, null);
+        var retorno = contatoService.buscarContidosNoNomeOuContato(nome, null, null, null);
 
-        verify(contatoRepository, times(1)).buscarContatosContendoNome(nome);
-        verify(contatoRepository, times(0)).buscarContatosContendoContato(any());
-        Assertions.assertEquals(2, retorno.size());
+        verify(contatoRepository, times(1)).buscarContatosContendoNome(eq(nome), eq(0L), any(Pageable.class));
+        verify(contatoRepository, times(0)).buscarContatosContendoContato(any(), any(), any());
+        Assertions.assertEquals(2, retorno.getItens().size());
+        Assertions.assertNull(retorno.getProximoCursor());
 
     }
 
     @Test
     void deveBuscarContatosPeloContato() {
-        var primeiroContato = geraContatoParaTeste(1L, 2L);
-        var segundoContato = geraContatoParaTeste(3L, 4L);
+        var primeiroContato = new ContatoDTO(geraContatoParaTeste(1L, 2L));
+        var segundoContato = new ContatoDTO(geraContatoParaTeste(3L, 4L));
 
         var contato = "contato";
 
-        when(contatoRepository.buscarContatosContendoContato(contato))
+        when(contatoRepository.buscarContatosContendoContato(eq(contato), eq(0L), any(Pageable.class)))
                 .thenReturn(Arrays.asList(primeiroContato, segundoContato));
-        var retorno = contatoService.buscarContidosNoNomeOuContato(null, contato);
+        var retorno = contatoService.buscarContidosNoNomeOuContato(null, contato, null, 1);
 
-        verify(contatoRepository, times(0)).buscarContatosContendoNome(any());
-        verify(contatoRepository, times(1)).buscarContatosContendoContato(contato);
-        Assertions.assertEquals(2, retorno.size());
+        verify(contatoRepository, times(0)).buscarContatosContendoNome(any(), any(), any());
+        verify(contatoRepository, times(1)).buscarContatosContendoContato(eq(contato), eq(0L), any(Pageable.class));
+        Assertions.assertEquals(1, retorno.getItens().size());
+        Assertions.assertNotNull(retorno.getProximoCursor());
 
     }
 
@@ -248,11 +290,11 @@ class ContatoServiceTest {
     void deveRetornarExcecaoDeNomeEContatoNaoInformados() {
 
         Assertions.assertThrows(InvalidAttributeException.class,
-                () -> contatoService.buscarContidosNoNomeOuContato(null, null),
+                () -> contatoService.buscarContidosNoNomeOuContato(null, null, null, null),
                 "Contato não pode ser atualizado, id nulo");
 
-        verify(contatoRepository, times(0)).buscarContatosContendoNome(any());
-        verify(contatoRepository, times(0)).buscarContatosContendoContato(any());
+        verify(contatoRepository, times(0)).buscarContatosContendoNome(any(), any(), any());
+        verify(contatoRepository, times(0)).buscarContatosContendoContato(any(), any(), any());
 
     }
 
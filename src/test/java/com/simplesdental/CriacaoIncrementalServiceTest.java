@@ -0,0 +1,171 @@
+package com.simplesdental;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simplesdental.dtos.ContatoDTO;
+import com.simplesdental.dtos.ProfissionalDTO;
+import com.simplesdental.exceptions.InvalidAttributeException;
+import com.simplesdental.exceptions.PayloadMuitoGrandeException;
+import com.simplesdental.repositories.EventoAlteracaoRepository;
+import com.simplesdental.repositories.InsercaoEmLoteRepository;
+import com.simplesdental.services.CriacaoIncrementalService;
+import com.simplesdental.services.ProfissionalService;
+
+class CriacaoIncrementalServiceTest {
+
+    private static final int TAMANHO_LOTE = 2;
+
+    private static final String CAMPOS_PROFISSIONAL =
+            "\"nome\":\"Paulo\",\"cargo\":\"DESENVOLVEDOR\",\"nascimento\":\"12/01/1990\"";
+
+    private InsercaoEmLoteRepository insercaoEmLoteRepository;
+
+    private EventoAlteracaoRepository eventoAlteracaoRepository;
+
+    private ProfissionalService profissionalService;
+
+    private CriacaoIncrementalService criacaoIncrementalService;
+
+    private final List<Integer> tamanhosLotes = new ArrayList<>();
+
+    @BeforeEach
+    public void init() {
+        this.insercaoEmLoteRepository = mock(InsercaoEmLoteRepository.class);
+        this.eventoAlteracaoRepository = mock(EventoAlteracaoRepository.class);
+        this.profissionalService = mock(ProfissionalService.class);
+        this.criacaoIncrementalService = new CriacaoIncrementalService(insercaoEmLoteRepository,
+                eventoAlteracaoRepository,
+                profissionalService,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                mock(ApplicationEventPublisher.class),
+                new ObjectMapper().findAndRegisterModules(),
+                TAMANHO_LOTE);
+
+        doAnswer(invocacao -> {
+            List<ProfissionalDTO> profissionais = invocacao.getArgument(0);
+            profissionais.get(0).setId(7L);
+            return null;
+        }).when(insercaoEmLoteRepository).inserirProfissionais(anyList());
+        // o service reaproveita a lista do lote, entao o tamanho e guardado na chamada
+        doAnswer(invocacao -> {
+            List<ContatoDTO> contatos = invocacao.getArgument(0);
+            tamanhosLotes.add(contatos.size());
+            Assertions.assertTrue(contatos.stream().allMatch(contato -> contato.getIdProfissional() == 7L));
+            return null;
+        }).when(insercaoEmLoteRepository).inserirContatos(anyList());
+    }
+
+    @Test
+    void deveInserirContatosEmLotesEnquantoLeOCorpo() throws Exception {
+        var corpo = "{" + CAMPOS_PROFISSIONAL + ",\"contatos\":["
+                + "{\"nome\":\"celular\",\"contato\":\"1\"},"
+                + "{\"nome\":\"celular\",\"contato\":\"2\"},"
+                + "{\"id\":30,\"nome\":\"email\",\"contato\":\"a@b.com\"},"
+                + "{\"nome\":\"celular\",\"contato\":\"3\"}]}";
+
+        var retorno = criacaoIncrementalService.criarProfissional(paraStream(corpo));
+
+        Assertions.assertEquals("Profissional criado com sucesso", retorno);
+        Assertions.assertEquals(List.of(2, 1), tamanhosLotes);
+        verify(profissionalService).vincularContatosExistentes(any(), anyList());
+        verify(eventoAlteracaoRepository).registrarCriacaoProfissional(7L, List.of(30L));
+    }
+
+    @Test
+    void deveValidarProfissionalAntesDeLerOsContatos() {
+        var corpo = "{\"nome\":\"Paulo\",\"cargo\":\"DESENVOLVEDOR\",\"nascimento\":null,\"contatos\":[{\"nome\":";
+
+        var excecao = Assertions.assertThrows(InvalidAttributeException.class,
+                () -> criacaoIncrementalService.criarProfissional(paraStream(corpo)));
+
+        Assertions.assertEquals("Profissional não possui data de nascimento antes de contatos", excecao.getMessage());
+        verify(insercaoEmLoteRepository, never()).inserirProfissionais(anyList());
+    }
+
+    @Test
+    void deveRejeitarContatoInvalidoInformandoAPosicao() {
+        var corpo = "{" + CAMPOS_PROFISSIONAL + ",\"contatos\":["
+                + "{\"nome\":\"celular\",\"contato\":\"1\"},{\"nome\":\"celular\"}]}";
+
+        var excecao = Assertions.assertThrows(InvalidAttributeException.class,
+                () -> criacaoIncrementalService.criarProfissional(paraStream(corpo)));
+
+        Assertions.assertEquals("Contato 1: Contato não possui contato", excecao.getMessage());
+        verify(insercaoEmLoteRepository, never()).inserirProfissionais(anyList());
+        verify(eventoAlteracaoRepository, never()).registrarCriacaoProfissional(anyLong(), anyList());
+    }
+
+    @Test
+    void deveManterExcessoDeTamanhoNoMeioDeUmContato() {
+        var corpo = "{" + CAMPOS_PROFISSIONAL + ",\"contatos\":["
+                + "{\"nome\":\"celular\",\"contato\":\"" + "9".repeat(30000) + "\"}]}";
+
+        Assertions.assertThrows(PayloadMuitoGrandeException.class,
+                () -> criacaoIncrementalService.criarProfissional(limitado(paraStream(corpo), 10000)));
+        verify(insercaoEmLoteRepository, never()).inserirProfissionais(anyList());
+    }
+
+    @Test
+    void deveAceitarCamposDoProfissionalDepoisDosContatos() throws Exception {
+        var corpo = "{\"contatos\":[{\"nome\":\"celular\",\"contato\":\"1\"}]," + CAMPOS_PROFISSIONAL + "}";
+
+        var retorno = criacaoIncrementalService.criarProfissional(paraStream(corpo));
+
+        Assertions.assertEquals("Profissional criado com sucesso", retorno);
+        Assertions.assertEquals(List.of(1), tamanhosLotes);
+    }
+
+    @Test
+    void deveValidarProfissionalNoFimQuandoOsContatosVemPrimeiro() {
+        var corpo = "{\"nome\":\"Paulo\",\"contatos\":[{\"nome\":\"celular\",\"contato\":\"1\"}],"
+                + "\"cargo\":\"DESENVOLVEDOR\"}";
+
+        var excecao = Assertions.assertThrows(InvalidAttributeException.class,
+                () -> criacaoIncrementalService.criarProfissional(paraStream(corpo)));
+
+        Assertions.assertEquals("Profissional não possui data de nascimento", excecao.getMessage());
+        verify(insercaoEmLoteRepository, never()).inserirProfissionais(anyList());
+    }
+
+    private static InputStream paraStream(String corpo) {
+        return new ByteArrayInputStream(corpo.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // como a entrada do LimiteTamanhoRequisicaoFilter: falha ao ler alem do limite
+    private static InputStream limitado(InputStream entrada, int limite) {
+        return new FilterInputStream(entrada) {
+            private int lidos;
+
+            @Override
+            public int read(byte[] destino, int inicio, int tamanho) throws IOException {
+                var quantidade = super.read(destino, inicio, tamanho);
+                if (quantidade > 0 && (lidos += quantidade) > limite) {
+                    throw new PayloadMuitoGrandeException("Corpo da requisição excede o limite");
+                }
+                return quantidade;
+            }
+        };
+    }
+}
@@ -0,0 +1,97 @@
+package com.simplesdental;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigInteger;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import com.simplesdental.enums.TipoCargo;
+import com.simplesdental.exceptions.InvalidAttributeException;
+import com.simplesdental.repositories.ProfissionalRepository;
+import com.simplesdental.services.EstatisticasService;
+
+class EstatisticasServiceTest {
+
+    private ProfissionalRepository profissionalRepository;
+
+    private EstatisticasService estatisticasService;
+
+    @BeforeEach
+    public void init() {
+        this.profissionalRepository = mock(ProfissionalRepository.class);
+        this.estatisticasService = new EstatisticasService(profissionalRepository);
+    }
+
+    @Test
+    void deveContarTodosOsCargosInclusiveSemProfissionais() {
+        when(profissionalRepository.contarPorCargo())
+                .thenReturn(Collections.singletonList(new Object[]{TipoCargo.DESENVOLVEDOR, 3L}));
+
+        var retorno = estatisticasService.contarPorCargo();
+
+        Assertions.assertEquals(TipoCargo.values().length, retorno.size());
+        for (var contagem : retorno) {
+            var esperado = TipoCargo.DESENVOLVEDOR.name().equals(contagem.getChave()) ? 3L : 0L;
+            Assertions.assertEquals(esperado, contagem.getTotal());
+        }
+    }
+
+    @Test
+    void deveContarContatosPorProfissionalPaginado() {
+        when(profissionalRepository.contarContatosPorProfissional(eq(0L), any(Pageable.class)))
+                .thenReturn(Arrays.asList(new Object[]{1L, 2L}, new Object[]{5L, 0L}, new Object[]{7L, 1L}));
+
+        var retorno = estatisticasService.contarContatosPorProfissional(null, 2);
+
+        Assertions.assertEquals(2, retorno.getItens().size());
+        Assertions.assertEquals("5", retorno.getItens().get(1).getChave());
+        Assertions.assertEquals(0L, retorno.getItens().get(1).getTotal());
+        Assertions.assertNotNull(retorno.getProximoCursor());
+    }
+
+    @Test
+    void deveMontarFaixasEtarias() {
+        when(profissionalRepository.contarPorFaixaEtaria(10))
+                .thenReturn(Collections.singletonList(new Object[]{30, BigInteger.valueOf(4)}));
+
+        var retorno = estatisticasService.contarPorFaixaEtaria(null);
+
+        Assertions.assertEquals("30-39", retorno.get(0).getChave());
+        Assertions.assertEquals(4L, retorno.get(0).getTotal());
+        Assertions.assertThrows(InvalidAttributeException.class,
+                () -> estatisticasService.contarPorFaixaEtaria(0),
+                "Amplitude da faixa etária deve estar entre 1 e 100");
+    }
+
+    @Test
+    void deveCompletarDiasSemCriacoesComZero() {
+        var inicio = LocalDate.of(2021, 10, 1);
+        var fim = LocalDate.of(2021, 10, 3);
+        when(profissionalRepository.contarCriacoesPorDia(inicio.atStartOfDay(), fim.plusDays(1).atStartOfDay()))
+                .thenReturn(Collections.singletonList(new Object[]{Date.valueOf(inicio.plusDays(1)), BigInteger.TEN}));
+
+        var retorno = estatisticasService.contarCriacoesPorDia(inicio, fim);
+
+        verify(profissionalRepository).contarCriacoesPorDia(inicio.atStartOfDay(), fim.plusDays(1).atStartOfDay());
+        Assertions.assertEquals(3, retorno.size());
+        Assertions.assertEquals(0L, retorno.get(0).getTotal());
+        Assertions.assertEquals("2021-10-02", retorno.get(1).getChave());
+        Assertions.assertEquals(10L, retorno.get(1).getTotal());
+        Assertions.assertThrows(InvalidAttributeException.class,
+                () -> estatisticasService.contarCriacoesPorDia(fim, inicio),
+                "Data de início deve ser anterior ou igual à data de fim");
+    }
+
+}
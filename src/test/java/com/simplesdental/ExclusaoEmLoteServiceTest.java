@@ -0,0 +1,92 @@
+package com.simplesdental;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.simplesdental.dtos.ExclusaoEmLoteDTO;
+import com.simplesdental.enums.TipoCargo;
+import com.simplesdental.events.ProfissionaisExcluidosEvent;
+import com.simplesdental.exceptions.InvalidAttributeException;
+import com.simplesdental.repositories.ExclusaoEmLoteRepository;
+import com.simplesdental.services.ExclusaoEmLoteService;
+
+class ExclusaoEmLoteServiceTest {
+
+    private static final int TAMANHO_LOTE = 2;
+
+    private ExclusaoEmLoteRepository exclusaoEmLoteRepository;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private ExclusaoEmLoteService exclusaoEmLoteService;
+
+    @BeforeEach
+    public void init() {
+        this.exclusaoEmLoteRepository = mock(ExclusaoEmLoteRepository.class);
+        this.eventPublisher = mock(ApplicationEventPublisher.class);
+        this.exclusaoEmLoteService = new ExclusaoEmLoteService(exclusaoEmLoteRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                eventPublisher,
+                TAMANHO_LOTE);
+    }
+
+    @Test
+    void deveExcluirPorIdsEmLotesRelatandoNaoEncontrados() {
+        when(exclusaoEmLoteRepository.bloquearProfissionais(List.of(1L, 2L))).thenReturn(List.of(1L, 2L));
+        when(exclusaoEmLoteRepository.bloquearProfissionais(List.of(3L))).thenReturn(List.of());
+        when(exclusaoEmLoteRepository.excluirContatosDosProfissionais(List.of(1L, 2L))).thenReturn(List.of(10L, 11L, 12L));
+        when(exclusaoEmLoteRepository.excluirProfissionais(List.of(1L, 2L))).thenReturn(2);
+
+        var retorno = exclusaoEmLoteService.excluir(new ExclusaoEmLoteDTO(List.of(1L, 2L, 2L, 3L), null));
+
+        var eventoCaptor = ArgumentCaptor.forClass(ProfissionaisExcluidosEvent.class);
+        verify(eventPublisher).publishEvent(eventoCaptor.capture());
+        verify(exclusaoEmLoteRepository, times(1)).excluirProfissionais(anyCollection());
+        Assertions.assertEquals(List.of(1L, 2L), eventoCaptor.getValue().getIdsProfissionais());
+        Assertions.assertEquals(List.of(10L, 11L, 12L), eventoCaptor.getValue().getIdsContatos());
+        Assertions.assertEquals(2, retorno.getProfissionaisExcluidos());
+        Assertions.assertEquals(3, retorno.getContatosExcluidos());
+        Assertions.assertEquals(1, retorno.getLotes());
+        Assertions.assertEquals(List.of(3L), retorno.getIdsNaoEncontrados());
+    }
+
+    @Test
+    void deveExcluirPorCargoAteNaoRestarProfissionais() {
+        when(exclusaoEmLoteRepository.bloquearProfissionaisPorCargo(TipoCargo.SUPORTE, TAMANHO_LOTE))
+                .thenReturn(List.of(1L, 2L), List.of(3L, 4L), List.of());
+        when(exclusaoEmLoteRepository.excluirContatosDosProfissionais(anyCollection())).thenReturn(List.of(10L));
+
+        var retorno = exclusaoEmLoteService.excluir(new ExclusaoEmLoteDTO(null, TipoCargo.SUPORTE));
+
+        verify(exclusaoEmLoteRepository, times(3)).bloquearProfissionaisPorCargo(TipoCargo.SUPORTE, TAMANHO_LOTE);
+        verify(eventPublisher, times(2)).publishEvent(any(ProfissionaisExcluidosEvent.class));
+        Assertions.assertEquals(4, retorno.getProfissionaisExcluidos());
+        Assertions.assertEquals(2, retorno.getContatosExcluidos());
+        Assertions.assertEquals(2, retorno.getLotes());
+    }
+
+    @Test
+    void deveExigirIdsOuCargo() {
+        var semFiltro = new ExclusaoEmLoteDTO(List.of(), null);
+        var comOsDois = new ExclusaoEmLoteDTO(List.of(1L), TipoCargo.TESTER);
+
+        Assertions.assertThrows(InvalidAttributeException.class, () -> exclusaoEmLoteService.excluir(semFiltro));
+        Assertions.assertThrows(InvalidAttributeException.class, () -> exclusaoEmLoteService.excluir(comOsDois));
+        verify(exclusaoEmLoteRepository, never()).excluirProfissionais(anyCollection());
+    }
+}
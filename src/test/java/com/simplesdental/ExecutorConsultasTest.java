@@ -0,0 +1,69 @@
+package com.simplesdental;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import com.simplesdental.config.ExecutorConsultas;
+import com.simplesdental.exceptions.EntityNotFoundException;
+import com.simplesdental.exceptions.ServicoIndisponivelException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ExecutorConsultasTest {
+
+    @Test
+    void deveExecutarConsultaForaDaThreadDaRequisicao() throws InterruptedException, ExecutionException, TimeoutException {
+        var executorConsultas = new ExecutorConsultas(true, 1, 1, new SimpleMeterRegistry());
+
+        var threadDaConsulta = executorConsultas.executar(() -> Thread.currentThread().getName())
+                .get(5, TimeUnit.SECONDS);
+
+        Assertions.assertTrue(threadDaConsulta.startsWith("consulta-"));
+        executorConsultas.destroy();
+    }
+
+    @Test
+    void deveRecusarConsultasAlemDoPoolEDaFila() throws InterruptedException {
+        var executorConsultas = new ExecutorConsultas(true, 1, 1, new SimpleMeterRegistry());
+        var liberar = new CountDownLatch(1);
+
+        executorConsultas.executar(() -> aguardar(liberar));
+        executorConsultas.executar(() -> aguardar(liberar));
+
+        Assertions.assertThrows(ServicoIndisponivelException.class,
+                () -> executorConsultas.executar(() -> aguardar(liberar)),
+                "Limite de consultas simultâneas atingido, tente novamente");
+
+        liberar.countDown();
+        executorConsultas.destroy();
+    }
+
+    @Test
+    void deveExecutarNaPropriaThreadQuandoDesabilitado() {
+        var executorConsultas = new ExecutorConsultas(false, 1, 1, new SimpleMeterRegistry());
+
+        var retorno = executorConsultas.executar(() -> Thread.currentThread().getName());
+
+        Assertions.assertTrue(retorno.isDone());
+        Assertions.assertEquals(Thread.currentThread().getName(), retorno.join());
+        Assertions.assertThrows(EntityNotFoundException.class,
+                () -> executorConsultas.executar(() -> {
+                    throw new EntityNotFoundException("Profissional de id: 1 não encontrado");
+                }));
+    }
+
+    private Boolean aguardar(CountDownLatch liberar) {
+        try {
+            return liberar.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,144 @@
+package com.simplesdental;
+
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.simplesdental.dtos.ContatoDTO;
+import com.simplesdental.dtos.ProfissionalDTO;
+import com.simplesdental.enums.TipoCargo;
+import com.simplesdental.repositories.InsercaoEmLoteRepository;
+import com.simplesdental.services.ExportacaoService;
+
+/**
+ * Exporta do banco uma massa que ocuparia dezenas de MB se o resultado fosse todo
+ * carregado e mede a memoria retida no meio da escrita: com o cursor, so o lote do
+ * fetch-size e o profissional atual ficam em memoria.
+ */
+@SpringBootTest(properties = "simplesdental.exportacao.fetch-size=100")
+class ExportacaoEmStreamingTest {
+
+    private static final int QUANTIDADE_PROFISSIONAIS = 2000;
+    private static final int CONTATOS_POR_PROFISSIONAL = 20;
+    private static final int TAMANHO_CONTATO = 1000;
+    private static final long BYTES_ANTES_DA_MEDICAO = 10L * 1024 * 1024;
+    private static final long MAXIMO_RETIDO = 16L * 1024 * 1024;
+
+    @Autowired
+    private ExportacaoService exportacaoService;
+
+    @Autowired
+    private InsercaoEmLoteRepository insercaoEmLoteRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private String nome;
+
+    @BeforeEach
+    public void init() {
+        this.nome = UUID.randomUUID().toString();
+        var profissionais = new ArrayList<ProfissionalDTO>(QUANTIDADE_PROFISSIONAIS);
+        for (int i = 0; i < QUANTIDADE_PROFISSIONAIS; i++) {
+            profissionais.add(geraProfissionalParaTeste());
+        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                insercaoEmLoteRepository.inserirProfissionais(profissionais));
+    }
+
+    @AfterEach
+    public void limpar() {
+        jdbcTemplate.update("DELETE FROM contato WHERE id_profissional IN "
+                + "(SELECT id FROM profissional WHERE nome = ?)", nome);
+        jdbcTemplate.update("DELETE FROM profissional WHERE nome = ?", nome);
+    }
+
+    @Test
+    void deveExportarSemReterAMassaEmMemoria() throws Exception {
+        var memoria = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        var usadaAntes = memoria.getHeapMemoryUsage().getUsed();
+        var saida = new SaidaMedida(BYTES_ANTES_DA_MEDICAO, () -> {
+            System.gc();
+            return memoria.getHeapMemoryUsage().getUsed();
+        });
+
+        exportacaoService.exportarNdjson(saida);
+
+        // NDJSON sem quebra depois da ultima linha
+        Assertions.assertTrue(saida.linhas + 1 >= QUANTIDADE_PROFISSIONAIS);
+        Assertions.assertTrue(saida.bytes > (long) QUANTIDADE_PROFISSIONAIS * CONTATOS_POR_PROFISSIONAL * TAMANHO_CONTATO);
+        Assertions.assertTrue(saida.usadaDuranteExportacao > 0, "A memoria nao foi medida");
+        var retida = saida.usadaDuranteExportacao - usadaAntes;
+        Assertions.assertTrue(retida < MAXIMO_RETIDO,
+                String.format("Exportacao reteve %d bytes no meio da escrita", retida));
+    }
+
+    private ProfissionalDTO geraProfissionalParaTeste() {
+        var contatos = new ArrayList<ContatoDTO>(CONTATOS_POR_PROFISSIONAL);
+        for (int i = 0; i < CONTATOS_POR_PROFISSIONAL; i++) {
+            contatos.add(new ContatoDTO(null, "observacao " + i, "9".repeat(TAMANHO_CONTATO), null));
+        }
+
+        var profissional = new ProfissionalDTO();
+        profissional.setNome(nome);
+        profissional.setCargo(TipoCargo.SUPORTE);
+        profissional.setNascimento(LocalDate.of(1990, 3, 20));
+        profissional.setDataCriacao(LocalDateTime.now());
+        profissional.setContatos(contatos);
+        return profissional;
+    }
+
+    /**
+     * Descarta o que recebe, contando bytes e linhas, e mede a memoria uma vez ao passar
+     * de bytesAntesDaMedicao, ainda dentro da leitura do cursor.
+     */
+    private static final class SaidaMedida extends OutputStream {
+
+        private final long bytesAntesDaMedicao;
+        private final LongSupplier medidor;
+        private long bytes;
+        private long linhas;
+        private long usadaDuranteExportacao;
+
+        private SaidaMedida(long bytesAntesDaMedicao, LongSupplier medidor) {
+            this.bytesAntesDaMedicao = bytesAntesDaMedicao;
+            this.medidor = medidor;
+        }
+
+        @Override
+        public void write(int valor) {
+            write(new byte[]{(byte) valor}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] origem, int inicio, int tamanho) {
+            for (int i = inicio; i < inicio + tamanho; i++) {
+                if (origem[i] == '\n') {
+                    linhas++;
+                }
+            }
+            bytes += tamanho;
+            if (usadaDuranteExportacao == 0 && bytes > bytesAntesDaMedicao) {
+                usadaDuranteExportacao = medidor.getAsLong();
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.simplesdental;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simplesdental.dtos.ContatoDTO;
+import com.simplesdental.dtos.ProfissionalDTO;
+import com.simplesdental.enums.TipoCargo;
+import com.simplesdental.repositories.LeituraProfissionaisRepository;
+import com.simplesdental.services.ExportacaoService;
+
+class ExportacaoServiceTest {
+
+    private LeituraProfissionaisRepository leituraProfissionaisRepository;
+
+    private ExportacaoService exportacaoService;
+
+    @BeforeEach
+    public void init() {
+        this.leituraProfissionaisRepository = mock(LeituraProfissionaisRepository.class);
+        this.exportacaoService = new ExportacaoService(leituraProfissionaisRepository,
+                mock(PlatformTransactionManager.class),
+                new ObjectMapper().findAndRegisterModules());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void deveExportarUmProfissionalPorLinha() throws IOException {
+        doAnswer(invocacao -> {
+            Consumer<ProfissionalDTO> consumidor = invocacao.getArgument(0);
+            consumidor.accept(geraProfissionalParaTeste(1L, "Paulo"));
+            consumidor.accept(geraProfissionalParaTeste(2L, "Helen"));
+            return null;
+        }).when(leituraProfissionaisRepository).percorrerProfissionais(any(Consumer.class));
+
+        var saida = new ByteArrayOutputStream();
+        exportacaoService.exportarNdjson(saida);
+
+        var linhas = saida.toString(StandardCharsets.UTF_8).split("\n");
+        Assertions.assertEquals(2, linhas.length);
+        Assertions.assertTrue(linhas[0].contains("\"nome\":\"Paulo\""));
+        Assertions.assertTrue(linhas[0].contains("\"nascimento\":\"20/03/1990\""));
+        Assertions.assertTrue(linhas[1].contains("\"nome\":\"Helen\""));
+    }
+
+    @Test
+    void deveExportarVazioQuandoNaoHaProfissionais() throws IOException {
+        var saida = new ByteArrayOutputStream();
+        exportacaoService.exportarNdjson(saida);
+
+        Assertions.assertEquals(0, saida.size());
+    }
+
+    private ProfissionalDTO geraProfissionalParaTeste(Long id, String nome) {
+        var profissional = new ProfissionalDTO();
+        profissional.setId(id);
+        profissional.setNome(nome);
+        profissional.setCargo(TipoCargo.DESENVOLVEDOR);
+        profissional.setNascimento(LocalDate.of(1990, 3, 20));
+        profissional.setContatos(Collections.singletonList(new ContatoDTO(id, "celular", "9999", id)));
+        return profissional;
+    }
+
+}
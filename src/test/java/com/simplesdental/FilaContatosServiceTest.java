@@ -0,0 +1,170 @@
+package com.simplesdental;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simplesdental.dtos.ContatoDTO;
+import com.simplesdental.enums.SituacaoTicket;
+import com.simplesdental.exceptions.InvalidAttributeException;
+import com.simplesdental.repositories.EventoAlteracaoRepository;
+import com.simplesdental.repositories.FilaContatosRepository;
+import com.simplesdental.repositories.InsercaoEmLoteRepository;
+import com.simplesdental.services.FilaContatosService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class FilaContatosServiceTest {
+
+    private static final long ESPERA_MAXIMA_MILIS = 5000;
+
+    @TempDir
+    Path diretorio;
+
+    private FilaContatosRepository filaContatosRepository;
+
+    private InsercaoEmLoteRepository insercaoEmLoteRepository;
+
+    private EventoAlteracaoRepository eventoAlteracaoRepository;
+
+    private final AtomicLong proximoIdContato = new AtomicLong(100);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void init() {
+        this.filaContatosRepository = mock(FilaContatosRepository.class);
+        this.insercaoEmLoteRepository = mock(InsercaoEmLoteRepository.class);
+        this.eventoAlteracaoRepository = mock(EventoAlteracaoRepository.class);
+        when(filaContatosRepository.bloquearProfissionais(anyCollection()))
+                .thenAnswer(invocacao -> new ArrayList<>((Collection<Long>) invocacao.getArgument(0)));
+        doAnswer(invocacao -> {
+            List<ContatoDTO> contatos = invocacao.getArgument(0);
+            contatos.forEach(contato -> contato.setId(proximoIdContato.getAndIncrement()));
+            return null;
+        }).when(insercaoEmLoteRepository).inserirContatos(anyList());
+    }
+
+    @Test
+    void deveGravarContatoEnfileiradoEInformarNoTicket() throws Exception {
+        var fila = criarFila();
+        fila.iniciar();
+
+        var ticket = fila.enfileirar(new ContatoDTO(null, "celular", "9999", 1L));
+
+        Assertions.assertEquals(SituacaoTicket.PENDENTE, ticket.getSituacao());
+        aguardar(() -> fila.consultar(ticket.getTicket()).getSituacao() == SituacaoTicket.GRAVADO);
+        Assertions.assertEquals(100L, fila.consultar(ticket.getTicket()).getIdContato());
+        verify(filaContatosRepository).atualizarPosicao("teste", ticket.getTicket());
+        verify(filaContatosRepository).incrementarVersoes(Set.of(1L));
+        fila.destroy();
+    }
+
+    @Test
+    void deveReaplicarLogAposRestartSemPerderContatos() throws Exception {
+        doThrow(new CannotGetJdbcConnectionException("banco fora"))
+                .when(filaContatosRepository).atualizarPosicao(anyString(), anyLong());
+        var primeira = criarFila();
+        primeira.iniciar();
+        var ticket1 = primeira.enfileirar(new ContatoDTO(null, "celular", "9999", 1L));
+        var ticket2 = primeira.enfileirar(new ContatoDTO(null, "email", "a@b.com", 2L));
+        primeira.destroy();
+
+        this.init();
+        var segunda = criarFila();
+        segunda.iniciar();
+
+        aguardar(() -> segunda.consultar(ticket2.getTicket()).getSituacao() == SituacaoTicket.GRAVADO);
+        Assertions.assertEquals(SituacaoTicket.GRAVADO, segunda.consultar(ticket1.getTicket()).getSituacao());
+        verify(filaContatosRepository).atualizarPosicao(eq("teste"), eq(ticket2.getTicket()));
+        segunda.destroy();
+    }
+
+    @Test
+    void deveManterConsumidorAposFalhaAoAbrirTransacao() throws Exception {
+        var transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any()))
+                .thenThrow(new CannotCreateTransactionException("pool esgotado"))
+                .thenReturn(null);
+        var fila = criarFila(new TransactionTemplate(transactionManager));
+        fila.iniciar();
+
+        var ticket = fila.enfileirar(new ContatoDTO(null, "celular", "9999", 1L));
+
+        aguardar(() -> fila.consultar(ticket.getTicket()).getSituacao() == SituacaoTicket.GRAVADO);
+        Assertions.assertEquals(100L, fila.consultar(ticket.getTicket()).getIdContato());
+        fila.destroy();
+    }
+
+    @Test
+    void deveMarcarErroQuandoProfissionalNaoExiste() throws Exception {
+        when(filaContatosRepository.bloquearProfissionais(anyCollection())).thenReturn(List.of());
+        var fila = criarFila();
+        fila.iniciar();
+
+        var ticket = fila.enfileirar(new ContatoDTO(null, "celular", "9999", 7L));
+
+        aguardar(() -> fila.consultar(ticket.getTicket()).getSituacao() == SituacaoTicket.ERRO);
+        Assertions.assertEquals("Profissional de id: 7 não encontrado", fila.consultar(ticket.getTicket()).getMensagem());
+        fila.destroy();
+    }
+
+    @Test
+    void deveValidarContatoAntesDeEnfileirar() throws Exception {
+        var fila = criarFila();
+        fila.iniciar();
+
+        Assertions.assertThrows(InvalidAttributeException.class,
+                () -> fila.enfileirar(new ContatoDTO(null, "celular", null, 1L)));
+        Assertions.assertThrows(InvalidAttributeException.class,
+                () -> fila.enfileirar(new ContatoDTO(null, "celular", "9999", null)));
+        fila.destroy();
+    }
+
+    private FilaContatosService criarFila() {
+        return criarFila(new TransactionTemplate(mock(PlatformTransactionManager.class)));
+    }
+
+    private FilaContatosService criarFila(TransactionTemplate transactionTemplate) {
+        return new FilaContatosService(true, "teste", diretorio, 10, 1024 * 1024,
+                filaContatosRepository, insercaoEmLoteRepository, eventoAlteracaoRepository,
+                transactionTemplate,
+                mock(ApplicationEventPublisher.class),
+                new ObjectMapper(),
+                new SimpleMeterRegistry());
+    }
+
+    private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+        var limite = System.currentTimeMillis() + ESPERA_MAXIMA_MILIS;
+        while (!condicao.getAsBoolean()) {
+            Assertions.assertTrue(System.currentTimeMillis() < limite, "Tempo esgotado aguardando a fila");
+            Thread.sleep(20);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.simplesdental;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simplesdental.dtos.EventoAlteracaoDTO;
+import com.simplesdental.dtos.ProfissionalDTO;
+import com.simplesdental.enums.TipoCargo;
+import com.simplesdental.enums.TipoEntidade;
+import com.simplesdental.repositories.EventoAlteracaoRepository;
+import com.simplesdental.repositories.InsercaoEmLoteRepository;
+import com.simplesdental.services.ImportacaoService;
+
+class ImportacaoServiceTest {
+
+    private static final int TAMANHO_LOTE = 2;
+
+    private static final int TAMANHO_MAXIMO_LINHA = 200;
+
+    private InsercaoEmLoteRepository insercaoEmLoteRepository;
+    private EventoAlteracaoRepository eventoAlteracaoRepository;
+
+    private ImportacaoService importacaoService;
+
+    @BeforeEach
+    public void init() {
+        this.insercaoEmLoteRepository = mock(InsercaoEmLoteRepository.class);
+        this.eventoAlteracaoRepository = mock(EventoAlteracaoRepository.class);
+        this.importacaoService = new ImportacaoService(insercaoEmLoteRepository, eventoAlteracaoRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                new ObjectMapper().findAndRegisterModules(),
+                TAMANHO_LOTE,
+                TAMANHO_MAXIMO_LINHA);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void deveImportarNdjsonEmLotes() throws IOException {
+        var corpo = String.join("\n",
+                "{\"nome\":\"Paulo\",\"cargo\":\"DESENVOLVEDOR\",\"nascimento\":\"12/01/1990\"}",
+                "{\"nome\":\"Helen\",\"cargo\":\"DESIGNER\",\"nascimento\":\"20/09/2003\","
+                        + "\"contatos\":[{\"nome\":\"celular\",\"contato\":\"9999\"}]}",
+                "",
+                "{\"nome\":\"Karol\",\"cargo\":\"TESTER\",\"nascimento\":\"27/05/1993\"}");
+
+        var loteCaptor = ArgumentCaptor.forClass(List.class);
+
+        var retorno = importacaoService.importarNdjson(paraStream(corpo));
+
+        verify(insercaoEmLoteRepository, times(2)).inserirProfissionais(loteCaptor.capture());
+        Assertions.assertEquals(3, retorno.getLinhasProcessadas());
+        Assertions.assertEquals(3, retorno.getProfissionaisImportados());
+        Assertions.assertEquals(0, retorno.getLinhasComErro());
+        Assertions.assertTrue(retorno.getErros().isEmpty());
+    }
+
+    @Test
+    void deveRelatarLinhasInvalidasSemInterromperImportacao() throws IOException {
+        var corpo = String.join("\n",
+                "{\"nome\":\"Paulo\",\"cargo\":\"DESENVOLVEDOR\",\"nascimento\":\"12/01/1990\"}",
+                "{\"cargo\":\"DESIGNER\",\"nascimento\":\"20/09/2003\"}",
+                "{nao e json",
+                "{\"nome\":\"Karol\",\"cargo\":\"TESTER\",\"nascimento\":\"27/05/1993\","
+                        + "\"contatos\":[{\"nome\":\"celular\"}]}");
+
+        var retorno = importacaoService.importarNdjson(paraStream(corpo));
+
+        Assertions.assertEquals(4, retorno.getLinhasProcessadas());
+        Assertions.assertEquals(1, retorno.getProfissionaisImportados());
+        Assertions.assertEquals(3, retorno.getLinhasComErro());
+        Assertions.assertEquals(2L, retorno.getErros().get(0).getLinha());
+        Assertions.assertEquals("Profissional não possui nome", retorno.getErros().get(0).getMensagem());
+        Assertions.assertEquals(3L, retorno.getErros().get(1).getLinha());
+        Assertions.assertEquals(4L, retorno.getErros().get(2).getLinha());
+        Assertions.assertEquals("Contato não possui contato", retorno.getErros().get(2).getMensagem());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void deveImportarCsvComContatos() throws IOException {
+        var corpo = String.join("\n",
+                "nome;nascimento;cargo;nomeContato;contato",
+                "Paulo;12/01/1990;desenvolvedor;celular;9999;email;paulo@simplesdental.com",
+                "Helen;20/09/2003;DESIGNER");
+
+        var loteCaptor = ArgumentCaptor.forClass(List.class);
+        var eventosCaptor = ArgumentCaptor.forClass(List.class);
+
+        var retorno = importacaoService.importarCsv(paraStream(corpo));
+
+        verify(insercaoEmLoteRepository, times(1)).inserirProfissionais(loteCaptor.capture());
+        verify(eventoAlteracaoRepository, times(1)).registrar(eventosCaptor.capture());
+        var lote = (List<ProfissionalDTO>) loteCaptor.getValue();
+        var eventos = (List<EventoAlteracaoDTO>) eventosCaptor.getValue();
+
+        Assertions.assertEquals(2, retorno.getProfissionaisImportados());
+        Assertions.assertEquals("Paulo", lote.get(0).getNome());
+        Assertions.assertEquals(LocalDate.of(1990, 1, 12), lote.get(0).getNascimento());
+        Assertions.assertEquals(TipoCargo.DESENVOLVEDOR, lote.get(0).getCargo());
+        Assertions.assertEquals(2, lote.get(0).getContatos().size());
+        Assertions.assertEquals("paulo@simplesdental.com", lote.get(0).getContatos().get(1).getContato());
+        Assertions.assertNotNull(lote.get(0).getDataCriacao());
+        Assertions.assertTrue(lote.get(1).getContatos().isEmpty());
+        Assertions.assertEquals(4, eventos.size());
+        Assertions.assertEquals(TipoEntidade.PROFISSIONAL, eventos.get(0).getEntidade());
+        Assertions.assertEquals(TipoEntidade.CONTATO, eventos.get(1).getEntidade());
+        Assertions.assertEquals(TipoEntidade.PROFISSIONAL, eventos.get(3).getEntidade());
+    }
+
+    @Test
+    void deveRelatarErroDeCsvComCargoInvalido() throws IOException {
+        var corpo = String.join("\n",
+                "nome;nascimento;cargo",
+                "Paulo;12/01/1990;GERENTE",
+                "Helen;2003-09-20;DESIGNER",
+                "Karol;27/05/1993;TESTER;celular");
+
+        var retorno = importacaoService.importarCsv(paraStream(corpo));
+
+        verify(insercaoEmLoteRepository, times(0)).inserirProfissionais(anyList());
+        Assertions.assertEquals(3, retorno.getLinhasComErro());
+        Assertions.assertEquals("Cargo inválido: GERENTE", retorno.getErros().get(0).getMensagem());
+        Assertions.assertEquals("Data de nascimento inválida: 2003-09-20", retorno.getErros().get(1).getMensagem());
+    }
+
+    @Test
+    void deveRelatarTodasAsLinhasDeUmLoteQueFalhou() throws IOException {
+        var corpo = String.join("\n",
+                "{\"nome\":\"Paulo\",\"cargo\":\"DESENVOLVEDOR\",\"nascimento\":\"12/01/1990\"}",
+                "{\"nome\":\"Helen\",\"cargo\":\"DESIGNER\",\"nascimento\":\"20/09/2003\"}");
+
+        doThrow(new DataIntegrityViolationException("falha"))
+                .when(insercaoEmLoteRepository).inserirProfissionais(anyList());
+
+        var retorno = importacaoService.importarNdjson(paraStream(corpo));
+
+        Assertions.assertEquals(0, retorno.getProfissionaisImportados());
+        Assertions.assertEquals(2, retorno.getLinhasComErro());
+        Assertions.assertEquals("Lote não gravado: falha", retorno.getErros().get(0).getMensagem());
+        verify(eventoAlteracaoRepository, times(0)).registrar(anyList());
+    }
+
+    @Test
+    void deveRelatarLinhaNulaELinhaLongaDemaisSemInterromperImportacao() throws IOException {
+        var corpo = String.join("\r\n",
+                "null",
+                "{\"nome\":\"" + "P".repeat(TAMANHO_MAXIMO_LINHA) + "\",\"cargo\":\"TESTER\"}",
+                "{\"nome\":\"Karol\",\"cargo\":\"TESTER\",\"nascimento\":\"27/05/1993\"}");
+
+        var retorno = importacaoService.importarNdjson(paraStream(corpo));
+
+        Assertions.assertEquals(3, retorno.getLinhasProcessadas());
+        Assertions.assertEquals(1, retorno.getProfissionaisImportados());
+        Assertions.assertEquals("Linha não contém um profissional", retorno.getErros().get(0).getMensagem());
+        Assertions.assertEquals(2L, retorno.getErros().get(1).getLinha());
+        Assertions.assertEquals("Linha excede o limite de 200 caracteres", retorno.getErros().get(1).getMensagem());
+    }
+
+    @Test
+    void deveRelatarContatoNuloSemInterromperImportacao() throws IOException {
+        var corpo = String.join("\n",
+                "{\"nome\":\"Paulo\",\"cargo\":\"SUPORTE\",\"nascimento\":\"01/01/1990\",\"contatos\":[null]}",
+                "{\"nome\":\"Karol\",\"cargo\":\"TESTER\",\"nascimento\":\"27/05/1993\"}");
+
+        var retorno = importacaoService.importarNdjson(paraStream(corpo));
+
+        Assertions.assertEquals(2, retorno.getLinhasProcessadas());
+        Assertions.assertEquals(1, retorno.getProfissionaisImportados());
+        Assertions.assertEquals(1, retorno.getLinhasComErro());
+        Assertions.assertEquals(1L, retorno.getErros().get(0).getLinha());
+        Assertions.assertEquals("Contato 0 é nulo", retorno.getErros().get(0).getMensagem());
+    }
+
+    @Test
+    void deveRelatarLoteQuandoATransacaoNaoAbre() throws IOException {
+        var transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any()))
+                .thenThrow(new CannotCreateTransactionException("pool esgotado"));
+        var importacao = new ImportacaoService(insercaoEmLoteRepository, eventoAlteracaoRepository,
+                new TransactionTemplate(transactionManager),
+                new ObjectMapper().findAndRegisterModules(),
+                TAMANHO_LOTE,
+                TAMANHO_MAXIMO_LINHA);
+
+        var retorno = importacao.importarNdjson(paraStream(
+                "{\"nome\":\"Paulo\",\"cargo\":\"DESENVOLVEDOR\",\"nascimento\":\"12/01/1990\"}"));
+
+        Assertions.assertEquals(0, retorno.getProfissionaisImportados());
+        Assertions.assertEquals("Lote não gravado: pool esgotado", retorno.getErros().get(0).getMensagem());
+    }
+
+    private ByteArrayInputStream paraStream(String corpo) {
+        return new ByteArrayInputStream(corpo.getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.simplesdental;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import com.simplesdental.config.LimiteTamanhoRequisicaoFilter;
+import com.simplesdental.exceptions.PayloadMuitoGrandeException;
+
+class LimiteTamanhoRequisicaoFilterTest {
+
+    private final LimiteTamanhoRequisicaoFilter filtro =
+            new LimiteTamanhoRequisicaoFilter(DataSize.ofBytes(10), DataSize.ofBytes(100));
+
+    @Test
+    void deveRecusarContentLengthAcimaDoLimiteSemLerOCorpo() throws Exception {
+        var request = requisicao("PUT", "/profissional", new byte[11]);
+        var response = new MockHttpServletResponse();
+        var chain = mock(FilterChain.class);
+
+        filtro.doFilter(request, response, chain);
+
+        Assertions.assertEquals(HttpStatus.PAYLOAD_TOO_LARGE.value(), response.getStatus());
+        verify(chain, never()).doFilter(any(), any());
+    }
+
+    @Test
+    void deveInterromperCorpoSemContentLengthAoPassarDoLimite() throws Exception {
+        var request = new MockHttpServletRequest("PUT", "/contato") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        request.setServletPath("/contato");
+        request.setContent(new byte[11]);
+        FilterChain chain = (requisicao, resposta) -> lerTudo(requisicao);
+
+        Assertions.assertThrows(PayloadMuitoGrandeException.class,
+                () -> filtro.doFilter(request, new MockHttpServletResponse(), chain));
+    }
+
+    @Test
+    void deveResponder413QuandoOLeitorEmbrulhaOExcesso() throws Exception {
+        var request = new MockHttpServletRequest("PUT", "/contato") {
+            @Override
+            public long getContentLengthLong() {
+                return -1;
+            }
+        };
+        request.setServletPath("/contato");
+        request.setContent(new byte[11]);
+        var response = new MockHttpServletResponse();
+        // como o conversor do Spring: o erro de leitura vira 400
+        FilterChain chain = (requisicao, resposta) -> {
+            try {
+                lerTudo(requisicao);
+            } catch (PayloadMuitoGrandeException e) {
+                ((HttpServletResponse) resposta).sendError(HttpStatus.BAD_REQUEST.value());
+            }
+        };
+
+        filtro.doFilter(request, response, chain);
+
+        Assertions.assertEquals(HttpStatus.PAYLOAD_TOO_LARGE.value(), response.getStatus());
+    }
+
+    @Test
+    void deveAplicarLimiteProprioNaCriacaoIncremental() throws Exception {
+        var request = requisicao("POST", "/profissional", new byte[50]);
+        request.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        var response = new MockHttpServletResponse();
+        var chain = mock(FilterChain.class);
+
+        filtro.doFilter(request, response, chain);
+
+        verify(chain).doFilter(any(), any());
+        Assertions.assertEquals(HttpStatus.OK.value(), response.getStatus());
+    }
+
+    private static MockHttpServletRequest requisicao(String metodo, String caminho, byte[] corpo) {
+        var request = new MockHttpServletRequest(metodo, caminho);
+        request.setServletPath(caminho);
+        request.setContent(corpo);
+        return request;
+    }
+
+    private static void lerTudo(ServletRequest requisicao) throws IOException {
+        var entrada = requisicao.getInputStream();
+        while (entrada.read(new byte[4], 0, 4) >= 0) {
+            // descarta
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.simplesdental;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+
+import com.simplesdental.config.MetricasAspect;
+import com.simplesdental.dtos.ContatoDTO;
+import com.simplesdental.entities.Contato;
+import com.simplesdental.entities.Profissional;
+import com.simplesdental.exceptions.EntityNotFoundException;
+import com.simplesdental.repositories.ContatoRepository;
+import com.simplesdental.repositories.ProfissionalRepository;
+import com.simplesdental.services.ContatoService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class MetricasAspectTest {
+
+    private ContatoRepository contatoRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private ContatoService contatoService;
+
+    @BeforeEach
+    public void init() {
+        this.contatoRepository = mock(ContatoRepository.class);
+        this.meterRegistry = new SimpleMeterRegistry();
+
+        var proxyFactory = new AspectJProxyFactory(new ContatoService(contatoRepository,
+                mock(ProfissionalRepository.class),
+                mock(ApplicationEventPublisher.class)));
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new MetricasAspect(meterRegistry));
+        this.contatoService = proxyFactory.getProxy();
+    }
+
+    @Test
+    void deveMedirTempoETamanhoDoResultado() {
+        var profissional = Profissional.builder().withId(2L).build();
+        var contato = new ContatoDTO(Contato.builder().withId(1L).withProfissional(profissional).build());
+
+        when(contatoRepository.buscarContatosContendoNome(eq("nome"), eq(0L), any(Pageable.class)))
+                .thenReturn(Arrays.asList(contato, contato));
+        contatoService.buscarContidosNoNomeOuContato("nome", null, null, null);
+
+        var timer = meterRegistry.get(MetricasAspect.METRICA_SERVICO)
+                .tag("classe", "ContatoService")
+                .tag("metodo", "buscarContidosNoNomeOuContato")
+                .tag("excecao", "nenhuma")
+                .timer();
+        var resultados = meterRegistry.get(MetricasAspect.METRICA_SERVICO + ".resultados")
+                .tag("metodo", "buscarContidosNoNomeOuContato")
+                .summary();
+
+        Assertions.assertEquals(1, timer.count());
+        Assertions.assertEquals(2, resultados.totalAmount());
+    }
+
+    @Test
+    void deveContarExcecoesPorTipo() {
+        Assertions.assertThrows(EntityNotFoundException.class,
+                () -> contatoService.buscarContatoPorId(1L));
+        Assertions.assertThrows(EntityNotFoundException.class,
+                () -> contatoService.buscarContatoPorId(2L));
+
+        var excecoes = meterRegistry.get(MetricasAspect.METRICA_SERVICO + ".excecoes")
+                .tag("metodo", "buscarContatoPorId")
+                .tag("tipo", "EntityNotFoundException")
+                .counter();
+        var timer = meterRegistry.get(MetricasAspect.METRICA_SERVICO)
+                .tag("metodo", "buscarContatoPorId")
+                .tag("excecao", "EntityNotFoundException")
+                .timer();
+
+        Assertions.assertEquals(2, excecoes.count());
+        Assertions.assertEquals(2, timer.count());
+    }
+
+}
@@ -0,0 +1,337 @@
+package com.simplesdental;
+
+import static java.util.Objects.nonNull;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.simplesdental.enums.TipoCargo;
+import com.simplesdental.repositories.ContatoRepository;
+import com.simplesdental.repositories.EventoAlteracaoRepository;
+import com.simplesdental.repositories.ExclusaoEmLoteRepository;
+import com.simplesdental.repositories.FilaContatosRepository;
+import com.simplesdental.repositories.LeituraProfissionaisRepository;
+import com.simplesdental.repositories.ProfissionalRepository;
+
+/**
+ * Chama os metodos dos repositorios, captura o SQL que o Hibernate e o JdbcTemplate
+ * realmente enviam ao banco e roda EXPLAIN em cada comando com os mesmos parametros.
+ * Falha se algum precisar de Seq Scan ou se os planos nao usarem os indices esperados
+ * para o metodo: uma varredura inteira de pk_profissional com Filter tambem evita o
+ * Seq Scan, mas nao mostra que o indice criado para a consulta e usado. Tudo roda numa
+ * transacao desfeita no fim.
+ *
+ * Com enable_seqscan desligado o planner so escolhe Seq Scan quando nao existe indice
+ * utilizavel, entao o resultado depende menos do volume de dados da base de teste.
+ * contarPorFaixaEtaria fica de fora: agrupa a tabela inteira por uma expressao de
+ * CURRENT_DATE e sempre precisa ler todas as linhas.
+ */
+@SpringBootTest
+class PlanosDeConsultaTest {
+
+    private static final String PK_PROFISSIONAL = "pk_profissional";
+    private static final String IDX_PROFISSIONAL_CARGO = "idx_profissional_cargo_id";
+    private static final String IDX_CONTATO_PROFISSIONAL = "idx_contato_profissional_id";
+
+    // Comandos preparados na thread enquanto o metodo do repositorio executa
+    private static final ThreadLocal<List<ComandoCapturado>> CAPTURADOS = new ThreadLocal<>();
+
+    @Autowired
+    private ProfissionalRepository profissionalRepository;
+
+    @Autowired
+    private ContatoRepository contatoRepository;
+
+    @Autowired
+    private ExclusaoEmLoteRepository exclusaoEmLoteRepository;
+
+    @Autowired
+    private FilaContatosRepository filaContatosRepository;
+
+    @Autowired
+    private EventoAlteracaoRepository eventoAlteracaoRepository;
+
+    @Autowired
+    private LeituraProfissionaisRepository leituraProfissionaisRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private List<Long> ids;
+
+    @BeforeEach
+    public void init() {
+        this.ids = jdbcTemplate.queryForList("SELECT id FROM profissional ORDER BY id LIMIT 3", Long.class);
+        Assertions.assertFalse(ids.isEmpty(), "A base de teste nao tem profissionais");
+    }
+
+    static Stream<Arguments> consultas() {
+        return Stream.of(
+                consulta("ProfissionalRepository.buscarProfissionalContendoNome", teste ->
+                        teste.profissionalRepository.buscarProfissionalContendoNome("pau", 0L, PageRequest.of(0, 51)),
+                        "idx_profissional_nome_trgm"),
+                consulta("ProfissionalRepository.buscarProfissionalContendoNomePorRelevancia", teste ->
+                        teste.profissionalRepository.buscarProfissionalContendoNomePorRelevancia("pau", 50),
+                        "idx_profissional_nome_trgm"),
+                consulta("ProfissionalRepository.buscarProfissionalPorCargo", teste ->
+                        teste.profissionalRepository.buscarProfissionalPorCargo(TipoCargo.SUPORTE, 0L, PageRequest.of(0, 51)),
+                        IDX_PROFISSIONAL_CARGO),
+                consulta("ProfissionalRepository.buscarComContatosPorIds", teste ->
+                        teste.profissionalRepository.buscarComContatosPorIds(teste.ids),
+                        PK_PROFISSIONAL, IDX_CONTATO_PROFISSIONAL),
+                consulta("ProfissionalRepository.buscarComContatosPorId", teste ->
+                        teste.profissionalRepository.buscarComContatosPorId(teste.ids.get(0)),
+                        PK_PROFISSIONAL, IDX_CONTATO_PROFISSIONAL),
+                consulta("ProfissionalRepository.buscarVersao", teste ->
+                        teste.profissionalRepository.buscarVersao(teste.ids.get(0)),
+                        PK_PROFISSIONAL),
+                consulta("ProfissionalRepository.buscarPorTexto", teste ->
+                        teste.profissionalRepository.buscarPorTexto("pau:*", Float.MAX_VALUE, 0L, 51),
+                        "idx_profissional_busca"),
+                consulta("ProfissionalRepository.buscarProjecoesPorIds", teste ->
+                        teste.profissionalRepository.buscarProjecoesPorIds(teste.ids),
+                        PK_PROFISSIONAL),
+                consulta("ProfissionalRepository.contarPorCargo", teste ->
+                        teste.profissionalRepository.contarPorCargo(),
+                        IDX_PROFISSIONAL_CARGO),
+                consulta("ProfissionalRepository.contarContatosPorProfissional", teste ->
+                        teste.profissionalRepository.contarContatosPorProfissional(0L, PageRequest.of(0, 51)),
+                        PK_PROFISSIONAL, IDX_CONTATO_PROFISSIONAL),
+                consulta("ProfissionalRepository.contarCriacoesPorDia", teste ->
+                        teste.profissionalRepository.contarCriacoesPorDia(LocalDateTime.now().minusDays(30), LocalDateTime.now()),
+                        "idx_profissional_data_criacao"),
+                consulta("ContatoRepository.buscarContatosContendoNome", teste ->
+                        teste.contatoRepository.buscarContatosContendoNome("pau", 0L, PageRequest.of(0, 51)),
+                        "idx_contato_nome_trgm"),
+                consulta("ContatoRepository.buscarContatosContendoContato", teste ->
+                        teste.contatoRepository.buscarContatosContendoContato("@gmail", 0L, PageRequest.of(0, 51)),
+                        "idx_contato_contato_trgm"),
+                consulta("ContatoRepository.buscarContatosDosProfissionais", teste ->
+                        teste.contatoRepository.buscarContatosDosProfissionais(teste.ids),
+                        IDX_CONTATO_PROFISSIONAL),
+                // carrega a colecao que o orphanRemoval percorre ao excluir o profissional
+                consulta("orphanRemoval ao excluir profissional", teste ->
+                        teste.profissionalRepository.findById(teste.ids.get(0)).orElseThrow().getContatos().size(),
+                        PK_PROFISSIONAL, IDX_CONTATO_PROFISSIONAL),
+                consulta("ExclusaoEmLoteRepository.bloquearProfissionais", teste ->
+                        teste.exclusaoEmLoteRepository.bloquearProfissionais(teste.ids),
+                        PK_PROFISSIONAL),
+                consulta("ExclusaoEmLoteRepository.bloquearProfissionaisPorCargo", teste ->
+                        teste.exclusaoEmLoteRepository.bloquearProfissionaisPorCargo(TipoCargo.SUPORTE, 1000),
+                        IDX_PROFISSIONAL_CARGO),
+                consulta("ExclusaoEmLoteRepository.excluirContatosDosProfissionais", teste ->
+                        teste.exclusaoEmLoteRepository.excluirContatosDosProfissionais(teste.ids),
+                        IDX_CONTATO_PROFISSIONAL),
+                consulta("FilaContatosRepository.bloquearProfissionais", teste ->
+                        teste.filaContatosRepository.bloquearProfissionais(teste.ids),
+                        PK_PROFISSIONAL),
+                consulta("EventoAlteracaoRepository.buscarDesde", teste ->
+                        teste.eventoAlteracaoRepository.buscarDesde(0L, 100),
+                        "evento_alteracao_pkey"),
+                consulta("LeituraProfissionaisRepository.percorrerProfissionaisPorIds", teste ->
+                        teste.leituraProfissionaisRepository.percorrerProfissionaisPorIds(teste.ids, profissional -> {
+                        }),
+                        PK_PROFISSIONAL, IDX_CONTATO_PROFISSIONAL));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("consultas")
+    void deveUsarOsIndicesEsperados(String nome, Consulta consulta, List<String> indices) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            jdbcTemplate.execute("SET LOCAL enable_seqscan = off");
+
+            var capturados = new ArrayList<ComandoCapturado>();
+            CAPTURADOS.set(capturados);
+            try {
+                consulta.executar(this);
+            } finally {
+                CAPTURADOS.remove();
+            }
+
+            Assertions.assertFalse(capturados.isEmpty(), () -> nome + " nao enviou nenhum comando ao banco");
+            var planos = new ArrayList<String>();
+            for (var comando : capturados) {
+                var plano = explicar(comando);
+                Assertions.assertTrue(plano.stream().noneMatch(linha -> linha.contains("Seq Scan")),
+                        () -> nome + " usa Seq Scan em\n" + comando.sql + "\n" + String.join("\n", plano));
+                planos.add(comando.sql);
+                planos.addAll(plano);
+            }
+            // "using pk_profissional on" ou "Bitmap Index Scan on idx_... (cost"
+            for (var indice : indices) {
+                Assertions.assertTrue(planos.stream().anyMatch(linha -> linha.contains(" " + indice + " ")),
+                        () -> nome + " nao usa " + indice + ":\n" + String.join("\n", planos));
+            }
+        });
+    }
+
+    // Mesma conexao da transacao, entao o SET LOCAL e os bloqueios da execucao continuam valendo
+    private List<String> explicar(ComandoCapturado comando) {
+        return jdbcTemplate.execute((ConnectionCallback<List<String>>) conexao -> {
+            try (var explain = conexao.prepareStatement("EXPLAIN " + comando.sql)) {
+                comando.aplicarParametros(explain);
+                var plano = new ArrayList<String>();
+                try (var rs = explain.executeQuery()) {
+                    while (rs.next()) {
+                        plano.add(rs.getString(1));
+                    }
+                }
+                return plano;
+            }
+        });
+    }
+
+    private static Arguments consulta(String nome, Consulta consulta, String... indices) {
+        return Arguments.of(nome, consulta, List.of(indices));
+    }
+
+    @FunctionalInterface
+    interface Consulta {
+
+        void executar(PlanosDeConsultaTest teste);
+    }
+
+    /**
+     * Envolve o DataSource da aplicacao para que toda conexao, do Hibernate ou do
+     * JdbcTemplate, registre os comandos preparados enquanto houver captura ativa.
+     */
+    @TestConfiguration
+    static class CapturaDeSql {
+
+        @Bean
+        static BeanPostProcessor capturaDeSql() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String nome) {
+                    return bean instanceof DataSource ? new DataSourceCapturado((DataSource) bean) : bean;
+                }
+            };
+        }
+    }
+
+    private static final class DataSourceCapturado extends DelegatingDataSource {
+
+        private DataSourceCapturado(DataSource alvo) {
+            super(alvo);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return capturar(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String usuario, String senha) throws SQLException {
+            return capturar(super.getConnection(usuario, senha));
+        }
+    }
+
+    private static Connection capturar(Connection conexao) {
+        return proxy(Connection.class, conexao, (metodo, argumentos, resultado) -> {
+            var capturados = CAPTURADOS.get();
+            if (nonNull(capturados) && "prepareStatement".equals(metodo.getName())) {
+                var comando = new ComandoCapturado((String) argumentos[0]);
+                capturados.add(comando);
+                return capturar((PreparedStatement) resultado, comando);
+            }
+            return resultado;
+        });
+    }
+
+    // Guarda os setXxx(indice, ...) para repetir os mesmos parametros no EXPLAIN
+    private static PreparedStatement capturar(PreparedStatement statement, ComandoCapturado comando) {
+        return proxy(PreparedStatement.class, statement, (metodo, argumentos, resultado) -> {
+            if (metodo.getName().startsWith("set") && metodo.getParameterCount() >= 2
+                    && metodo.getParameterTypes()[0] == int.class) {
+                comando.definicoes.add(metodo);
+                comando.valores.add(argumentos);
+            }
+            return resultado;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> tipo, T alvo, Interceptador interceptador) {
+        return (T) Proxy.newProxyInstance(PlanosDeConsultaTest.class.getClassLoader(), new Class<?>[]{tipo},
+                (proxy, metodo, argumentos) -> {
+                    // identidade do proxy: o Hibernate guarda conexoes e statements em mapas
+                    if ("equals".equals(metodo.getName()) && metodo.getParameterCount() == 1) {
+                        return proxy == argumentos[0];
+                    }
+                    if ("hashCode".equals(metodo.getName()) && metodo.getParameterCount() == 0) {
+                        return System.identityHashCode(proxy);
+                    }
+                    return interceptador.interceptar(metodo, argumentos, invocar(alvo, metodo, argumentos));
+                });
+    }
+
+    private static Object invocar(Object alvo, Method metodo, Object[] argumentos) throws SQLException {
+        try {
+            return metodo.invoke(alvo, argumentos);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Interceptador {
+
+        Object interceptar(Method metodo, Object[] argumentos, Object resultado);
+    }
+
+    private static final class ComandoCapturado {
+
+        private final String sql;
+        private final List<Method> definicoes = new ArrayList<>();
+        private final List<Object[]> valores = new ArrayList<>();
+
+        private ComandoCapturado(String sql) {
+            this.sql = sql;
+        }
+
+        private void aplicarParametros(PreparedStatement explain) throws SQLException {
+            for (int i = 0; i < definicoes.size(); i++) {
+                invocar(explain, definicoes.get(i), valores.get(i));
+            }
+        }
+    }
+}
@@ -1,30 +1,46 @@
 package com.simplesdental;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyFloat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
+import com.simplesdental.dtos.ContatoDTO;
 import com.simplesdental.dtos.ProfissionalDTO;
 import com.simplesdental.entities.Contato;
 import com.simplesdental.entities.Profissional;
 import com.simplesdental.enums.TipoCargo;
+import com.simplesdental.enums.TipoOperacao;
+import com.simplesdental.events.ContatoAlteradoEvent;
+import com.simplesdental.events.ProfissionalAlteradoEvent;
+import com.simplesdental.exceptions.ConflitoDeVersaoException;
 import com.simplesdental.exceptions.EntityNotFoundException;
 import com.simplesdental.exceptions.InvalidAttributeException;
 import com.simplesdental.repositories.ContatoRepository;
 import com.simplesdental.repositories.ProfissionalRepository;
 import com.simplesdental.services.ProfissionalService;
+import com.simplesdental.services.ReplicaProfissionais;
 
 class ProfissionalServiceTest {
 
@@ -32,14 +48,22 @@ class ProfissionalServiceTest {
 
     private ProfissionalRepository profissionalRepository;
 
+    private ApplicationEventPublisher eventPublisher;
+
+    private ReplicaProfissionais replica;
+
     private ProfissionalService profissionalService;
 
     @BeforeEach
     public void init() {
         this.contatoRepository = mock(ContatoRepository.class);
         this.profissionalRepository = mock(ProfissionalRepository.class);
+        this.eventPublisher = mock(ApplicationEventPublisher.class);
+        this.replica = mock(ReplicaProfissionais.class);
         this.profissionalService = new ProfissionalService(contatoRepository,
-                profissionalRepository);
+                profissionalRepository,
+                eventPublisher,
+                replica);
     }
 
     @Test
@@ -61,6 +85,65 @@ class ProfissionalServiceTest {
 
     }
 
+    @Test
+    void deveBuscarProfissionalNaReplicaQuandoDisponivel() {
+        var idProfissional = 2L;
+
+        when(replica.disponivel()).thenReturn(true);
+        when(replica.buscarPorId(idProfissional)).thenReturn(Optional.of(geraProjecaoParaTeste(idProfissional)));
+        var retorno = profissionalService.buscarProfissionalPorId(idProfissional);
+
+        Assertions.assertEquals(idProfissional, retorno.getId());
+        verify(profissionalRepository, times(0)).findById(any());
+        Assertions.assertThrows(EntityNotFoundException.class,
+                () -> profissionalService.buscarProfissionalPorId(3L),
+                "Profissional de id: 3 não encontrado");
+    }
+
+    @Test
+    void deveBuscarProfissionaisPorCargoNaReplicaQuandoDisponivel() {
+        var cargo = TipoCargo.SUPORTE;
+
+        when(replica.disponivel()).thenReturn(true);
+        when(replica.buscarPorCargo(cargo, 0L, 2))
+                .thenReturn(Arrays.asList(geraProjecaoParaTeste(2L), geraProjecaoParaTeste(4L)));
+        var retorno = profissionalService.buscarPorCargo(cargo, null, 1);
+
+        Assertions.assertEquals(1, retorno.getItens().size());
+        Assertions.assertNotNull(retorno.getProximoCursor());
+        verify(profissionalRepository, times(0)).buscarProfissionalPorCargo(any(), any(), any());
+        verify(contatoRepository, times(0)).buscarContatosDosProfissionais(any());
+    }
+
+    @Test
+    void deveBuscarProfissionaisEmLoteNaOrdemRecebida() {
+        var primeiroProfissional = geraProfissionalParaTeste(1L, 2L);
+        var segundoProfissional = geraProfissionalParaTeste(3L, 4L);
+
+        when(profissionalRepository.buscarComContatosPorIds(any()))
+                .thenReturn(Arrays.asList(primeiroProfissional, segundoProfissional));
+
+        var retorno = profissionalService.buscarProfissionaisPorIds(Arrays.asList(4L, 9L, 2L, 4L));
+
+        verify(profissionalRepository, times(1)).buscarComContatosPorIds(any());
+        verify(profissionalRepository, times(0)).findById(any());
+        Assertions.assertEquals(2, retorno.getProfissionais().size());
+        Assertions.assertEquals(4L, retorno.getProfissionais().get(0).getId());
+        Assertions.assertEquals(2L, retorno.getProfissionais().get(1).getId());
+        Assertions.assertEquals(1, retorno.getProfissionais().get(1).getContatos().size());
+        Assertions.assertEquals(Collections.singletonList(9L), retorno.getIdsNaoEncontrados());
+
+    }
+
+    @Test
+    void deveRetornarErroDeBuscaEmLoteSemIds() {
+        Assertions.assertThrows(InvalidAttributeException.class,
+                () -> profissionalService.buscarProfissionaisPorIds(Collections.emptyList()),
+                "Ids dos profissionais não informados");
+        verify(profissionalRepository, times(0)).buscarComContatosPorIds(any());
+
+    }
+
     @Test
     void deveRetornarExcecaoDeContatoNaoEncontradoNaBuscaDeProfissional() {
         var idProfissional = 2L;
@@ -83,6 +166,8 @@ class ProfissionalServiceTest {
 
         var retorno = profissionalService.excluirProfissional(idProfissional);
         verify(profissionalRepository, times(1)).deleteById(idProfissional);
+        verify(eventPublisher, times(1)).publishEvent(any(ContatoAlteradoEvent.class));
+        verify(eventPublisher, times(1)).publishEvent(any(ProfissionalAlteradoEvent.class));
         Assertions.assertEquals("Profissional de id: 2 excluido com sucesso", retorno);
 
     }
@@ -172,6 +257,7 @@ class ProfissionalServiceTest {
         var profissionalCaptor = ArgumentCaptor.forClass(Profissional.class);
 
         when(contatoRepository.findById(idContato)).thenReturn(Optional.of(contato));
+        when(profissionalRepository.save(any(Profissional.class))).thenAnswer(invocacao -> invocacao.getArgument(0));
 
         var retorno = profissionalService.criarProfissional(profissionalDto);
         verify(profissionalRepository, times(1)).save(profissionalCaptor.capture());
@@ -251,65 +337,305 @@ class ProfissionalServiceTest {
         var idProfissional = 2L;
 
         var profissional = geraProfissionalParaTeste(idContato, idProfissional);
+        profissional.setContatos(new ArrayList<>(profissional.getContatos()));
         var contato = profissional.getContatos().get(0);
 
         var profissionalDto = new ProfissionalDTO(profissional);
+        profissionalDto.setNome("simples dental");
+        profissionalDto.getContatos().get(0).setNome("celular");
 
-        var contatoCaptor = ArgumentCaptor.forClass(Contato.class);
-        var profissionalCaptor = ArgumentCaptor.forClass(Profissional.class);
+        when(profissionalRepository.buscarComContatosPorId(idProfissional)).thenReturn(Optional.of(profissional));
 
-        when(contatoRepository.findById(idContato)).thenReturn(Optional.of(contato));
-        when(profissionalRepository.findById(idProfissional)).thenReturn(Optional.of(profissional));
+        var retorno = profissionalService.atualizarProfissional(profissionalDto);
+
+        verify(profissionalRepository, times(0)).save(any());
+        verify(contatoRepository, times(0)).save(any());
+        verify(contatoRepository, times(0)).findById(any());
+
+        Assertions.assertEquals("simples dental", profissional.getNome());
+        Assertions.assertEquals("celular", contato.getNome());
+        Assertions.assertEquals(idProfissional, contato.getProfissional().getId());
+        Assertions.assertEquals("Profissional atualizado com sucesso. Profissional alterado: 1, "
+                + "contatos incluídos: 0, contatos alterados: 1, contatos excluídos: 0", retorno);
+
+    }
+
+    @Test
+    void deveAtualizarProfissionalSemAlteracoesApenasComAConsulta() {
+        var idContato = 1L;
+        var idProfissional = 2L;
+
+        var profissional = geraProfissionalParaTeste(idContato, idProfissional);
+        profissional.setContatos(new ArrayList<>(profissional.getContatos()));
+
+        var profissionalDto = new ProfissionalDTO(profissional);
+
+        when(profissionalRepository.buscarComContatosPorId(idProfissional)).thenReturn(Optional.of(profissional));
 
         var retorno = profissionalService.atualizarProfissional(profissionalDto);
-        verify(profissionalRepository, times(1)).save(profissionalCaptor.capture());
 
-        var profissionalCapturado = profissionalCaptor.getValue();
+        verify(profissionalRepository, times(1)).buscarComContatosPorId(idProfissional);
+        verify(profissionalRepository, times(0)).findById(any());
+        verify(contatoRepository, times(0)).save(any());
+        verify(contatoRepository, times(0)).findById(any());
+        verify(eventPublisher, times(0)).publishEvent(any(ContatoAlteradoEvent.class));
+        Assertions.assertEquals(1, profissional.getContatos().size());
+        Assertions.assertEquals("Profissional atualizado com sucesso. Profissional alterado: 0, "
+                + "contatos incluídos: 0, contatos alterados: 0, contatos excluídos: 0", retorno);
 
-        Assertions.assertEquals(idProfissional, profissionalCapturado.getId());
-        Assertions.assertEquals(profissional.getNome(), profissionalCapturado.getNome());
-        Assertions.assertEquals(profissional.getNascimento(), profissionalCapturado.getNascimento());
-        Assertions.assertEquals(profissional.getCargo(), profissionalCapturado.getCargo());
+    }
+
+    @Test
+    void deveIncluirEExcluirContatosNaAtualizacao() {
+        var idContato = 1L;
+        var idProfissional = 2L;
+
+        var profissional = geraProfissionalParaTeste(idContato, idProfissional);
+        profissional.setContatos(new ArrayList<>(profissional.getContatos()));
+        profissional.setVersao(3L);
+
+        var profissionalDto = new ProfissionalDTO(profissional);
+        profissionalDto.setContatos(Collections.singletonList(new ContatoDTO(null, "email", "dental@simples.com", null)));
+
+        var contatoCaptor = ArgumentCaptor.forClass(Contato.class);
+
+        when(profissionalRepository.buscarComContatosPorId(idProfissional)).thenReturn(Optional.of(profissional));
+        when(profissionalRepository.incrementarVersaoSeIgual(idProfissional, 3L)).thenReturn(1);
+
+        var retorno = profissionalService.atualizarProfissional(profissionalDto);
 
         verify(contatoRepository, times(1)).save(contatoCaptor.capture());
+        var contatoCapturado = contatoCaptor.getValue();
 
-        var entidadeCapturada = contatoCaptor.getValue();
+        Assertions.assertNull(contatoCapturado.getId());
+        Assertions.assertEquals("email", contatoCapturado.getNome());
+        Assertions.assertEquals(idProfissional, contatoCapturado.getProfissional().getId());
+        Assertions.assertEquals(1, profissional.getContatos().size());
+        Assertions.assertEquals("email", profissional.getContatos().get(0).getNome());
+        verify(eventPublisher, times(2)).publishEvent(any(ContatoAlteradoEvent.class));
+        var eventoCaptor = ArgumentCaptor.forClass(Object.class);
+        verify(eventPublisher, times(3)).publishEvent(eventoCaptor.capture());
+        var operacoesContato = eventoCaptor.getAllValues().stream()
+                .filter(ContatoAlteradoEvent.class::isInstance)
+                .map(evento -> ((ContatoAlteradoEvent) evento).getOperacao())
+                .collect(Collectors.toList());
+        Assertions.assertEquals(List.of(TipoOperacao.EXCLUSAO, TipoOperacao.CRIACAO), operacoesContato);
+        verify(profissionalRepository, times(1)).incrementarVersaoSeIgual(idProfissional, 3L);
+        Assertions.assertEquals("Profissional atualizado com sucesso. Profissional alterado: 0, "
+                + "contatos incluídos: 1, contatos alterados: 0, contatos excluídos: 1", retorno);
 
-        Assertions.assertEquals(idContato, entidadeCapturada.getId());
-        Assertions.assertEquals(contato.getNome(), entidadeCapturada.getNome());
-        Assertions.assertEquals(contato.getContato(), entidadeCapturada.getContato());
-        Assertions.assertEquals(idProfissional, entidadeCapturada.getProfissional().getId());
-        Assertions.assertEquals("Profissional atualizado com sucesso", retorno);
+    }
+
+    @Test
+    void deveRetornarConflitoDeVersaoAoAlterarSoContatosComVersaoDesatualizada() {
+        var idContato = 1L;
+        var idProfissional = 2L;
+
+        var profissional = geraProfissionalParaTeste(idContato, idProfissional);
+        profissional.setContatos(new ArrayList<>(profissional.getContatos()));
+        profissional.setVersao(5L);
+
+        // If-Match "5" confere com a leitura, mas outra transacao ja levou a linha a 6
+        var profissionalDto = new ProfissionalDTO(profissional);
+        profissionalDto.setVersao(5L);
+        profissionalDto.setContatos(Collections.singletonList(new ContatoDTO(null, "email", "dental@simples.com", null)));
+
+        when(profissionalRepository.buscarComContatosPorId(idProfissional)).thenReturn(Optional.of(profissional));
+        when(profissionalRepository.incrementarVersaoSeIgual(idProfissional, 5L)).thenReturn(0);
+
+        Assertions.assertThrows(ConflitoDeVersaoException.class,
+                () -> profissionalService.atualizarProfissional(profissionalDto),
+                "Profissional de id: 2 foi alterado por outra requisição");
+        verify(eventPublisher, times(0)).publishEvent(any(ProfissionalAlteradoEvent.class));
+    }
+
+    @Test
+    void deveRetornarConflitoDeVersaoNaAtualizacao() {
+        var idProfissional = 2L;
+
+        var profissional = geraProfissionalParaTeste(1L, idProfissional);
+        profissional.setVersao(3L);
+
+        var profissionalDto = new ProfissionalDTO(profissional);
+        profissionalDto.setVersao(2L);
+        profissionalDto.setNome("simples dental");
+
+        when(profissionalRepository.buscarComContatosPorId(idProfissional)).thenReturn(Optional.of(profissional));
+
+        Assertions.assertThrows(ConflitoDeVersaoException.class,
+                () -> profissionalService.atualizarProfissional(profissionalDto),
+                "Profissional de id: 2 foi alterado por outra requisição");
+        Assertions.assertEquals("dental", profissional.getNome());
+        verify(profissionalRepository, times(0)).flush();
+    }
+
+    @Test
+    void deveRetornarConflitoDeVersaoDetectadoNoFlush() {
+        var idProfissional = 2L;
+
+        var profissional = geraProfissionalParaTeste(1L, idProfissional);
+        profissional.setContatos(new ArrayList<>(profissional.getContatos()));
+
+        var profissionalDto = new ProfissionalDTO(profissional);
+        profissionalDto.setNome("simples dental");
+
+        when(profissionalRepository.buscarComContatosPorId(idProfissional)).thenReturn(Optional.of(profissional));
+        doThrow(new ObjectOptimisticLockingFailureException(Profissional.class, idProfissional))
+                .when(profissionalRepository).flush();
+
+        Assertions.assertThrows(ConflitoDeVersaoException.class,
+                () -> profissionalService.atualizarProfissional(profissionalDto),
+                "Profissional de id: 2 foi alterado por outra requisição");
+        verify(eventPublisher, times(0)).publishEvent(any(ProfissionalAlteradoEvent.class));
+    }
+
+    @Test
+    void deveRetornarErroDeProfissionalNaoEncontradoNaAtualizacao() {
+        var profissional = geraProfissionalParaTeste(null, 2L);
+
+        var profissionalDto = new ProfissionalDTO(profissional);
+
+        Assertions.assertThrows(EntityNotFoundException.class,
+                () -> profissionalService.atualizarProfissional(profissionalDto),
+                "Profissional de id: 2 não encontrado");
+
+        verify(contatoRepository, times(0)).save(any());
 
     }
 
     @Test
     void deveBuscarProfissionalPeloNome() {
+        var primeiroProfissional = geraProjecaoParaTeste(2L);
+        var segundoProfissional = geraProjecaoParaTeste(4L);
+
+        var nome = "nome";
+
+        when(profissionalRepository.buscarProfissionalContendoNome(eq(nome), eq(0L), any(Pageable.class)))
+                .thenReturn(Arrays.asList(primeiroProfissional, segundoProfissional));
+        when(contatoRepository.buscarContatosDosProfissionais(any()))
+                .thenReturn(Arrays.asList(new ContatoDTO(1L, "contato", "contato", 2L),
+                        new ContatoDTO(3L, "contato", "contato", 4L),
+                        new ContatoDTO(5L, "contato", "contato", 4L)));
+        var retorno = profissionalService.buscarContidosNoNome(nome, null, null);
+
+        verify(contatoRepository, times(1)).buscarContatosDosProfissionais(any());
+        verify(profissionalRepository, times(0)).buscarComContatosPorIds(any());
+        Assertions.assertEquals(2, retorno.getItens().size());
+        Assertions.assertEquals(2L, retorno.getItens().get(0).getId());
+        Assertions.assertEquals(1, retorno.getItens().get(0).getContatos().size());
+        Assertions.assertEquals(4L, retorno.getItens().get(1).getId());
+        Assertions.assertEquals(2, retorno.getItens().get(1).getContatos().size());
+        Assertions.assertNull(retorno.getProximoCursor());
+    }
+
+    @Test
+    void deveBuscarProximaPaginaDeProfissionaisPeloCursor() {
+        var primeiroProfissional = geraProjecaoParaTeste(2L);
+        var segundoProfissional = geraProjecaoParaTeste(4L);
+        var terceiroProfissional = geraProjecaoParaTeste(6L);
+
+        var nome = "nome";
+        var pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+
+        when(profissionalRepository.buscarProfissionalContendoNome(eq(nome), eq(0L), any(Pageable.class)))
+                .thenReturn(Arrays.asList(primeiroProfissional, segundoProfissional, terceiroProfissional));
+        var primeiraPagina = profissionalService.buscarContidosNoNome(nome, null, 2);
+
+        verify(profissionalRepository, times(1))
+                .buscarProfissionalContendoNome(eq(nome), eq(0L), pageableCaptor.capture());
+        Assertions.assertEquals(3, pageableCaptor.getValue().getPageSize());
+        Assertions.assertEquals(2, primeiraPagina.getItens().size());
+        Assertions.assertNotNull(primeiraPagina.getProximoCursor());
+
+        when(profissionalRepository.buscarProfissionalContendoNome(eq(nome), eq(4L), any(Pageable.class)))
+                .thenReturn(Collections.singletonList(terceiroProfissional));
+        var segundaPagina = profissionalService.buscarContidosNoNome(nome, primeiraPagina.getProximoCursor(), 2);
+
+        Assertions.assertEquals(1, segundaPagina.getItens().size());
+        Assertions.assertEquals(6L, segundaPagina.getItens().get(0).getId());
+        Assertions.assertNull(segundaPagina.getProximoCursor());
+    }
+
+    @Test
+    void deveRetornarErroDeCursorInvalido() {
+        Assertions.assertThrows(InvalidAttributeException.class,
+                () -> profissionalService.buscarContidosNoNome("nome", "cursor-invalido", null),
+                "Cursor inválido");
+        verify(profissionalRepository, times(0)).buscarProfissionalContendoNome(any(), any(), any());
+    }
+
+    @Test
+    void deveRetornarErroDeTamanhoDePaginaInvalido() {
+        Assertions.assertThrows(InvalidAttributeException.class,
+                () -> profissionalService.buscarPorCargo(TipoCargo.DESENVOLVEDOR, null, 501),
+                "Tamanho da página deve estar entre 1 e 500");
+        verify(profissionalRepository, times(0)).buscarProfissionalPorCargo(any(), any(), any());
+    }
+
+    @Test
+    void deveBuscarProfissionalPeloNomeOrdenadoPorRelevancia() {
         var primeiroProfissional = geraProfissionalParaTeste(1L, 2L);
         var segundoProfissional = geraProfissionalParaTeste(3L, 4L);
 
         var nome = "nome";
 
-        when(profissionalRepository.buscarProfissionalContendoNome(nome))
+        when(profissionalRepository.buscarProfissionalContendoNomePorRelevancia(nome, 50))
+                .thenReturn(Arrays.asList(segundoProfissional, primeiroProfissional));
+        when(profissionalRepository.buscarComContatosPorIds(Arrays.asList(4L, 2L)))
                 .thenReturn(Arrays.asList(primeiroProfissional, segundoProfissional));
-        var retorno = profissionalService.buscarContidosNoNome(nome);
+        var retorno = profissionalService.buscarContidosNoNomePorRelevancia(nome, null);
 
-        Assertions.assertEquals(2, retorno.size());
+        verify(profissionalRepository, times(0)).buscarProfissionalContendoNome(any(), any(), any());
+        Assertions.assertEquals(2, retorno.getItens().size());
+        Assertions.assertEquals(4L, retorno.getItens().get(0).getId());
+        Assertions.assertEquals(2L, retorno.getItens().get(1).getId());
     }
 
     @Test
     void deveBuscarProfissionalPeloCargo() {
-        var primeiroProfissional = geraProfissionalParaTeste(1L, 2L);
-        var segundoProfissional = geraProfissionalParaTeste(3L, 4L);
+        var primeiroProfissional = geraProjecaoParaTeste(2L);
+        var segundoProfissional = geraProjecaoParaTeste(4L);
 
         var cargo = TipoCargo.DESENVOLVEDOR;
 
-        when(profissionalRepository.buscarProfissionalPorCargo(cargo))
+        when(profissionalRepository.buscarProfissionalPorCargo(eq(cargo), eq(0L), any(Pageable.class)))
                 .thenReturn(Arrays.asList(primeiroProfissional, segundoProfissional));
-        var retorno = profissionalService.buscarPorCargo(cargo);
+        var retorno = profissionalService.buscarPorCargo(cargo, null, null);
+
+        verify(contatoRepository, times(1)).buscarContatosDosProfissionais(any());
+        Assertions.assertEquals(2, retorno.getItens().size());
+
+    }
 
-        Assertions.assertEquals(2, retorno.size());
+    @Test
+    void deveBuscarPorTextoOrdenadoPorRelevancia() {
+        when(profissionalRepository.buscarPorTexto(eq("simples:* & dental:*"), eq(Float.MAX_VALUE), eq(0L), eq(3)))
+                .thenReturn(Arrays.asList(new Object[]{4L, 0.9f}, new Object[]{2L, 0.5f}, new Object[]{6L, 0.5f}));
+        when(profissionalRepository.buscarProjecoesPorIds(Arrays.asList(4L, 2L)))
+                .thenReturn(Arrays.asList(geraProjecaoParaTeste(2L), geraProjecaoParaTeste(4L)));
+
+        var primeiraPagina = profissionalService.buscarPorTexto("  Simples   dental:* ", null, 2);
+
+        Assertions.assertEquals(2, primeiraPagina.getItens().size());
+        Assertions.assertEquals(4L, primeiraPagina.getItens().get(0).getId());
+        Assertions.assertEquals(2L, primeiraPagina.getItens().get(1).getId());
+        Assertions.assertNotNull(primeiraPagina.getProximoCursor());
+
+        profissionalService.buscarPorTexto("simples dental", primeiraPagina.getProximoCursor(), 2);
+        verify(profissionalRepository, times(1)).buscarPorTexto(eq("simples:* & dental:*"), eq(0.5f), eq(2L), eq(3));
+    }
+
+    @Test
+    void deveRetornarErroDeBuscaPorTextoSemTermo() {
+        Assertions.assertThrows(InvalidAttributeException.class,
+                () -> profissionalService.buscarPorTexto(" & ", null, null),
+                "Termo de busca não informado");
+        verify(profissionalRepository, times(0)).buscarPorTexto(any(), anyFloat(), any(), anyInt());
+    }
 
+    private ProfissionalDTO geraProjecaoParaTeste(Long idProfissional) {
+        return new ProfissionalDTO(idProfissional, "dental", TipoCargo.DESENVOLVEDOR,
+                LocalDate.of(1990, 3, 20), null, 0L);
     }
 
     private Profissional geraProfissionalParaTeste(Long idContato, Long idProfissional) {
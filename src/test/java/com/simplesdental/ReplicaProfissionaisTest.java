@@ -0,0 +1,152 @@
+package com.simplesdental;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.simplesdental.dtos.ContatoDTO;
+import com.simplesdental.dtos.ProfissionalDTO;
+import com.simplesdental.enums.TipoCargo;
+import com.simplesdental.repositories.InsercaoEmLoteRepository;
+import com.simplesdental.repositories.ProfissionalRepository;
+import com.simplesdental.services.ProfissionalService;
+import com.simplesdental.services.ReplicaProfissionais;
+
+/**
+ * Compara a replica em memoria com o banco depois de escritas pelo servico e de
+ * insercoes feitas por fora dele.
+ */
+// lotes de recarga menores que os importados, para a reconciliacao passar por varios
+@SpringBootTest(properties = {"simplesdental.replica.habilitada=true",
+        "simplesdental.replica.intervalo-reconciliacao=3600000",
+        "simplesdental.replica.tamanho-lote-recarga=2"})
+class ReplicaProfissionaisTest {
+
+    private static final int QUANTIDADE_PROFISSIONAIS = 5;
+
+    @Autowired
+    private ProfissionalService profissionalService;
+
+    @Autowired
+    private ReplicaProfissionais replica;
+
+    @Autowired
+    private ProfissionalRepository profissionalRepository;
+
+    @Autowired
+    private InsercaoEmLoteRepository insercaoEmLoteRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String nome;
+
+    @BeforeEach
+    public void init() {
+        this.nome = UUID.randomUUID().toString();
+        for (int i = 0; i < QUANTIDADE_PROFISSIONAIS; i++) {
+            profissionalService.criarProfissional(geraProfissionalParaTeste());
+        }
+    }
+
+    @AfterEach
+    public void limpar() {
+        idsNoBanco().forEach(profissionalService::excluirProfissional);
+    }
+
+    @Test
+    void deveRefletirAsEscritasDoServico() throws JsonProcessingException {
+        Assertions.assertTrue(replica.disponivel());
+        var ids = idsNoBanco();
+        Assertions.assertEquals(QUANTIDADE_PROFISSIONAIS, ids.size());
+
+        var alterado = profissionalService.buscarProfissionalPorId(ids.get(0));
+        alterado.setNome(nome + " alterado");
+        alterado.setCargo(TipoCargo.TESTER);
+        alterado.setContatos(List.of(alterado.getContatos().get(0),
+                new ContatoDTO(null, "email", "replica@simples.com", null)));
+        profissionalService.atualizarProfissional(alterado);
+        profissionalService.excluirProfissional(ids.get(1));
+
+        Assertions.assertTrue(replica.buscarPorId(ids.get(1)).isEmpty());
+        for (Long id : idsNoBanco()) {
+            assertMesmoEstado(id);
+        }
+        Assertions.assertEquals(idsNoBanco(), replica.buscarContendoNome(nome, 0L, 100).stream()
+                .map(ProfissionalDTO::getId)
+                .collect(Collectors.toList()));
+        Assertions.assertTrue(replica.buscarPorCargo(TipoCargo.TESTER, 0L, Integer.MAX_VALUE).stream()
+                .anyMatch(profissional -> profissional.getId().equals(ids.get(0))));
+        Assertions.assertTrue(replica.buscarPorCargo(TipoCargo.SUPORTE, 0L, Integer.MAX_VALUE).stream()
+                .noneMatch(profissional -> profissional.getId().equals(ids.get(0))));
+    }
+
+    @Test
+    void deveReconciliarInsercoesFeitasForaDoServico() throws JsonProcessingException {
+        var importados = new ArrayList<ProfissionalDTO>();
+        for (int i = 0; i < QUANTIDADE_PROFISSIONAIS; i++) {
+            importados.add(geraProfissionalParaTeste());
+        }
+        insercaoEmLoteRepository.inserirProfissionais(importados);
+
+        for (ProfissionalDTO importado : importados) {
+            Assertions.assertTrue(replica.buscarPorId(importado.getId()).isEmpty());
+        }
+        replica.reconciliar();
+
+        for (ProfissionalDTO importado : importados) {
+            assertMesmoEstado(importado.getId());
+        }
+    }
+
+    private List<Long> idsNoBanco() {
+        return new TransactionTemplate(transactionManager).execute(status ->
+                profissionalRepository.buscarProfissionalContendoNome(nome, 0L, PageRequest.of(0, 100))
+                        .stream()
+                        .map(ProfissionalDTO::getId)
+                        .collect(Collectors.toList()));
+    }
+
+    private void assertMesmoEstado(Long id) throws JsonProcessingException {
+        var doBanco = new TransactionTemplate(transactionManager).execute(status ->
+                profissionalRepository.buscarComContatosPorId(id).map(ProfissionalDTO::new).orElseThrow());
+        var daReplica = replica.buscarPorId(id).orElseThrow();
+        doBanco.getContatos().sort(Comparator.comparing(ContatoDTO::getId));
+
+        Assertions.assertEquals(objectMapper.writeValueAsString(doBanco), objectMapper.writeValueAsString(daReplica));
+    }
+
+    private ProfissionalDTO geraProfissionalParaTeste() {
+        var contatos = new ArrayList<ContatoDTO>();
+        contatos.add(new ContatoDTO(null, "celular", "+55 11 99999-0000", null));
+        contatos.add(new ContatoDTO(null, "email", "dental@simples.com", null));
+
+        var profissional = new ProfissionalDTO();
+        profissional.setNome(nome);
+        profissional.setCargo(TipoCargo.SUPORTE);
+        profissional.setNascimento(LocalDate.of(1990, 3, 20));
+        profissional.setDataCriacao(LocalDateTime.now());
+        profissional.setContatos(contatos);
+        return profissional;
+    }
+
+}